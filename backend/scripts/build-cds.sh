@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Builds the application as an unpacked classpath plus an AppCDS archive for fast startup.
+# A training run starts the context with the given profiles and exits right after refresh,
+# dumping the classes it loaded into target/cds/app.jsa.
+# Usage: scripts/build-cds.sh [profiles]    (default: prod)
+set -euo pipefail
+
+PROFILES=${1:-prod}
+
+cd "$(dirname "$0")/.."
+
+mvn -B -q package -DskipTests
+rm -rf target/cds && mkdir -p target/cds/unpacked
+(cd target/cds/unpacked && jar xf ../../demo-0.0.1-SNAPSHOT.jar)
+
+# CDS only archives classes loaded from plain jars on the class path, not from nested jars or
+# directories, so the application classes are repackaged and run without the Spring Boot launcher
+cd target/cds
+mv unpacked/BOOT-INF/lib lib
+jar cf application.jar -C unpacked/BOOT-INF/classes .
+rm -rf unpacked
+java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+  -cp "application.jar:lib/*" com.example.demo.DemoApplication \
+  --spring.profiles.active="$PROFILES"
+
+echo
+echo "Run with:"
+echo "  cd $(pwd) && java -XX:SharedArchiveFile=app.jsa -cp 'application.jar:lib/*' com.example.demo.DemoApplication --spring.profiles.active=$PROFILES"
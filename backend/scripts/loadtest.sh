@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Runs LoadTestSuite against a throwaway single-node replica set in Docker.
+# Usage: scripts/loadtest.sh [orders] [threads] [seconds] [users]
+set -euo pipefail
+
+ORDERS=${1:-200000}
+THREADS=${2:-16}
+SECONDS_PER_MIX=${3:-30}
+USERS=${4:-$THREADS}
+MONGO_PORT=${MONGO_PORT:-27018}
+CONTAINER=storemanager-loadtest-mongo
+
+cd "$(dirname "$0")/.."
+
+docker run -d --rm --name "$CONTAINER" -p "$MONGO_PORT":27017 mongo:7 --replSet rs0 >/dev/null
+trap 'docker stop "$CONTAINER" >/dev/null' EXIT
+
+until docker exec "$CONTAINER" mongosh --quiet --eval "db.adminCommand('ping')" >/dev/null 2>&1; do
+  sleep 1
+done
+docker exec "$CONTAINER" mongosh --quiet --eval "rs.initiate({_id: 'rs0', members: [{_id: 0, host: 'localhost:27017'}]})" >/dev/null
+
+mvn -B test -Dtest=LoadTestSuite -Dsurefire.failIfNoSpecifiedTests=false \
+  -Dloadtest=true -Dloadtest.orders="$ORDERS" -Dloadtest.threads="$THREADS" -Dloadtest.seconds="$SECONDS_PER_MIX" -Dloadtest.users="$USERS" \
+  -Dspring.data.mongodb.port="$MONGO_PORT" -Dspring.data.mongodb.database=loadtest \
+  -Dlogging.level.org.springframework.data.mongodb=INFO
@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+# Builds the native executable and runs NativeSmokeTest against it and against the JVM jar,
+# both with a throwaway Mongo in Docker, printing startup time and RSS for each.
+# Needs GraalVM for JDK 17+ as JAVA_HOME (or native-image on the PATH).
+# Usage: scripts/native-smoke.sh
+set -euo pipefail
+
+MONGO_PORT=${MONGO_PORT:-27019}
+CONTAINER=storemanager-native-smoke-mongo
+
+cd "$(dirname "$0")/.."
+
+docker run -d --rm --name "$CONTAINER" -p "$MONGO_PORT":27017 mongo:7 >/dev/null
+trap 'docker stop "$CONTAINER" >/dev/null' EXIT
+
+mvn -B -Pnative clean native:compile -DskipTests
+mvn -B package -DskipTests
+
+for command in "target/storemanager --spring.profiles.active=prod" \
+               "java -jar target/demo-0.0.1-SNAPSHOT.jar --spring.profiles.active=prod"; do
+  mvn -B test -Dtest=NativeSmokeTest -Dsurefire.failIfNoSpecifiedTests=false \
+    -Dsmoke.command="$command" -Dspring.data.mongodb.port="$MONGO_PORT"
+done
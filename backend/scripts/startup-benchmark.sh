@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful HTTP response, over several runs,
+# for the plain jar, the prod profile, and the prod profile with the AppCDS archive
+# (built by scripts/build-cds.sh, skipped if missing).
+# Usage: scripts/startup-benchmark.sh [runs] [extra app args...]
+#   e.g. scripts/startup-benchmark.sh 5 --spring.profiles.active=memory
+# Repeated --spring.profiles.active arguments are combined, so that adds to prod rather than replacing it.
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+PORT=${PORT:-18090}
+URL="http://localhost:$PORT/api/metrics/load"
+
+cd "$(dirname "$0")/.."
+JAR=target/demo-0.0.1-SNAPSHOT.jar
+[ -f "$JAR" ] || mvn -B -q package -DskipTests
+
+now_ms() { date +%s%3N; }
+
+# Runs the command RUNS times and prints min and median milliseconds until $URL answers
+measure() {
+  local label=$1 dir=$2
+  shift 2
+  local times=()
+  for _ in $(seq 1 "$RUNS"); do
+    local start pid
+    start=$(now_ms)
+    (cd "$dir" && exec "$@" --server.port="$PORT" >/dev/null 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then echo "$label: application exited" >&2; return 1; fi
+      sleep 0.02
+    done
+    times+=($(( $(now_ms) - start )))
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+  done
+  local sorted
+  sorted=$(printf '%s\n' "${times[@]}" | sort -n)
+  printf '%-14s min %6d ms   median %6d ms\n' "$label" \
+    "$(echo "$sorted" | head -1)" "$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")"
+}
+
+measure default . java -jar "$JAR" "$@"
+measure prod . java -jar "$JAR" --spring.profiles.active=prod "$@"
+if [ -f target/cds/app.jsa ]; then
+  measure prod+cds target/cds java -XX:SharedArchiveFile=app.jsa -Xshare:auto \
+    -cp "application.jar:lib/*" com.example.demo.DemoApplication --spring.profiles.active=prod "$@"
+fi
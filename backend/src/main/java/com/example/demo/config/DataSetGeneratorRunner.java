@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import com.example.demo.service.DataSetGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Loads a synthetic data set on startup when app.datagen.enabled=true, e.g.
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--app.datagen.enabled=true --app.datagen.orders=5000000"
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datagen.enabled", havingValue = "true")
+public class DataSetGeneratorRunner {
+
+    @Value("${app.datagen.suppliers:100}")
+    private int suppliers;
+
+    @Value("${app.datagen.products:10000}")
+    private int products;
+
+    @Value("${app.datagen.orders:1000000}")
+    private long orders;
+
+    @Value("${app.datagen.max-items-per-order:5}")
+    private int maxItemsPerOrder;
+
+    @Value("${app.datagen.product-skew:1.1}")
+    private double productSkew;
+
+    @Value("${app.datagen.history-days:730}")
+    private int historyDays;
+
+    @Value("${app.datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    @Bean
+    public CommandLineRunner generateDataSet(DataSetGenerator generator) {
+        return args -> {
+            DataSetGenerator.Spec spec = new DataSetGenerator.Spec();
+            spec.suppliers = suppliers;
+            spec.products = products;
+            spec.orders = orders;
+            spec.maxItemsPerOrder = maxItemsPerOrder;
+            spec.productSkew = productSkew;
+            spec.historyDays = historyDays;
+            spec.batchSize = batchSize;
+            spec.seed = seed;
+            generator.generate(spec);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Writes a null collection as an empty array, for fields clients index into directly
+ * (use with {@code @JsonSerialize(nullsUsing = ...)} and {@code @JsonInclude(ALWAYS)}).
+ */
+public class EmptyArraySerializer extends JsonSerializer<Object> {
+
+    @Override
+    public void serialize(Object value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartArray();
+        generator.writeEndArray();
+    }
+}
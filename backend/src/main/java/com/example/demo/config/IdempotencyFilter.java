@@ -0,0 +1,228 @@
+package com.example.demo.config;
+
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Makes POST/PUT/DELETE requests under /api/ safe to retry when they carry an Idempotency-Key header.
+ * The first request with a key is executed and its response stored; repeats with the same payload
+ * get the stored response without re-executing the write. Keys are per caller: the authenticated
+ * subject, or the remote address for anonymous requests.
+ * <p>
+ * The request body and the response are buffered to fingerprint and store them, so the header is
+ * rejected on bulk endpoints (see {@link RateLimitGroup#BULK}), whose uploads and streamed progress
+ * are too large to hold in memory; the CSV import is an upsert and safe to retry without it.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_CACHED_BODY_BYTES = 1024 * 1024;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean mutating = "POST".equals(method) || "PUT".equals(method) || "DELETE".equals(method);
+        String path = request.getRequestURI();
+        return !mutating || request.getHeader(HEADER) == null
+            || !path.startsWith("/api/") || path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (RateLimitGroup.of(request) == RateLimitGroup.BULK) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key is not supported on streaming endpoints");
+            return;
+        }
+        String key = IdempotencyService.scopedKey(request.getHeader(HEADER), RateLimitFilter.client(request));
+        HttpServletRequest effectiveRequest = request;
+        String fingerprint;
+        if (isMultipart(request)) {
+            fingerprint = fingerprint(request, null);
+        } else {
+            byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+            effectiveRequest = new CachedBodyRequest(request, body);
+            fingerprint = fingerprint(request, body);
+        }
+
+        Optional<IdempotencyRecord> completed = idempotencyService.findCompleted(key);
+        if (completed.isEmpty()) {
+            IdempotencyRecord reservation = new IdempotencyRecord(key, fingerprint);
+            Optional<IdempotencyRecord> existing = idempotencyService.reserve(reservation);
+            if (existing.isEmpty()) {
+                execute(effectiveRequest, response, filterChain, reservation);
+                return;
+            }
+            if (!existing.get().isCompleted()) {
+                writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is already in progress");
+                return;
+            }
+            completed = existing;
+        }
+
+        IdempotencyRecord record = completed.get();
+        if (!fingerprint.equals(record.getFingerprint())) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used with a different request");
+            return;
+        }
+        response.setStatus(record.getResponseStatus());
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        if (record.getResponseBody() != null) {
+            response.getOutputStream().write(record.getResponseBody());
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         IdempotencyRecord reservation) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            byte[] body = wrapper.getContentAsByteArray();
+            // Server errors and oversized responses are not replayed; the client may retry them
+            if (status < 500 && body.length <= MAX_CACHED_BODY_BYTES) {
+                stored = idempotencyService.complete(reservation, status, wrapper.getContentType(), body);
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.release(reservation);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) throws IOException, ServletException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (request.getQueryString() != null) {
+            digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        if (body != null) {
+            digest.update(body);
+        } else {
+            // Parts are buffered by the container, so reading them here does not consume the request
+            for (Part part : request.getParts()) {
+                digest.update(part.getName().getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = part.getInputStream()) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is already in memory, so it is available and complete at once
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.memory.InMemoryArchivedOrderRepository;
+import com.example.demo.repository.memory.InMemoryCleanupJobRepository;
+import com.example.demo.repository.memory.InMemoryDemandForecastRepository;
+import com.example.demo.repository.memory.InMemoryIdempotencyRecordRepository;
+import com.example.demo.repository.memory.InMemoryInventoryRepository;
+import com.example.demo.repository.memory.InMemoryOrderItemsRepository;
+import com.example.demo.repository.memory.InMemoryOrderRepository;
+import com.example.demo.repository.memory.InMemoryProductRepository;
+import com.example.demo.repository.memory.InMemoryRefreshTokenRepository;
+import com.example.demo.repository.memory.InMemoryRepository;
+import com.example.demo.repository.memory.InMemoryRevokedTokenRepository;
+import com.example.demo.repository.memory.InMemoryStockLedgerCheckpointRepository;
+import com.example.demo.repository.memory.InMemoryStockLedgerRepository;
+import com.example.demo.repository.memory.InMemoryStockLocationRepository;
+import com.example.demo.repository.memory.InMemoryStockSnapshotRepository;
+import com.example.demo.repository.memory.InMemorySupplierRepository;
+import com.example.demo.repository.memory.InMemorySupplierScorecardRepository;
+import com.example.demo.repository.memory.InMemoryUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces the Mongo repositories with in-memory ones when app.storage.type=memory
+ * (see application-memory.properties). If app.storage.snapshot-dir is set, the data is
+ * loaded from JSON snapshots on startup and written back periodically and on shutdown, one file
+ * per collection and tenant.
+ * Features that talk to MongoTemplate directly, such as transactional checkout, still need Mongo.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "memory")
+public class InMemoryStorageConfig implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryStorageConfig.class);
+
+    private final InMemoryProductRepository productRepository = new InMemoryProductRepository();
+    private final InMemorySupplierRepository supplierRepository = new InMemorySupplierRepository();
+    private final InMemoryInventoryRepository inventoryRepository = new InMemoryInventoryRepository();
+    private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+    private final InMemoryOrderItemsRepository orderItemsRepository = new InMemoryOrderItemsRepository();
+    private final InMemoryUserRepository userRepository = new InMemoryUserRepository();
+    private final InMemoryIdempotencyRecordRepository idempotencyRecordRepository = new InMemoryIdempotencyRecordRepository();
+    private final InMemoryStockLocationRepository stockLocationRepository = new InMemoryStockLocationRepository();
+    private final InMemoryStockLedgerRepository stockLedgerRepository = new InMemoryStockLedgerRepository();
+    private final InMemoryStockSnapshotRepository stockSnapshotRepository = new InMemoryStockSnapshotRepository();
+    private final InMemoryStockLedgerCheckpointRepository stockLedgerCheckpointRepository =
+        new InMemoryStockLedgerCheckpointRepository();
+    private final InMemoryDemandForecastRepository demandForecastRepository = new InMemoryDemandForecastRepository();
+    private final InMemorySupplierScorecardRepository supplierScorecardRepository =
+        new InMemorySupplierScorecardRepository();
+    private final InMemoryCleanupJobRepository cleanupJobRepository = new InMemoryCleanupJobRepository();
+    private final InMemoryArchivedOrderRepository archivedOrderRepository = new InMemoryArchivedOrderRepository();
+    private final InMemoryRefreshTokenRepository refreshTokenRepository = new InMemoryRefreshTokenRepository();
+    private final InMemoryRevokedTokenRepository revokedTokenRepository = new InMemoryRevokedTokenRepository();
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Value("${app.storage.snapshot-dir:}")
+    private String snapshotDir;
+
+    @Value("${app.storage.snapshot-interval-seconds:60}")
+    private long snapshotIntervalSeconds;
+
+    private ScheduledExecutorService snapshotScheduler;
+
+    @Bean
+    public InMemoryProductRepository productRepository() {
+        return productRepository;
+    }
+
+    @Bean
+    public InMemorySupplierRepository supplierRepository() {
+        return supplierRepository;
+    }
+
+    @Bean
+    public InMemoryInventoryRepository inventoryRepository() {
+        return inventoryRepository;
+    }
+
+    @Bean
+    public InMemoryOrderRepository orderRepository() {
+        return orderRepository;
+    }
+
+    @Bean
+    public InMemoryOrderItemsRepository orderItemsRepository() {
+        return orderItemsRepository;
+    }
+
+    @Bean
+    public InMemoryUserRepository userRepository() {
+        return userRepository;
+    }
+
+    @Bean
+    public InMemoryIdempotencyRecordRepository idempotencyRecordRepository() {
+        return idempotencyRecordRepository;
+    }
+
+    @Bean
+    public InMemoryStockLocationRepository stockLocationRepository() {
+        return stockLocationRepository;
+    }
+
+    @Bean
+    public InMemoryStockLedgerRepository stockLedgerRepository() {
+        return stockLedgerRepository;
+    }
+
+    @Bean
+    public InMemoryStockSnapshotRepository stockSnapshotRepository() {
+        return stockSnapshotRepository;
+    }
+
+    @Bean
+    public InMemoryStockLedgerCheckpointRepository stockLedgerCheckpointRepository() {
+        return stockLedgerCheckpointRepository;
+    }
+
+    @Bean
+    public InMemoryDemandForecastRepository demandForecastRepository() {
+        return demandForecastRepository;
+    }
+
+    @Bean
+    public InMemorySupplierScorecardRepository supplierScorecardRepository() {
+        return supplierScorecardRepository;
+    }
+
+    @Bean
+    public InMemoryCleanupJobRepository cleanupJobRepository() {
+        return cleanupJobRepository;
+    }
+
+    @Bean
+    public InMemoryArchivedOrderRepository archivedOrderRepository() {
+        return archivedOrderRepository;
+    }
+
+    @Bean
+    public InMemoryRefreshTokenRepository refreshTokenRepository() {
+        return refreshTokenRepository;
+    }
+
+    @Bean
+    public InMemoryRevokedTokenRepository revokedTokenRepository() {
+        return revokedTokenRepository;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (snapshotDir.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(Paths.get(snapshotDir));
+        for (String tenant : tenantRegistry.getTenants()) {
+            try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+                for (InMemoryRepository<?> repository : repositories(tenant)) {
+                    repository.loadSnapshot(snapshotFile(repository, tenant));
+                }
+            }
+        }
+        if (snapshotIntervalSeconds > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "in-memory-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::writeSnapshots,
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        if (!snapshotDir.isEmpty()) {
+            writeSnapshots();
+        }
+    }
+
+    private void writeSnapshots() {
+        for (String tenant : tenantRegistry.getTenants()) {
+            try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+                for (InMemoryRepository<?> repository : repositories(tenant)) {
+                    try {
+                        repository.writeSnapshot(snapshotFile(repository, tenant));
+                    } catch (IOException e) {
+                        log.error("Failed to write snapshot for {} of tenant {}", repository.getCollectionName(), tenant, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private Path snapshotFile(InMemoryRepository<?> repository, String tenant) {
+        String suffix = TenantContext.DEFAULT_TENANT.equals(tenant) ? "" : "." + tenant;
+        return Paths.get(snapshotDir, repository.getCollectionName() + suffix + ".json");
+    }
+
+    /**
+     * All repositories for the default tenant; only the tenant-scoped ones for the others.
+     */
+    private List<InMemoryRepository<?>> repositories(String tenant) {
+        if (TenantContext.DEFAULT_TENANT.equals(tenant)) {
+            return repositories();
+        }
+        return repositories().stream().filter(InMemoryRepository::isTenantScoped).toList();
+    }
+
+    private List<InMemoryRepository<?>> repositories() {
+        return List.of(productRepository, supplierRepository, inventoryRepository, orderRepository,
+            orderItemsRepository, userRepository, idempotencyRecordRepository, stockLocationRepository,
+            stockLedgerRepository, stockSnapshotRepository, stockLedgerCheckpointRepository, demandForecastRepository,
+            supplierScorecardRepository, cleanupJobRepository, archivedOrderRepository,
+            refreshTokenRepository, revokedTokenRepository);
+    }
+}
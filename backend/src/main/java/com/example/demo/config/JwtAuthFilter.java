@@ -1,9 +1,10 @@
 package com.example.demo.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -14,35 +15,56 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+/**
+ * Authenticates requests from the bearer token alone: the signature and expiry are checked,
+ * revocation is checked against the in-memory revocation list, and the authorities come from
+ * the role claim via the in-memory permission table, so no database access is needed per request.
+ * The tenant claim selects the store for the rest of the request; anonymous requests use the default store.
+ * Tokens without a tenant claim, such as invites, are rejected.
+ */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+            String tenant = TenantContext.DEFAULT_TENANT;
             try {
                 String jwt = parseJwt(request);
                 if (jwt != null) {
-                    String username = jwtUtils.getUsernameFromToken(jwt);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    if (jwtUtils.validateToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    Claims claims = jwtUtils.parseToken(jwt);
+                    Number epoch = claims.get(JwtUtils.EPOCH_CLAIM, Number.class);
+                    if (revocationList.isRevoked(claims.getId(), claims.getSubject(), epoch == null ? 0 : epoch.longValue())) {
+                        throw new JwtException("Token has been revoked");
+                    }
+                    String tokenTenant = claims.get(JwtUtils.TENANT_CLAIM, String.class);
+                    if (tokenTenant == null || !tenantRegistry.contains(tokenTenant)) {
+                        throw new JwtException("Unknown tenant " + tokenTenant);
                     }
+                    String role = claims.get(JwtUtils.ROLE_CLAIM, String.class);
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        claims.getSubject(), null, Permissions.authoritiesFor(role));
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    tenant = tokenTenant;
                 }
-            } catch (Exception e) {
-                logger.error("Cannot set user authentication: {}", e);
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Ignoring invalid bearer token: " + e.getMessage());
             }
 
-        filterChain.doFilter(request, response);
+        // Everything downstream, including the later servlet filters, runs in the token's store
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            filterChain.doFilter(request, response);
+        }
     }
 
     private String parseJwt(HttpServletRequest request) {
@@ -3,6 +3,7 @@ package com.example.demo.config;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import com.example.demo.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -11,6 +12,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -21,17 +23,67 @@ public class JwtUtils {
     @Value("${app.jwt.expiration.ms}")
     private int jwtExpirationMs;
 
-    public String generateToken(UserDetails userDetails) {
+    @Value("${app.jwt.invite.expiration.ms:259200000}")
+    private long inviteExpirationMs;
+
+    public static final String ROLE_CLAIM = "role";
+    public static final String PERMISSIONS_CLAIM = "permissions";
+    public static final String EPOCH_CLAIM = "epoch";
+    public static final String TENANT_CLAIM = "tenant";
+    public static final String INVITE_CLAIM = "invite";
+
+    /**
+     * Issues a short-lived access token carrying the user's role, which requests are authorized
+     * by (see Permissions), and the role's current permissions for clients to adapt their UI.
+     * A role change takes effect with the next token. The token ID and the user's token epoch
+     * let it be revoked before it expires (see TokenRevocationList). The tenant claim selects the
+     * store the request works on (see TenantContext).
+     */
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(ROLE_CLAIM, user.getRole());
+        claims.put(PERMISSIONS_CLAIM, Permissions.forRole(user.getRole()).stream().sorted().toList());
+        claims.put(EPOCH_CLAIM, user.getTokenEpoch());
+        claims.put(TENANT_CLAIM, TenantContext.orDefault(user.getTenantId()));
+        return createToken(claims, user.getUsername(), jwtExpirationMs);
+    }
+
+    /**
+     * Issues an invite for one email address to sign up to a store. The invite claim holds the
+     * store; it marks the token as an invite, which is never accepted as an access token.
+     */
+    public String generateInviteToken(String email, String tenant) {
+        return createToken(Map.of(INVITE_CLAIM, tenant), email, inviteExpirationMs);
+    }
+
+    /**
+     * Verifies an invite token.
+     * @return the invite's claims: the invited email is the subject, the store is the invite claim
+     * @throws JwtException if the token is invalid, expired or not an invite
+     */
+    public Claims parseInviteToken(String token) {
+        Claims claims = getAllClaimsFromToken(token);
+        if (claims.get(INVITE_CLAIM, String.class) == null) {
+            throw new JwtException("Not an invite");
+        }
+        return claims;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    public long getInviteExpirationMs() {
+        return inviteExpirationMs;
+    }
+
+    private String createToken(Map<String, Object> claims, String subject, long expirationMs) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -49,6 +101,14 @@ public class JwtUtils {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the signature and expiry of a token.
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims parseToken(String token) {
+        return getAllClaimsFromToken(token);
+    }
+
     private Claims getAllClaimsFromToken(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSigningKey())
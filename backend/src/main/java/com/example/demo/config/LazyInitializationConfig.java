@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import com.example.demo.service.CleanupService;
+import com.example.demo.service.DemandForecastService;
+import com.example.demo.service.InventoryAdjustmentBuffer;
+import com.example.demo.service.OrderArchiveService;
+import com.example.demo.service.StockLedgerService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With spring.main.lazy-initialization=true (the prod profile) beans are created on first use.
+ * These recover state or start background schedules when created, so they stay eager: journal
+ * replay, interrupted cleanup jobs, ledger compaction, forecasts, archival, revocation sync and
+ * the indexes of the tenant collections.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBackgroundServices() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            InventoryAdjustmentBuffer.class,
+            CleanupService.class,
+            StockLedgerService.class,
+            DemandForecastService.class,
+            OrderArchiveService.class,
+            TokenRevocationList.class,
+            TenantIndexInitializer.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive load shedding. Overload is the larger of two ratios: the moving average of request
+ * latency to its threshold, and the most recent Mongo connection pool wait to its threshold
+ * (only while callers are queued for a connection). Above 1, requests are rejected with a
+ * probability that grows with the overload, capped below 1 so admitted requests keep updating
+ * the signals and shedding stops once they recover.
+ */
+@Component
+public class LoadShedder {
+
+    private final MongoPoolMetrics poolMetrics;
+    private final long latencyThresholdMicros;
+    private final double poolWaitThresholdMs;
+    private final double maxShedRatio;
+    private final double alpha;
+    // Moving average of request latency, as double bits
+    private final AtomicLong latencyMicros = new AtomicLong(Double.doubleToLongBits(0));
+    private final LongAdder shed = new LongAdder();
+
+    @Autowired
+    public LoadShedder(MongoPoolMetrics poolMetrics,
+                       @Value("${app.load-shedding.latency-threshold-ms:0}") long latencyThresholdMs,
+                       @Value("${app.load-shedding.pool-wait-threshold-ms:0}") double poolWaitThresholdMs,
+                       @Value("${app.load-shedding.max-shed-ratio:0.9}") double maxShedRatio,
+                       @Value("${app.load-shedding.latency-smoothing:0.05}") double alpha) {
+        if (maxShedRatio < 0 || maxShedRatio >= 1 || alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Shed ratio must be in [0, 1) and latency smoothing in (0, 1]");
+        }
+        this.poolMetrics = poolMetrics;
+        this.latencyThresholdMicros = latencyThresholdMs * 1000;
+        this.poolWaitThresholdMs = poolWaitThresholdMs;
+        this.maxShedRatio = maxShedRatio;
+        this.alpha = alpha;
+    }
+
+    /**
+     * @return true if the request should be rejected
+     */
+    public boolean shouldShed() {
+        double overload = overload();
+        if (overload <= 1) {
+            return false;
+        }
+        double ratio = Math.min(maxShedRatio, 1 - 1 / overload);
+        if (ThreadLocalRandom.current().nextDouble() < ratio) {
+            shed.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void recordLatency(long micros) {
+        long current;
+        long next;
+        do {
+            current = latencyMicros.get();
+            double average = Double.longBitsToDouble(current);
+            next = Double.doubleToLongBits(average + alpha * (micros - average));
+        } while (!latencyMicros.compareAndSet(current, next));
+    }
+
+    private double overload() {
+        double overload = 0;
+        if (latencyThresholdMicros > 0) {
+            overload = Double.longBitsToDouble(latencyMicros.get()) / latencyThresholdMicros;
+        }
+        if (poolWaitThresholdMs > 0 && poolMetrics.getWaitingThreads() > 0) {
+            overload = Math.max(overload, poolMetrics.getLastWaitMs() / poolWaitThresholdMs);
+        }
+        return overload;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("latencyAvgMs", Double.longBitsToDouble(latencyMicros.get()) / 1000.0);
+        stats.put("overload", overload());
+        stats.put("shed", shed.sum());
+        return stats;
+    }
+}
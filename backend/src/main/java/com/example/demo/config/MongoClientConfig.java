@@ -0,0 +1,124 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Inventory;
+import com.example.demo.model.Order;
+import com.example.demo.model.StockLocation;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool, timeout, read preference and write concern settings for the MongoClient.
+ * Repositories use the primary template, which applies the transactional write concern to
+ * Order, Inventory and StockLocation writes; other workloads get their own template via
+ * {@link MongoWorkloadTemplates}.
+ */
+@Configuration
+public class MongoClientConfig {
+
+    @Value("${app.mongo.pool.max-size:100}")
+    private int maxPoolSize;
+
+    @Value("${app.mongo.pool.min-size:0}")
+    private int minPoolSize;
+
+    @Value("${app.mongo.pool.max-wait-ms:120000}")
+    private long maxWaitMs;
+
+    @Value("${app.mongo.pool.max-idle-ms:0}")
+    private long maxIdleMs;
+
+    @Value("${app.mongo.socket.connect-timeout-ms:10000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.mongo.socket.read-timeout-ms:0}")
+    private int readTimeoutMs;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(MongoPoolMetrics poolMetrics) {
+        return builder -> builder
+            .applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .minSize(minPoolSize)
+                .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS)
+                .maxConnectionIdleTime(maxIdleMs, TimeUnit.MILLISECONDS)
+                .addConnectionPoolListener(poolMetrics))
+            .applyToSocketSettings(socket -> socket
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS));
+    }
+
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory factory, MongoConverter converter, Environment env) {
+        MongoTemplate template = new MongoTemplate(factory, converter);
+        WriteConcern transactional = writeConcern(env, MongoWorkload.TRANSACTIONAL);
+        template.setWriteConcernResolver(action -> {
+            Class<?> type = action.getEntityType();
+            if (Order.class.equals(type) || Inventory.class.equals(type) || StockLocation.class.equals(type)) {
+                return transactional;
+            }
+            return action.getDefaultWriteConcern();
+        });
+        return template;
+    }
+
+    @Bean
+    public MongoWorkloadTemplates workloadTemplates(MongoDatabaseFactory factory, MappingMongoConverter converter,
+                                                    Environment env) {
+        MongoConverter workloadConverter = workloadConverter(factory, converter);
+        Map<MongoWorkload, MongoTemplate> templates = new EnumMap<>(MongoWorkload.class);
+        for (MongoWorkload workload : MongoWorkload.values()) {
+            MongoTemplate template = new MongoTemplate(factory, workloadConverter);
+            template.setReadPreference(readPreference(env, workload));
+            template.setWriteConcern(writeConcern(env, workload));
+            templates.put(workload, template);
+        }
+        return new MongoWorkloadTemplates(templates);
+    }
+
+    /**
+     * Maps like the primary converter, but on a mapping context without automatic index creation.
+     * A template on an auto-indexing context creates every index again when constructed, and takes
+     * over the context's event publisher. The primary template already creates the indexes.
+     */
+    private static MongoConverter workloadConverter(MongoDatabaseFactory factory, MappingMongoConverter converter) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setAutoIndexCreation(false);
+        mappingContext.setSimpleTypeHolder(converter.getCustomConversions().getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter workloadConverter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        workloadConverter.setCustomConversions(converter.getCustomConversions());
+        workloadConverter.afterPropertiesSet();
+        return workloadConverter;
+    }
+
+    private static ReadPreference readPreference(Environment env, MongoWorkload workload) {
+        String name = env.getProperty("app.mongo.workload." + workload.getPropertyName() + ".read-preference", "primary");
+        return ReadPreference.valueOf(name);
+    }
+
+    private static WriteConcern writeConcern(Environment env, MongoWorkload workload) {
+        String name = env.getProperty("app.mongo.workload." + workload.getPropertyName() + ".write-concern", "acknowledged");
+        WriteConcern concern = WriteConcern.valueOf(name);
+        if (concern == null) {
+            throw new IllegalArgumentException("Unknown write concern '" + name + "' for workload " + workload);
+        }
+        return concern;
+    }
+}
@@ -2,9 +2,14 @@ package com.example.demo.config;
 
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -12,11 +17,46 @@ import java.util.List;
 @Configuration
 public class MongoDataInitializer {
 
+    private static final Logger log = LoggerFactory.getLogger(MongoDataInitializer.class);
+
+    /**
+     * Signup only creates USER accounts, so the first admin comes from configuration.
+     * Nothing happens unless both properties are set or if the account already exists.
+     * The admin belongs to one store; admins of other stores need their own account.
+     */
+    @Bean
+    public CommandLineRunner initAdmin(
+            UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            TenantRegistry tenantRegistry,
+            @Value("${app.security.bootstrap-admin.email:}") String email,
+            @Value("${app.security.bootstrap-admin.password:}") String password,
+            @Value("${app.security.bootstrap-admin.tenant:" + TenantContext.DEFAULT_TENANT + "}") String tenant) {
+        return args -> {
+            if (email.isBlank() || password.isBlank() || userRepository.existsByEmail(email)) {
+                return;
+            }
+            if (!tenantRegistry.contains(tenant)) {
+                throw new IllegalStateException("Admin tenant " + tenant + " is not in app.tenancy.tenants");
+            }
+            User admin = new User("Administrator", email, passwordEncoder.encode(password), Permissions.ROLE_ADMIN);
+            admin.setTenantId(tenant);
+            userRepository.save(admin);
+            log.info("Created admin account {} for tenant {}", email, tenant);
+        };
+    }
+
+    /**
+     * Demo suppliers, products, inventory and orders; turned off with app.seed.enabled=false.
+     */
     @Bean
+    @ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true", matchIfMissing = true)
     public CommandLineRunner initData(
             ProductRepository productRepository,
             SupplierRepository supplierRepository,
             InventoryRepository inventoryRepository,
+            StockLocationRepository stockLocationRepository,
+            StockLedgerRepository stockLedgerRepository,
             OrderRepository orderRepository,
             OrderItemsRepository orderItemsRepository) {
         return args -> {
@@ -54,6 +94,26 @@ public class MongoDataInitializer {
                         new Inventory("prod5", 250, "Warehouse C, Shelf 1"),
                         new Inventory("prod6", 90, "Warehouse C, Shelf 3")
                     ));
+                    stockLedgerRepository.append(Arrays.asList(
+                        new StockMovement("prod1", 150, StockMovement.REASON_OPENING_BALANCE, "system"),
+                        new StockMovement("prod2", 80, StockMovement.REASON_OPENING_BALANCE, "system"),
+                        new StockMovement("prod3", 300, StockMovement.REASON_OPENING_BALANCE, "system"),
+                        new StockMovement("prod4", 120, StockMovement.REASON_OPENING_BALANCE, "system"),
+                        new StockMovement("prod5", 250, StockMovement.REASON_OPENING_BALANCE, "system"),
+                        new StockMovement("prod6", 90, StockMovement.REASON_OPENING_BALANCE, "system")
+                    ));
+                }
+
+                if (!stockLocationRepository.existsById(StockLocation.idFor("prod1", "Warehouse A", "Shelf 12"))) {
+                    // Same stock as the inventory totals above, broken down by location
+                    stockLocationRepository.saveAll(Arrays.asList(
+                        new StockLocation("prod1", "Warehouse A", "Shelf 12", 150),
+                        new StockLocation("prod2", "Warehouse A", "Shelf 5", 80),
+                        new StockLocation("prod3", "Warehouse B", "Shelf 2", 300),
+                        new StockLocation("prod4", "Warehouse B", "Shelf 8", 120),
+                        new StockLocation("prod5", "Warehouse C", "Shelf 1", 250),
+                        new StockLocation("prod6", "Warehouse C", "Shelf 3", 90)
+                    ));
                 }
 
                 if (!orderRepository.existsById("ord1")) {
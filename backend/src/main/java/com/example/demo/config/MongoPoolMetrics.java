@@ -0,0 +1,103 @@
+package com.example.demo.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool listener that records how long callers wait for a pooled connection.
+ * Registered on the MongoClient by {@link MongoClientConfig}.
+ */
+@Component
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+    private final LongAdder checkoutCount = new LongAdder();
+    private final LongAdder checkoutFailures = new LongAdder();
+    private final LongAdder totalWaitMicros = new LongAdder();
+    private final AtomicLong maxWaitMicros = new AtomicLong();
+    private final AtomicLong lastWaitMicros = new AtomicLong();
+    private final AtomicLong waitingThreads = new AtomicLong();
+    private final AtomicLong checkedOut = new AtomicLong();
+    private final AtomicLong openConnections = new AtomicLong();
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waitingThreads.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        long waited = event.getElapsedTime(TimeUnit.MICROSECONDS);
+        waitingThreads.decrementAndGet();
+        checkedOut.incrementAndGet();
+        checkoutCount.increment();
+        totalWaitMicros.add(waited);
+        lastWaitMicros.set(waited);
+        maxWaitMicros.accumulateAndGet(waited, Math::max);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waitingThreads.decrementAndGet();
+        checkoutFailures.increment();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        openConnections.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        openConnections.decrementAndGet();
+    }
+
+    /**
+     * Wait time of the most recent successful checkout, in milliseconds.
+     */
+    public double getLastWaitMs() {
+        return lastWaitMicros.get() / 1000.0;
+    }
+
+    public long getWaitingThreads() {
+        return waitingThreads.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        long count = checkoutCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("checkouts", count);
+        stats.put("checkoutFailures", checkoutFailures.sum());
+        stats.put("avgWaitMs", count == 0 ? 0.0 : totalWaitMicros.sum() / 1000.0 / count);
+        stats.put("maxWaitMs", maxWaitMicros.get() / 1000.0);
+        stats.put("lastWaitMs", getLastWaitMs());
+        stats.put("waitingThreads", waitingThreads.get());
+        stats.put("checkedOut", checkedOut.get());
+        stats.put("openConnections", openConnections.get());
+        return stats;
+    }
+
+    public void reset() {
+        checkoutCount.reset();
+        checkoutFailures.reset();
+        totalWaitMicros.reset();
+        maxWaitMicros.set(0);
+        lastWaitMicros.set(0);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.TransactionOptions;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.mongodb.MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL;
+import static com.mongodb.MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL;
+
+/**
+ * Runs multi-document transactions (requires a replica set) and retries them on transient errors.
+ * ClientSession.withTransaction cannot do this for MongoTemplate callbacks: the template translates
+ * driver errors into DataAccessExceptions, so the driver never sees the TransientTransactionError
+ * label of a write conflict. The labels are read from the exception causes here instead.
+ */
+@Component
+public class MongoTransactionRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoTransactionRunner.class);
+
+    private static final TransactionOptions TX_OPTIONS = TransactionOptions.builder()
+        .readPreference(ReadPreference.primary())
+        .readConcern(ReadConcern.SNAPSHOT)
+        .writeConcern(WriteConcern.MAJORITY)
+        .build();
+
+    private static final long MAX_BACKOFF_MS = 100;
+
+    private final MongoClient mongoClient;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.transaction.retry-timeout-ms:10000}")
+    private long retryTimeoutMs;
+
+    @Autowired
+    public MongoTransactionRunner(MongoClient mongoClient, MongoTemplate mongoTemplate) {
+        this.mongoClient = mongoClient;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Runs the callback in a transaction and commits it. On a transient error the whole callback runs
+     * again, and a commit with an unknown result is retried, until the retry timeout has passed; the
+     * callback must therefore only write through the template it is given.
+     * @param callback receives a template bound to the transaction's session
+     * @return the callback's result
+     */
+    public <T> T execute(Function<MongoTemplate, T> callback) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryTimeoutMs);
+        try (ClientSession session = mongoClient.startSession()) {
+            MongoTemplate tx = mongoTemplate.withSession(session);
+            for (int attempt = 1; ; attempt++) {
+                session.startTransaction(TX_OPTIONS);
+                T result;
+                try {
+                    result = callback.apply(tx);
+                } catch (RuntimeException e) {
+                    if (session.hasActiveTransaction()) {
+                        session.abortTransaction();
+                    }
+                    if (!hasErrorLabel(e, TRANSIENT_TRANSACTION_ERROR_LABEL) || System.nanoTime() >= deadline) {
+                        throw e;
+                    }
+                    log.debug("Retrying transaction after transient error (attempt {})", attempt, e);
+                    backOff(attempt);
+                    continue;
+                }
+                if (commit(session, deadline)) {
+                    return result;
+                }
+                log.debug("Retrying transaction after transient commit error (attempt {})", attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * @return false if the commit failed transiently and the whole transaction has to run again
+     */
+    private static boolean commit(ClientSession session, long deadline) {
+        while (true) {
+            try {
+                session.commitTransaction();
+                return true;
+            } catch (MongoException e) {
+                if (System.nanoTime() >= deadline) {
+                    throw e;
+                }
+                if (e.hasErrorLabel(UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL)
+                        && !(e instanceof MongoExecutionTimeoutException)) {
+                    continue;
+                }
+                if (e.hasErrorLabel(TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                    return false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    static boolean hasErrorLabel(Throwable error, String label) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.hasErrorLabel(label)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Randomized so that conflicting writers on a hot document do not collide again in lockstep
+    private static void backOff(int attempt) {
+        long maxMs = Math.min(MAX_BACKOFF_MS, 5L * attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, maxMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+/**
+ * Workload classes that get their own read preference and write concern.
+ * The concrete settings are read from app.mongo.workload.&lt;name&gt;.* in application.properties.
+ */
+public enum MongoWorkload {
+    CATALOG("catalog"),
+    ANALYTICS("analytics"),
+    TRANSACTIONAL("transactional"),
+    BULK_IMPORT("bulk-import");
+
+    private final String propertyName;
+
+    MongoWorkload(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Map;
+
+/**
+ * Holds one MongoTemplate per {@link MongoWorkload}, all sharing the same MongoClient and pool.
+ */
+public class MongoWorkloadTemplates {
+
+    private final Map<MongoWorkload, MongoTemplate> templates;
+
+    public MongoWorkloadTemplates(Map<MongoWorkload, MongoTemplate> templates) {
+        this.templates = templates;
+    }
+
+    public MongoTemplate forWorkload(MongoWorkload workload) {
+        MongoTemplate template = templates.get(workload);
+        if (template == null) {
+            throw new IllegalArgumentException("No template configured for workload " + workload);
+        }
+        return template;
+    }
+}
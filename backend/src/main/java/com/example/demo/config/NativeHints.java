@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile) that Spring
+ * AOT cannot infer: jjwt instantiates its runtime-scoped implementation by class name and finds
+ * the Jackson serializer through ServiceLoader, model classes are bound by Jackson outside
+ * controller signatures (Map and ResponseEntity&lt;?&gt; bodies, in-memory repository copies), and
+ * the @Document collection expressions call TenantContext through SpEL.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+public class NativeHints {
+
+    private static final String MODEL_PACKAGE = "com.example.demo.model";
+
+    private static final List<String> JJWT_TYPES = List.of(
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParser",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultClaims",
+        "io.jsonwebtoken.impl.DefaultHeader",
+        "io.jsonwebtoken.impl.DefaultJwsHeader",
+        "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+        "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+        "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+            hints.reflection().registerType(TenantContext.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+            for (BeanDefinition model : scanner.findCandidateComponents(MODEL_PACKAGE)) {
+                bindings.registerReflectionHints(hints.reflection(),
+                    ClassUtils.resolveClassName(model.getBeanClassName(), classLoader));
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Permission table: which permissions each role grants. Tokens carry only the role; the
+ * authorities for a request are looked up here, in memory, so authorization needs no database
+ * access and table changes apply to tokens already issued. Controllers check permissions with
+ * {@code @PreAuthorize("hasAuthority('...')")}.
+ */
+public final class Permissions {
+
+    public static final String ORDERS_CHECKOUT = "orders:checkout";
+    public static final String ORDERS_WRITE = "orders:write";
+    public static final String PRODUCTS_WRITE = "products:write";
+    public static final String INVENTORY_WRITE = "inventory:write";
+    public static final String SUPPLIERS_WRITE = "suppliers:write";
+    public static final String REPORTS_EXPORT = "reports:export";
+    // Rebuilds, backfills, archive and compaction runs, pool metric resets
+    public static final String MAINTENANCE_RUN = "maintenance:run";
+
+    public static final String ROLE_USER = "USER";
+    public static final String ROLE_STAFF = "STAFF";
+    public static final String ROLE_MANAGER = "MANAGER";
+    public static final String ROLE_ADMIN = "ADMIN";
+
+    private static final Set<String> STAFF = Set.of(ORDERS_CHECKOUT, ORDERS_WRITE, PRODUCTS_WRITE, INVENTORY_WRITE);
+    private static final Map<String, Set<String>> TABLE = Map.of(
+        ROLE_USER, Set.of(ORDERS_CHECKOUT),
+        ROLE_STAFF, STAFF,
+        ROLE_MANAGER, union(STAFF, Set.of(SUPPLIERS_WRITE, REPORTS_EXPORT)),
+        ROLE_ADMIN, union(STAFF, Set.of(SUPPLIERS_WRITE, REPORTS_EXPORT, MAINTENANCE_RUN)));
+
+    // Built once per role, so requests share the same immutable lists
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES = buildAuthorities();
+
+    private Permissions() {
+    }
+
+    public static boolean isRole(String role) {
+        return role != null && TABLE.containsKey(role);
+    }
+
+    /**
+     * @return the permissions of a role, empty for unknown roles
+     */
+    public static Set<String> forRole(String role) {
+        return role == null ? Set.of() : TABLE.getOrDefault(role, Set.of());
+    }
+
+    /**
+     * @return ROLE_&lt;role&gt; followed by the role's permissions
+     */
+    public static List<GrantedAuthority> authoritiesFor(String role) {
+        if (role == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = AUTHORITIES.get(role);
+        return authorities != null ? authorities : List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    private static Map<String, List<GrantedAuthority>> buildAuthorities() {
+        Map<String, List<GrantedAuthority>> authorities = new HashMap<>();
+        TABLE.forEach((role, permissions) -> {
+            List<GrantedAuthority> list = new ArrayList<>(permissions.size() + 1);
+            list.add(new SimpleGrantedAuthority("ROLE_" + role));
+            permissions.stream().sorted().forEach(permission -> list.add(new SimpleGrantedAuthority(permission)));
+            authorities.put(role, List.copyOf(list));
+        });
+        return Map.copyOf(authorities);
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> result = new HashSet<>(first);
+        result.addAll(second);
+        return Set.copyOf(result);
+    }
+}
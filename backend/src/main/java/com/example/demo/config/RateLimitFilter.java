@@ -0,0 +1,94 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies per-client rate limits (429) and load shedding (503) to /api/ requests, both with
+ * Retry-After. Runs after the security filter chain, so authenticated clients are limited by
+ * their JWT subject and anonymous ones by remote address, and before IdempotencyFilter, so a
+ * rejected request never reserves its key. Login, token refresh and metrics are rate limited
+ * but never shed, so clients can still authenticate and operators can see the load.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private LoadShedder loadShedder;
+
+    @Value("${app.load-shedding.retry-after-seconds:1}")
+    private long shedRetryAfterSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitGroup group = RateLimitGroup.of(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(group, client(request));
+        if (!decision.allowed()) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, seconds, "Too many requests");
+            return;
+        }
+        if (group == RateLimitGroup.AUTH || request.getRequestURI().startsWith("/api/metrics/")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (loadShedder.shouldShed()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, shedRetryAfterSeconds, "Server is overloaded, please retry");
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Bulk transfers are long by design and would mask the latency of ordinary requests
+            if (group != RateLimitGroup.BULK) {
+                loadShedder.recordLatency(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+            }
+        }
+    }
+
+    /**
+     * The client a request is attributed to: "user:" and the JWT subject, or "ip:" and the remote address.
+     */
+    static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null
+                && !"anonymousUser".equals(authentication.getName())) {
+            return "user:" + authentication.getName();
+        }
+        // Behind a proxy, set server.forward-headers-strategy so this is the client's address
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
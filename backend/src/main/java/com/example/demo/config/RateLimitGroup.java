@@ -0,0 +1,43 @@
+package com.example.demo.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint groups with their own request rate limit.
+ * The limits are read from app.rate-limit.group.&lt;name&gt;.* in application.properties.
+ */
+public enum RateLimitGroup {
+    // Login and token refresh: small, to slow down password guessing
+    AUTH("auth"),
+    // Streaming exports and bulk imports: each request can run for minutes
+    BULK("bulk"),
+    // Order listings and reports, the most expensive reads
+    ORDERS_READ("orders-read"),
+    WRITE("write"),
+    READ("read");
+
+    private final String propertyName;
+
+    RateLimitGroup(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public static RateLimitGroup of(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/exports/") || path.equals("/api/products/import")) {
+            return BULK;
+        }
+        if (!read) {
+            return WRITE;
+        }
+        return path.equals("/api/orders") || path.startsWith("/api/orders/") ? ORDERS_READ : READ;
+    }
+}
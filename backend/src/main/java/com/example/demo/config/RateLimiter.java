@@ -0,0 +1,153 @@
+package com.example.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket rate limits per client and endpoint group.
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (the generic cell rate
+ * algorithm, equivalent to a token bucket), updated with compare-and-set, so checks never block.
+ * A bucket whose arrival time has passed is full and can be dropped without changing any
+ * decision; a sweeper does so to bound memory. If the key table is still full of active
+ * clients, new clients share one overflow bucket per group.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+    private static final String OVERFLOW = "overflow";
+
+    private final Map<RateLimitGroup, Limit> limits = new EnumMap<>(RateLimitGroup.class);
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final long sweepIntervalMs;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * @param intervalNanos time to earn one token
+     * @param burstNanos how far the arrival time may run ahead of now: (capacity - 1) intervals
+     */
+    private record Limit(long intervalNanos, long burstNanos) {
+    }
+
+    /**
+     * @param retryAfterNanos 0 if allowed, otherwise how long until the next request would be
+     */
+    public record Decision(boolean allowed, long retryAfterNanos) {
+        static final Decision ALLOWED = new Decision(true, 0);
+    }
+
+    @Autowired
+    public RateLimiter(Environment env,
+                       @Value("${app.rate-limit.max-keys:100000}") int maxKeys,
+                       @Value("${app.rate-limit.sweep-interval-ms:10000}") long sweepIntervalMs) {
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            String prefix = "app.rate-limit.group." + group.getPropertyName();
+            int capacity = env.getProperty(prefix + ".capacity", Integer.class, 0);
+            double refillPerSecond = env.getProperty(prefix + ".refill-per-second", Double.class, 0.0);
+            // Unlimited unless both are set
+            if (capacity > 0 && refillPerSecond > 0) {
+                long interval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+                limits.put(group, new Limit(interval, interval * (capacity - 1)));
+            }
+        }
+        this.maxKeys = maxKeys;
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Takes one token from the client's bucket for the group.
+     * @param client the JWT subject, or the remote address for anonymous requests
+     */
+    public Decision tryAcquire(RateLimitGroup group, String client) {
+        Limit limit = limits.get(group);
+        if (limit == null) {
+            return Decision.ALLOWED;
+        }
+        String key = group.getPropertyName() + '|' + client;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                overflowed.increment();
+                key = group.getPropertyName() + '|' + OVERFLOW;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long tat = bucket.get();
+            long start = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long next = start + limit.intervalNanos();
+            long ahead = next - now - limit.intervalNanos();
+            if (ahead > limit.burstNanos()) {
+                rejected.increment();
+                return new Decision(false, ahead - limit.burstNanos());
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return Decision.ALLOWED;
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedClients", buckets.size());
+        stats.put("rejected", rejected.sum());
+        stats.put("overflowed", overflowed.sum());
+        return stats;
+    }
+
+    /**
+     * Drops full buckets. A concurrent request may still update a bucket being removed; that
+     * grants it at most one extra full burst.
+     */
+    void sweep() {
+        try {
+            long now = System.nanoTime();
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> {
+                long tat = bucket.get();
+                return tat == Long.MIN_VALUE || tat - now <= 0;
+            });
+            if (before >= maxKeys) {
+                log.info("Rate limit table was full ({} clients), {} remain after sweep", before, buckets.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rate limit sweep failed", e);
+        }
+    }
+}
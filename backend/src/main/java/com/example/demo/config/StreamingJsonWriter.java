@@ -0,0 +1,84 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes list responses as an array while the source stream is read, instead of materializing
+ * the list and then the whole body. Elements go through a writer bound to the element type, so
+ * the serializer is resolved once per response, and the output is flushed only as the response
+ * buffer fills. The format is negotiated from the Accept header among the JSON, CBOR and Smile
+ * converters, using their configured ObjectMappers (see JacksonConfig).
+ */
+@Component
+public class StreamingJsonWriter {
+
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+
+    @Autowired
+    public StreamingJsonWriter(MappingJackson2HttpMessageConverter json,
+                               MappingJackson2CborHttpMessageConverter cbor,
+                               MappingJackson2SmileHttpMessageConverter smile) {
+        // JSON first, so it wins for */*
+        this.converters = List.of(json, cbor, smile);
+    }
+
+    /**
+     * Writes the elements as the response body and closes the stream.
+     * @throws HttpMediaTypeNotAcceptableException if no supported format is acceptable
+     */
+    public <T> void writeArray(HttpServletRequest request, HttpServletResponse response,
+                               Class<T> type, Stream<T> elements) throws IOException, HttpMediaTypeNotAcceptableException {
+        try (elements) {
+            AbstractJackson2HttpMessageConverter converter = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+            response.setContentType(converter.getSupportedMediaTypes().get(0).toString());
+            writeArray(converter.getObjectMapper(), type, elements.iterator(), response.getOutputStream());
+        }
+    }
+
+    public static <T> void writeArray(ObjectMapper mapper, Class<T> type, Iterator<T> elements, OutputStream out)
+            throws IOException {
+        try (SequenceWriter writer = mapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValuesAsArray(out)) {
+            while (elements.hasNext()) {
+                writer.write(elements.next());
+            }
+        }
+    }
+
+    private AbstractJackson2HttpMessageConverter negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> acceptable = accept == null || accept.isBlank()
+            ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType mediaType : acceptable) {
+            for (AbstractJackson2HttpMessageConverter converter : converters) {
+                for (MediaType supported : converter.getSupportedMediaTypes()) {
+                    if (mediaType.isCompatibleWith(supported)) {
+                        return converter;
+                    }
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(converters.get(0).getSupportedMediaTypes());
+    }
+}
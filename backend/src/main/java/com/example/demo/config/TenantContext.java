@@ -0,0 +1,89 @@
+package com.example.demo.config;
+
+import java.util.regex.Pattern;
+
+/**
+ * The store (tenant) whose data the current thread works on. Set per request from the JWT by
+ * {@link JwtAuthFilter}; anonymous requests and threads without a tenant use the default store.
+ * <p>
+ * Store data lives in per-tenant collections: the default store keeps the plain collection names,
+ * so existing data stays in place, and every other store gets "name.tenant". Tenant-scoped
+ * documents resolve their collection through {@link #collection} on every operation, so each
+ * repository call is confined to the current tenant. Background work has to run inside
+ * {@link #run} or {@link #enter}, or be submitted through {@link #wrap}.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9-]{0,31}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant == null ? DEFAULT_TENANT : tenant;
+    }
+
+    /**
+     * Tenant of a stored account or token; null means the default store.
+     */
+    public static String orDefault(String tenantId) {
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /**
+     * Lower-case letters, digits and dashes, so the ID is safe in collection and file names.
+     */
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && TENANT_ID.matcher(tenantId).matches();
+    }
+
+    /**
+     * Collection of a tenant-scoped document for the current tenant; referenced from @Document.
+     */
+    public static String collection(String name) {
+        String tenant = current();
+        return DEFAULT_TENANT.equals(tenant) ? name : name + "." + tenant;
+    }
+
+    /**
+     * Switches the current thread to a tenant until the scope is closed.
+     */
+    public static Scope enter(String tenantId) {
+        if (!isValid(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant ID: " + tenantId);
+        }
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public static void run(String tenantId, Runnable task) {
+        try (Scope ignored = enter(tenantId)) {
+            task.run();
+        }
+    }
+
+    /**
+     * Binds a task to the current tenant, for handing it to another thread.
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenant = current();
+        return () -> run(tenant, task);
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
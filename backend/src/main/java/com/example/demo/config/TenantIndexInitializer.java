@@ -0,0 +1,45 @@
+package com.example.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexCreator;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Data creates the annotated indexes once at startup, for the collections the documents
+ * resolve to at that point: the default store's. This repeats index creation inside every other
+ * tenant's context, so their collections get the same indexes. Creating an existing index is a no-op.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.data.mongodb.auto-index-creation", havingValue = "true")
+public class TenantIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantIndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final TenantRegistry tenantRegistry;
+
+    @Autowired
+    public TenantIndexInitializer(MongoTemplate mongoTemplate, TenantRegistry tenantRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    @PostConstruct
+    public void createIndexes() {
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        for (String tenant : tenantRegistry.getTenants()) {
+            if (TenantContext.DEFAULT_TENANT.equals(tenant)) {
+                continue;
+            }
+            // The creator indexes every known document type when constructed
+            TenantContext.run(tenant, () -> new MongoPersistentEntityIndexCreator(mappingContext, mongoTemplate));
+            log.info("Ensured indexes for tenant {}", tenant);
+        }
+    }
+}
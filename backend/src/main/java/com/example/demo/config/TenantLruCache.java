@@ -0,0 +1,52 @@
+package com.example.demo.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded LRU cache with a separate partition per tenant (see TenantContext), so one store's
+ * entries never evict another's and a store can only fill its own share. Thread-safe.
+ */
+public class TenantLruCache<K, V> {
+
+    private final int maxEntriesPerTenant;
+    private final Map<String, Map<K, V>> partitions = new ConcurrentHashMap<>();
+
+    public TenantLruCache(int maxEntriesPerTenant) {
+        if (maxEntriesPerTenant <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+    }
+
+    public V get(K key) {
+        return partition().get(key);
+    }
+
+    public void put(K key, V value) {
+        partition().put(key, value);
+    }
+
+    public void remove(K key) {
+        partition().remove(key);
+    }
+
+    /**
+     * Drops the current tenant's entries.
+     */
+    public void clear() {
+        partition().clear();
+    }
+
+    private Map<K, V> partition() {
+        return partitions.computeIfAbsent(TenantContext.current(), tenant ->
+            Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > maxEntriesPerTenant;
+                }
+            }));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The configured stores (app.tenancy.tenants), always including the default one. Tokens for other
+ * tenants are rejected, and scheduled jobs run once per tenant.
+ */
+@Component
+public class TenantRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantRegistry.class);
+
+    private final List<String> tenants;
+
+    public TenantRegistry(@Value("${app.tenancy.tenants:}") List<String> configured) {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(TenantContext.DEFAULT_TENANT);
+        for (String id : configured) {
+            String tenant = id.trim();
+            if (tenant.isEmpty()) {
+                continue;
+            }
+            if (!TenantContext.isValid(tenant)) {
+                throw new IllegalArgumentException("Invalid tenant ID '" + tenant
+                    + "': use up to 32 lower-case letters, digits and dashes");
+            }
+            ids.add(tenant);
+        }
+        this.tenants = List.copyOf(ids);
+    }
+
+    public List<String> getTenants() {
+        return tenants;
+    }
+
+    public boolean contains(String tenantId) {
+        return tenants.contains(tenantId);
+    }
+
+    /**
+     * Runs a task once for every tenant, inside that tenant's context. A failure for one tenant is
+     * logged and does not stop the others.
+     * @return the tenants the task failed for
+     */
+    public List<String> forEachTenant(String description, Runnable task) {
+        List<String> failed = new ArrayList<>();
+        for (String tenant : tenants) {
+            try {
+                TenantContext.run(tenant, task);
+            } catch (RuntimeException e) {
+                log.error("{} failed for tenant {}", description, tenant, e);
+                failed.add(tenant);
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.config;
+
+import com.example.demo.model.RevokedToken;
+import com.example.demo.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked access tokens, held in memory so the per-request check needs no database access.
+ * Revocations are stored in a TTL collection and pulled in by a periodic sync, so a revocation
+ * made on another instance applies here within the sync interval. Lookups go through a Bloom
+ * filter first: for the common case of a token that is not revoked, the check is a fixed number
+ * of bit tests regardless of how many revocations are held.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository repository;
+    private final long syncIntervalMs;
+    private final int minCapacity;
+    private final double falsePositiveRate;
+
+    private volatile Snapshot snapshot;
+    private ScheduledExecutorService syncer;
+
+    // Entries by RevokedToken ID, plus a filter over the same IDs sized for them
+    private record Snapshot(BloomFilter filter, Map<String, RevokedToken> entries, int capacity) {
+    }
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository repository,
+                               @Value("${app.jwt.revocation.sync-interval-ms:5000}") long syncIntervalMs,
+                               @Value("${app.jwt.revocation.min-capacity:10000}") int minCapacity,
+                               @Value("${app.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Revocation false positive rate must be between 0 and 1");
+        }
+        this.repository = repository;
+        this.syncIntervalMs = syncIntervalMs;
+        this.minCapacity = Math.max(1, minCapacity);
+        this.falsePositiveRate = falsePositiveRate;
+        this.snapshot = build(Map.of(), System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        sync();
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (syncIntervalMs > 0) {
+            syncer.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        syncer.shutdownNow();
+    }
+
+    /**
+     * @param jti the token ID, may be null for tokens issued without one
+     * @param subject the user's email
+     * @param epoch the user's token epoch at issue
+     */
+    public boolean isRevoked(String jti, String subject, long epoch) {
+        Snapshot current = snapshot;
+        if (jti != null) {
+            String id = RevokedToken.TYPE_TOKEN + ":" + jti;
+            if (current.filter().mightContain(id) && current.entries().containsKey(id)) {
+                return true;
+            }
+        }
+        String id = RevokedToken.TYPE_USER + ":" + subject;
+        if (current.filter().mightContain(id)) {
+            RevokedToken user = current.entries().get(id);
+            return user != null && epoch < user.getMinEpoch();
+        }
+        return false;
+    }
+
+    /**
+     * Stores a revocation and applies it locally at once; other instances pick it up on their next sync.
+     */
+    public void revoke(RevokedToken revoked) {
+        repository.save(revoked);
+        synchronized (this) {
+            add(snapshot, revoked);
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the stored revocations plus the unexpired local ones, dropping
+     * expired entries and resizing as the set grows or shrinks.
+     */
+    void sync() {
+        try {
+            Collection<RevokedToken> stored = repository.findByExpiresAtAfter(new Date());
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                Map<String, RevokedToken> merged = new ConcurrentHashMap<>(snapshot.entries());
+                for (RevokedToken revoked : stored) {
+                    merged.merge(revoked.getId(), revoked, TokenRevocationList::newer);
+                }
+                snapshot = build(merged, now);
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the last snapshot; local revocations still apply
+            log.warn("Could not sync token revocations", e);
+        }
+    }
+
+    private Snapshot build(Map<String, RevokedToken> entries, long now) {
+        Map<String, RevokedToken> live = new ConcurrentHashMap<>();
+        entries.forEach((id, revoked) -> {
+            if (revoked.getExpiresAt() != null && revoked.getExpiresAt().getTime() > now) {
+                live.put(id, revoked);
+            }
+        });
+        // Headroom for local revocations until the next sync
+        int capacity = Math.max(minCapacity, live.size() * 2);
+        Snapshot built = new Snapshot(new BloomFilter(capacity, falsePositiveRate), live, capacity);
+        live.keySet().forEach(built.filter()::add);
+        return built;
+    }
+
+    private void add(Snapshot target, RevokedToken revoked) {
+        // Entry before filter bit, so a lookup that passes the filter finds the entry
+        target.entries().merge(revoked.getId(), revoked, TokenRevocationList::newer);
+        target.filter().add(revoked.getId());
+        if (target.entries().size() > target.capacity()) {
+            snapshot = build(target.entries(), System.currentTimeMillis());
+        }
+    }
+
+    // User revocations only ever raise the minimum epoch
+    private static RevokedToken newer(RevokedToken existing, RevokedToken incoming) {
+        return incoming.getMinEpoch() >= existing.getMinEpoch() ? incoming : existing;
+    }
+}
@@ -6,10 +6,13 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
+
+    // Product images, relative to the working directory and served under /uploads/
+    public static final String UPLOAD_DIR = "uploads/";
     
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:./uploads/");
+        registry.addResourceHandler("/" + UPLOAD_DIR + "**")
+                .addResourceLocations("file:./" + UPLOAD_DIR);
     }
 }
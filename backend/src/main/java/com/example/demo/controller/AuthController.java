@@ -1,21 +1,32 @@
 package com.example.demo.controller;
 
 import com.example.demo.config.JwtUtils;
+import com.example.demo.config.Permissions;
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TenantRegistry;
 import com.example.demo.model.LoginRequest;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.TokenService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.Map;
@@ -35,6 +46,12 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@RequestBody SignupRequest signupRequest) {
         try {
@@ -43,13 +60,37 @@ public class AuthController {
                     .badRequest()
                     .body(Map.of("message", "Error: Email is already in use!"));
             }
+            // Other stores are joined only with an invite from one of their admins
+            String tenantId = TenantContext.DEFAULT_TENANT;
+            if (signupRequest.getInviteToken() != null) {
+                Claims invite;
+                try {
+                    invite = jwtUtils.parseInviteToken(signupRequest.getInviteToken());
+                } catch (JwtException | IllegalArgumentException e) {
+                    return ResponseEntity
+                        .badRequest()
+                        .body(Map.of("message", "Error: Invalid or expired invite"));
+                }
+                if (!invite.getSubject().equalsIgnoreCase(signupRequest.getEmail())) {
+                    return ResponseEntity
+                        .badRequest()
+                        .body(Map.of("message", "Error: The invite is for another email address"));
+                }
+                tenantId = invite.get(JwtUtils.INVITE_CLAIM, String.class);
+                if (!tenantRegistry.contains(tenantId)) {
+                    return ResponseEntity
+                        .badRequest()
+                        .body(Map.of("message", "Error: Unknown store " + tenantId));
+                }
+            }
 
             User user = new User(
                 signupRequest.getName(),
                 signupRequest.getEmail(),
                 passwordEncoder.encode(signupRequest.getPassword()),
-                "USER"
+                Permissions.ROLE_USER
             );
+            user.setTenantId(tenantId);
             
             userRepository.save(user);
             return ResponseEntity.ok(Map.of(
@@ -64,6 +105,26 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/invites")
+    @PreAuthorize("hasRole('" + Permissions.ROLE_ADMIN + "')")
+    public ResponseEntity<?> invite(@RequestBody InviteRequest inviteRequest) {
+        String email = inviteRequest.getEmail();
+        if (email == null || email.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Error: Email is required"));
+        }
+        if (userRepository.existsByEmail(email)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Error: Email is already in use!"));
+        }
+        // Invites are always to the admin's own store
+        String tenantId = TenantContext.current();
+        return ResponseEntity.ok(Map.of(
+            "inviteToken", jwtUtils.generateInviteToken(email, tenantId),
+            "email", email,
+            "tenantId", tenantId,
+            "expiresIn", jwtUtils.getInviteExpirationMs()
+        ));
+    }
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
         try {
@@ -75,19 +136,102 @@ public class AuthController {
             );
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateToken((User) authentication.getPrincipal());
+            TokenService.TokenPair tokens = tokenService.issue((User) authentication.getPrincipal());
             
             return ResponseEntity.ok(Map.of(
-                "token", jwt,
+                "token", tokens.accessToken(),
+                "refreshToken", tokens.refreshToken(),
+                "expiresIn", tokens.expiresIn(),
                 "id", ((User) authentication.getPrincipal()).getId(),
                 "email", ((User) authentication.getPrincipal()).getEmail(),
                 "role", ((User) authentication.getPrincipal()).getRole(),
+                "tenantId", TenantContext.orDefault(((User) authentication.getPrincipal()).getTenantId()),
+                "permissions", Permissions.forRole(((User) authentication.getPrincipal()).getRole()),
                 "redirectTo", "/dashboard"
             ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Invalid email or password"));
         }
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
+        try {
+            TokenService.TokenPair tokens = tokenService.refresh(refreshRequest.getRefreshToken());
+            return ResponseEntity.ok(Map.of(
+                "token", tokens.accessToken(),
+                "refreshToken", tokens.refreshToken(),
+                "expiresIn", tokens.expiresIn()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authorization,
+                                    @RequestBody(required = false) RefreshRequest refreshRequest) {
+        Claims claims;
+        try {
+            // Already verified by the filter; parsed again for the token ID and expiry
+            claims = jwtUtils.parseToken(authorization.substring("Bearer ".length()));
+        } catch (JwtException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid token"));
+        }
+        tokenService.logout(claims, refreshRequest != null ? refreshRequest.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/revoke-all")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> revokeAll(Authentication authentication) {
+        tokenService.revokeAll(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/revoke-all/{email}")
+    @PreAuthorize("hasRole('" + Permissions.ROLE_ADMIN + "')")
+    public ResponseEntity<?> revokeAllForUser(@PathVariable String email) {
+        if (!tokenService.revokeAll(email)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/users/{email}/role")
+    @PreAuthorize("hasRole('" + Permissions.ROLE_ADMIN + "')")
+    public ResponseEntity<?> changeRole(@PathVariable String email, @RequestBody RoleRequest roleRequest,
+                                        Authentication authentication) {
+        // Keeps a store from locking itself out by its last admin demoting themselves
+        if (email.equals(authentication.getName())) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Error: Admins cannot change their own role"));
+        }
+        try {
+            if (!tokenService.changeRole(email, roleRequest.getRole())) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        return ResponseEntity.ok(Map.of(
+            "email", email,
+            "role", roleRequest.getRole(),
+            "permissions", Permissions.forRole(roleRequest.getRole())
+        ));
+    }
+}
+
+class RefreshRequest {
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
 
 class SignupRequest {
@@ -102,6 +246,9 @@ class SignupRequest {
     @Size(min = 6, message = "Password must be at least 6 characters")
     private String password;
 
+    // Invite to join a store other than the default store, see AuthController.invite
+    private String inviteToken;
+
     public String getName() {
         return name;
     }
@@ -125,6 +272,38 @@ class SignupRequest {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public String getInviteToken() {
+        return inviteToken;
+    }
+
+    public void setInviteToken(String inviteToken) {
+        this.inviteToken = inviteToken;
+    }
+}
+
+class RoleRequest {
+    private String role;
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
+
+class InviteRequest {
+    private String email;
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
 }
 
 class LoginResponse {
@@ -0,0 +1,34 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.CatalogEntry;
+import com.example.demo.service.CatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    @Autowired
+    public CatalogController(CatalogService catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getCatalog(
+            @RequestParam(required = false) String supplierId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            Page<CatalogEntry> catalog = catalogService.getCatalogPage(supplierId, page, size);
+            return ResponseEntity.ok(catalog);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
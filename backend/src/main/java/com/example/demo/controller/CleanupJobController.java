@@ -0,0 +1,26 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.CleanupJob;
+import com.example.demo.service.CleanupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/cleanup-jobs")
+public class CleanupJobController {
+
+    private final CleanupService cleanupService;
+
+    @Autowired
+    public CleanupJobController(CleanupService cleanupService) {
+        this.cleanupService = cleanupService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CleanupJob> getJob(@PathVariable String id) {
+        Optional<CleanupJob> job = cleanupService.getJob(id);
+        return job.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * File exports for finance. Rows are written to the response while the database cursor is read,
+ * so responses use chunked transfer encoding and the request thread is held for the duration.
+ * Errors after the first rows are sent can only abort the response.
+ */
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @PreAuthorize("hasAuthority('reports:export')")
+    @GetMapping("/orders")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            HttpServletResponse response) throws IOException {
+        if (from != null && to != null && !from.before(to)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "'from' must be before 'to'"));
+        }
+        try {
+            ExportService.Format exportFormat = ExportService.Format.parse(format);
+            attachment(response, "orders", exportFormat);
+            exportService.exportOrders(response.getOutputStream(), exportFormat, from, to, status, includeArchived);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PreAuthorize("hasAuthority('reports:export')")
+    @GetMapping("/inventory")
+    public ResponseEntity<?> exportInventory(@RequestParam(defaultValue = "csv") String format,
+                                             HttpServletResponse response) throws IOException {
+        try {
+            ExportService.Format exportFormat = ExportService.Format.parse(format);
+            attachment(response, "inventory", exportFormat);
+            exportService.exportInventory(response.getOutputStream(), exportFormat);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private static void attachment(HttpServletResponse response, String name, ExportService.Format format) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+            .filename(name + "." + format.getExtension())
+            .build();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        response.setContentType(format.getContentType());
+    }
+}
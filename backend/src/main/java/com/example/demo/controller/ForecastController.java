@@ -0,0 +1,43 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.DemandForecast;
+import com.example.demo.service.DemandForecastService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/forecasts")
+public class ForecastController {
+
+    private final DemandForecastService demandForecastService;
+
+    @Autowired
+    public ForecastController(DemandForecastService demandForecastService) {
+        this.demandForecastService = demandForecastService;
+    }
+
+    @GetMapping("/run")
+    public ResponseEntity<Map<String, Object>> getLastRun() {
+        return ResponseEntity.ok(demandForecastService.getLastRun());
+    }
+
+    @PreAuthorize("hasAuthority('maintenance:run')")
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> runForecast() {
+        if (!demandForecastService.trigger()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "A forecast run is already in progress"));
+        }
+        return ResponseEntity.accepted().body(demandForecastService.getLastRun());
+    }
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<DemandForecast> getForecast(@PathVariable String productId) {
+        Optional<DemandForecast> forecast = demandForecastService.getForecast(productId);
+        return forecast.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,12 +1,27 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.StreamingJsonWriter;
 import com.example.demo.model.Inventory;
+import com.example.demo.model.InventoryAdjustment;
+import com.example.demo.model.StockLocation;
+import com.example.demo.model.StockMovement;
+import com.example.demo.model.StockTransfer;
 import com.example.demo.service.InventoryService;
+import com.example.demo.service.StockLedgerService;
+import com.example.demo.service.StockLocationService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -14,15 +29,28 @@ import java.util.Optional;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final StockLocationService stockLocationService;
+    private final StockLedgerService stockLedgerService;
+    private final StreamingJsonWriter streamingWriter;
 
     @Autowired
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService, StockLocationService stockLocationService,
+                               StockLedgerService stockLedgerService, StreamingJsonWriter streamingWriter) {
         this.inventoryService = inventoryService;
+        this.stockLocationService = stockLocationService;
+        this.stockLedgerService = stockLedgerService;
+        this.streamingWriter = streamingWriter;
     }
 
     @GetMapping
-    public ResponseEntity<List<Inventory>> getAllInventory() {
-        return ResponseEntity.ok(inventoryService.getAllInventory());
+    public void getAllInventory(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        streamingWriter.writeArray(request, response, Inventory.class, inventoryService.streamAllInventory());
+    }
+
+    @GetMapping("/locations")
+    public ResponseEntity<List<StockLocation>> getLocationsByWarehouse(@RequestParam String warehouse) {
+        return ResponseEntity.ok(stockLocationService.getLocationsByWarehouse(warehouse));
     }
 
     @GetMapping("/{productId}")
@@ -31,24 +59,107 @@ public class InventoryController {
         return inventory.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PreAuthorize("hasAuthority('inventory:write')")
     @PostMapping
-    public ResponseEntity<Inventory> createInventory(@RequestBody Inventory inventory) {
-        Inventory savedInventory = inventoryService.saveInventory(inventory);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedInventory);
+    public ResponseEntity<?> createInventory(@RequestBody Inventory inventory) {
+        try {
+            Optional<Inventory> savedInventory = inventoryService.setInventory(inventory.getProductId(),
+                inventory.getQuantity(), inventory.getLocation(), true);
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedInventory.orElseThrow());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PreAuthorize("hasAuthority('inventory:write')")
+    @PostMapping("/{productId}/adjustments")
+    public ResponseEntity<?> adjustInventory(@PathVariable String productId, @RequestBody InventoryAdjustment adjustment) {
+        adjustment.setProductId(productId);
+        return adjustInventory(List.of(adjustment));
+    }
+
+    @PreAuthorize("hasAuthority('inventory:write')")
+    @PostMapping("/adjustments")
+    public ResponseEntity<?> adjustInventory(@RequestBody List<InventoryAdjustment> adjustments) {
+        try {
+            inventoryService.adjustQuantities(adjustments);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{productId}/movements")
+    public ResponseEntity<?> getMovements(
+            @PathVariable String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        try {
+            List<StockMovement> movements = stockLedgerService.getMovements(productId, from, to);
+            return ResponseEntity.ok(movements);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{productId}/ledger-balance")
+    public ResponseEntity<Map<String, Object>> getLedgerBalance(@PathVariable String productId) {
+        return ResponseEntity.ok(stockLedgerService.getBalance(productId));
     }
 
+    @PreAuthorize("hasAuthority('maintenance:run')")
+    @PostMapping("/ledger/compact")
+    public ResponseEntity<Map<String, Integer>> compactLedger() {
+        return ResponseEntity.ok(Map.of("updated", stockLedgerService.compact()));
+    }
+
+    @GetMapping("/{productId}/locations")
+    public ResponseEntity<List<StockLocation>> getLocations(@PathVariable String productId) {
+        return ResponseEntity.ok(stockLocationService.getLocationsByProductId(productId));
+    }
+
+    @PreAuthorize("hasAuthority('inventory:write')")
+    @PostMapping("/{productId}/locations/{warehouse}/{bin}/adjustments")
+    public ResponseEntity<?> adjustLocation(@PathVariable String productId, @PathVariable String warehouse,
+                                            @PathVariable String bin, @RequestBody InventoryAdjustment adjustment) {
+        try {
+            return ResponseEntity.ok(stockLocationService.adjustStock(productId, warehouse, bin, adjustment.getDelta()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PreAuthorize("hasAuthority('inventory:write')")
+    @PostMapping("/{productId}/transfers")
+    public ResponseEntity<?> transfer(@PathVariable String productId, @RequestBody StockTransfer transfer) {
+        try {
+            return ResponseEntity.ok(stockLocationService.transfer(productId, transfer));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PreAuthorize("hasAuthority('inventory:write')")
     @PutMapping("/{productId}")
-    public ResponseEntity<Inventory> updateInventory(@PathVariable String productId, @RequestBody Inventory inventoryDetails) {
-        Optional<Inventory> optionalInventory = inventoryService.getInventoryByProductId(productId);
-        if (optionalInventory.isPresent()) {
-            Inventory existingInventory = optionalInventory.get();
-            existingInventory.setQuantity(inventoryDetails.getQuantity());
-            existingInventory.setLocation(inventoryDetails.getLocation());
-            return ResponseEntity.ok(inventoryService.saveInventory(existingInventory));
+    public ResponseEntity<?> updateInventory(@PathVariable String productId, @RequestBody Inventory inventoryDetails) {
+        try {
+            Optional<Inventory> updated = inventoryService.setInventory(productId, inventoryDetails.getQuantity(),
+                inventoryDetails.getLocation(), false);
+            return updated.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
         }
-        return ResponseEntity.notFound().build();
     }
 
+    @PreAuthorize("hasAuthority('inventory:write')")
     @DeleteMapping("/{productId}")
     public ResponseEntity<Void> deleteInventory(@PathVariable String productId) {
         Optional<Inventory> optionalInventory = inventoryService.getInventoryByProductId(productId);
@@ -0,0 +1,47 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.LoadShedder;
+import com.example.demo.config.MongoPoolMetrics;
+import com.example.demo.config.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final MongoPoolMetrics mongoPoolMetrics;
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+
+    @Autowired
+    public MetricsController(MongoPoolMetrics mongoPoolMetrics, RateLimiter rateLimiter, LoadShedder loadShedder) {
+        this.mongoPoolMetrics = mongoPoolMetrics;
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+    }
+
+    @GetMapping("/mongo-pool")
+    public ResponseEntity<Map<String, Object>> getMongoPoolStats() {
+        return ResponseEntity.ok(mongoPoolMetrics.snapshot());
+    }
+
+    @GetMapping("/load")
+    public ResponseEntity<Map<String, Object>> getLoadStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rateLimit", rateLimiter.snapshot());
+        stats.put("loadShedding", loadShedder.snapshot());
+        return ResponseEntity.ok(stats);
+    }
+
+    @PreAuthorize("hasAuthority('maintenance:run')")
+    @DeleteMapping("/mongo-pool")
+    public ResponseEntity<Void> resetMongoPoolStats() {
+        mongoPoolMetrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,9 +1,20 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.StreamingJsonWriter;
 import com.example.demo.model.Order;
+import com.example.demo.model.OrderSummary;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import com.example.demo.service.CheckoutService;
+import com.example.demo.service.OrderArchiveService;
 import com.example.demo.service.OrderService;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,15 +24,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CheckoutService checkoutService;
+    private final OrderArchiveService archiveService;
+    private final StreamingJsonWriter streamingWriter;
     
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, CheckoutService checkoutService,
+                           OrderArchiveService archiveService, StreamingJsonWriter streamingWriter) {
         this.orderService = orderService;
+        this.checkoutService = checkoutService;
+        this.archiveService = archiveService;
+        this.streamingWriter = streamingWriter;
     }
 
     @GetMapping
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public void getAllOrders(HttpServletRequest request, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        streamingWriter.writeArray(request, response, Order.class, orderService.streamAllOrders());
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<List<OrderSummary>> getOrderSummaries(@RequestParam(required = false) String status) {
+        return ResponseEntity.ok(orderService.getOrderSummaries(status));
     }
 
     @GetMapping("/{id}")
@@ -30,14 +54,30 @@ public class OrderController {
         return order.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PreAuthorize("hasAuthority('orders:write')")
     @PostMapping
     public Order createOrder(@RequestBody Order order) {
         // Save order with items in single operation
         return orderService.saveOrder(order);
     }
 
+    @PreAuthorize("hasAuthority('orders:checkout')")
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(
+            @RequestBody Order order,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(checkoutService.placeOrder(order, idempotencyKey));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PreAuthorize("hasAuthority('orders:write')")
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(@PathVariable String id, @RequestBody Order orderDetails) {
+    public ResponseEntity<?> updateOrder(@PathVariable String id, @RequestBody Order orderDetails) {
         Optional<Order> order = orderService.getOrderById(id);
         if (order.isPresent()) {
             Order existingOrder = order.get();
@@ -46,11 +86,36 @@ public class OrderController {
             existingOrder.setItems(orderDetails.getItems());
             
             // Save complete document update
-            return ResponseEntity.ok(orderService.saveOrder(existingOrder));
+            try {
+                return ResponseEntity.ok(orderService.saveOrder(existingOrder));
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+            }
         }
         return ResponseEntity.notFound().build();
     }
 
+    @PreAuthorize("hasAuthority('maintenance:run')")
+    @PostMapping("/read-model/backfill")
+    public ResponseEntity<Map<String, Long>> backfillReadModel(@RequestParam(defaultValue = "500") int batchSize) {
+        return ResponseEntity.ok(Map.of("updated", orderService.backfillReadModel(batchSize)));
+    }
+
+    @GetMapping("/archive/run")
+    public ResponseEntity<Map<String, Object>> getLastArchiveRun() {
+        return ResponseEntity.ok(archiveService.getLastRun());
+    }
+
+    @PreAuthorize("hasAuthority('maintenance:run')")
+    @PostMapping("/archive/run")
+    public ResponseEntity<Map<String, Object>> runArchive() {
+        if (!archiveService.trigger()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "An archive run is already in progress"));
+        }
+        return ResponseEntity.accepted().body(archiveService.getLastRun());
+    }
+
+    @PreAuthorize("hasAuthority('orders:write')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable String id) {
         Optional<Order> order = orderService.getOrderById(id);
@@ -67,14 +132,23 @@ public class OrderController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(orderService.getOrdersByStatus(status));
+    public void getOrdersByStatus(@PathVariable String status, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        streamingWriter.writeArray(request, response, Order.class, orderService.streamOrdersByStatus(status));
     }
 
+    @PreAuthorize("hasAuthority('orders:write')")
     @PutMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(
+    public ResponseEntity<?> updateOrderStatus(
             @PathVariable String id,
             @RequestParam String status) {
-        return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
+        } catch (IllegalArgumentException e) {
+            // The ID and status are always present here, so the order does not exist
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
     }
 }
\ No newline at end of file
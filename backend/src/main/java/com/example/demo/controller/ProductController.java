@@ -1,14 +1,27 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.WebMvcConfig;
+import com.example.demo.model.CleanupJob;
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductSummary;
+import com.example.demo.service.CleanupService;
+import com.example.demo.service.ProductImportService;
 import com.example.demo.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -19,11 +32,18 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
-    private static final String UPLOAD_DIR = "uploads/";
+    private final CleanupService cleanupService;
+    private final ProductImportService importService;
+    private final ObjectMapper objectMapper;
+    private static final String UPLOAD_DIR = WebMvcConfig.UPLOAD_DIR;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CleanupService cleanupService,
+                             ProductImportService importService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.cleanupService = cleanupService;
+        this.importService = importService;
+        this.objectMapper = objectMapper;
         try {
             Files.createDirectories(Paths.get(UPLOAD_DIR));
         } catch (IOException e) {
@@ -36,12 +56,18 @@ public class ProductController {
         return productService.getAllProducts();
     }
 
+    @GetMapping("/summary")
+    public List<ProductSummary> getProductSummaries() {
+        return productService.getProductSummaries();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable String id) {
         Optional<Product> productOptional = productService.getProductById(id);
         return productOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PreAuthorize("hasAuthority('products:write')")
     @PostMapping(consumes = {"multipart/form-data"})
     public Product createProduct(
             @RequestPart("product") Product product,
@@ -60,6 +86,43 @@ public class ProductController {
         return productService.saveProduct(product);
     }
 
+    /**
+     * Imports products and inventory from a CSV request body (see ProductImportService).
+     * Progress is streamed back as newline-delimited JSON, one line per batch, ending with a
+     * line holding the totals and "done": true.
+     */
+    @PreAuthorize("hasAuthority('products:write') and hasAuthority('inventory:write')")
+    @PostMapping(value = "/import", consumes = {"text/csv"})
+    public ResponseEntity<?> importProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            Map<String, Object> totals = importService.importCsv(request.getInputStream(), progress -> {
+                if (!response.isCommitted()) {
+                    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                }
+                writeLine(response, progress);
+            });
+            Map<String, Object> done = new LinkedHashMap<>(totals);
+            done.put("done", true);
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            writeLine(response, done);
+            return null;
+        } catch (IllegalArgumentException e) {
+            if (response.isCommitted()) {
+                // Batches already reported stay imported; the rest of the upload is skipped
+                writeLine(response, Map.of("done", false, "message", e.getMessage()));
+                return null;
+            }
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private void writeLine(HttpServletResponse response, Map<String, Object> line) throws IOException {
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(line));
+        response.getOutputStream().write('\n');
+        response.flushBuffer();
+    }
+
+    @PreAuthorize("hasAuthority('products:write')")
     @PutMapping(value = "/{id}", consumes = {"multipart/form-data"})
     public ResponseEntity<Product> updateProduct(
             @PathVariable String id,
@@ -89,22 +152,12 @@ public class ProductController {
         return ResponseEntity.notFound().build();
     }
 
+    @PreAuthorize("hasAuthority('products:write')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable String id) {
-        Optional<Product> productOptional = productService.getProductById(id);
-        if (productOptional.isPresent()) {
-            // Delete associated image file if exists
-            Product product = productOptional.get();
-            if (product.getImageUrl() != null) {
-                try {
-                    Files.deleteIfExists(Paths.get(UPLOAD_DIR + product.getImageUrl().substring(("/" + UPLOAD_DIR).length())));
-                } catch (IOException e) {
-                    System.err.println("Failed to delete image file: " + e.getMessage());
-                }
-            }
-            productService.deleteProduct(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<CleanupJob> deleteProduct(@PathVariable String id) {
+        // Inventory, stock locations, forecasts and the image are removed by a background job
+        Optional<CleanupJob> job = cleanupService.deleteProduct(id);
+        return job.map(body -> ResponseEntity.accepted().location(URI.create("/api/cleanup-jobs/" + body.getId())).body(body))
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -1,22 +1,36 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.CleanupJob;
 import com.example.demo.model.Supplier;
+import com.example.demo.model.SupplierScorecard;
+import com.example.demo.service.CleanupService;
+import com.example.demo.service.SupplierScorecardService;
 import com.example.demo.service.SupplierService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/suppliers")
 public class SupplierController {
 
     private final SupplierService supplierService;
+    private final SupplierScorecardService scorecardService;
+    private final CleanupService cleanupService;
 
     @Autowired
-    public SupplierController(SupplierService supplierService) {
+    public SupplierController(SupplierService supplierService, SupplierScorecardService scorecardService,
+                              CleanupService cleanupService) {
         this.supplierService = supplierService;
+        this.scorecardService = scorecardService;
+        this.cleanupService = cleanupService;
     }
 
     @GetMapping
@@ -24,17 +38,37 @@ public class SupplierController {
         return ResponseEntity.ok(supplierService.findAllSuppliers());
     }
 
+    @GetMapping("/scorecards")
+    public ResponseEntity<List<SupplierScorecard>> getAllScorecards() {
+        return ResponseEntity.ok().cacheControl(scorecardCacheControl()).body(scorecardService.getAllScorecards());
+    }
+
+    @PreAuthorize("hasAuthority('maintenance:run')")
+    @PostMapping("/scorecards/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildScorecards() {
+        return ResponseEntity.ok(Map.of("scorecards", scorecardService.rebuild()));
+    }
+
+    @GetMapping("/{id}/scorecard")
+    public ResponseEntity<SupplierScorecard> getScorecard(@PathVariable String id) {
+        Optional<SupplierScorecard> scorecard = scorecardService.getScorecard(id);
+        return scorecard.map(body -> ResponseEntity.ok().cacheControl(scorecardCacheControl()).body(body))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Supplier> getSupplierById(@PathVariable String id) {
         Optional<Supplier> supplier = supplierService.findSupplierById(id);
         return supplier.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PreAuthorize("hasAuthority('suppliers:write')")
     @PostMapping
     public ResponseEntity<Supplier> createSupplier(@RequestBody Supplier supplier) {
         return ResponseEntity.ok(supplierService.saveSupplier(supplier));
     }
 
+    @PreAuthorize("hasAuthority('suppliers:write')")
     @PutMapping("/{id}")
     public ResponseEntity<Supplier> updateSupplier(@PathVariable String id, @RequestBody Supplier supplierDetails) {
         Optional<Supplier> supplierOptional = supplierService.findSupplierById(id);
@@ -48,9 +82,16 @@ public class SupplierController {
         return ResponseEntity.notFound().build();
     }
 
+    @PreAuthorize("hasAuthority('suppliers:write')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteSupplier(@PathVariable String id) {
-        supplierService.deleteSupplier(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<CleanupJob> deleteSupplier(@PathVariable String id) {
+        // The supplier's products and their dependents are removed by a background job
+        Optional<CleanupJob> job = cleanupService.deleteSupplier(id);
+        return job.map(body -> ResponseEntity.accepted().location(URI.create("/api/cleanup-jobs/" + body.getId())).body(body))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private CacheControl scorecardCacheControl() {
+        return CacheControl.maxAge(scorecardService.getCacheTtlSeconds(), TimeUnit.SECONDS);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+/**
+ * A closed order moved out of the hot orders collection. The order is kept whole, so reads
+ * return exactly what was archived. The collection is created with zstd block compression
+ * (see ArchivedOrderRepositoryCustom.createCollection); it only has the _id index, as archived
+ * orders are read by id alone.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('" + ArchivedOrder.COLLECTION + "')}")
+public class ArchivedOrder {
+    public static final String COLLECTION = "orders_archive";
+
+    @Id
+    private String id;
+    private Order order;
+    private Date archivedAt;
+
+    public ArchivedOrder() {
+    }
+
+    public ArchivedOrder(Order order) {
+        this.id = order.getId();
+        this.order = order;
+        this.archivedAt = new Date();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Date archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
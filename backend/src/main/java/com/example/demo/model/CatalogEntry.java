@@ -0,0 +1,94 @@
+package com.example.demo.model;
+
+/**
+ * Product row joined with its supplier name and stock level, for the catalog grid.
+ */
+public class CatalogEntry {
+
+    private String id;
+    private String name;
+    private double price;
+    private String imageUrl;
+    private String supplierId;
+    private String supplierName;
+    private Integer quantity;
+    private String location;
+
+    public CatalogEntry() {
+    }
+
+    public CatalogEntry(ProductSummary product, Supplier supplier, Inventory inventory) {
+        this.id = product.getId();
+        this.name = product.getName();
+        this.price = product.getPrice();
+        this.imageUrl = product.getImageUrl();
+        this.supplierId = product.getSupplierId();
+        this.supplierName = supplier != null ? supplier.getName() : null;
+        this.quantity = inventory != null ? inventory.getQuantity() : null;
+        this.location = inventory != null ? inventory.getLocation() : null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(String supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public String getSupplierName() {
+        return supplierName;
+    }
+
+    public void setSupplierName(String supplierName) {
+        this.supplierName = supplierName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+}
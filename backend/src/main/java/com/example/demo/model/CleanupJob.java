@@ -0,0 +1,133 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Background removal of the records that depend on a deleted product or supplier.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('cleanup_jobs')}")
+public class CleanupJob {
+    public static final String TYPE_PRODUCT = "product";
+    public static final String TYPE_SUPPLIER = "supplier";
+
+    public static final String STATUS_QUEUED = "queued";
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+
+    @Id
+    private String id;
+    private String type;
+    private String targetId;
+    @Indexed
+    private String status;
+    // Image of a deleted product; the product document is already gone when the job runs
+    private String imageUrl;
+    private Map<String, Long> removed = new LinkedHashMap<>();
+    private String error;
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+
+    public CleanupJob() {
+    }
+
+    public CleanupJob(String type, String targetId) {
+        this.type = type;
+        this.targetId = targetId;
+        this.status = STATUS_QUEUED;
+        this.createdAt = new Date();
+    }
+
+    public void addRemoved(String kind, long count) {
+        if (count > 0) {
+            removed.merge(kind, count, Long::sum);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public Map<String, Long> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(Map<String, Long> removed) {
+        this.removed = removed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
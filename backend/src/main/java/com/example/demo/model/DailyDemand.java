@@ -0,0 +1,45 @@
+package com.example.demo.model;
+
+import java.util.Date;
+
+/**
+ * Units of one product ordered on one day (UTC).
+ */
+public class DailyDemand {
+    private String productId;
+    private Date day;
+    private long quantity;
+
+    public DailyDemand() {
+    }
+
+    public DailyDemand(String productId, Date day, long quantity) {
+        this.productId = productId;
+        this.day = day;
+        this.quantity = quantity;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Date getDay() {
+        return day;
+    }
+
+    public void setDay(Date day) {
+        this.day = day;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+}
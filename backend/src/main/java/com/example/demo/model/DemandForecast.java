@@ -0,0 +1,105 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Demand forecast and recommended reorder point for a product, keyed by productId like Inventory.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('demand_forecasts')}")
+public class DemandForecast {
+
+    @Id
+    private String productId;
+    private double movingAverage;
+    // Demand multiplier per day of week, Monday first
+    private List<Double> weekdayFactors;
+    private List<Double> dailyForecast;
+    private double leadTimeDemand;
+    private double safetyStock;
+    private int reorderPoint;
+    private int historyDays;
+    private Date generatedAt;
+
+    public DemandForecast() {
+    }
+
+    public DemandForecast(String productId) {
+        this.productId = productId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public double getMovingAverage() {
+        return movingAverage;
+    }
+
+    public void setMovingAverage(double movingAverage) {
+        this.movingAverage = movingAverage;
+    }
+
+    public List<Double> getWeekdayFactors() {
+        return weekdayFactors;
+    }
+
+    public void setWeekdayFactors(List<Double> weekdayFactors) {
+        this.weekdayFactors = weekdayFactors;
+    }
+
+    public List<Double> getDailyForecast() {
+        return dailyForecast;
+    }
+
+    public void setDailyForecast(List<Double> dailyForecast) {
+        this.dailyForecast = dailyForecast;
+    }
+
+    public double getLeadTimeDemand() {
+        return leadTimeDemand;
+    }
+
+    public void setLeadTimeDemand(double leadTimeDemand) {
+        this.leadTimeDemand = leadTimeDemand;
+    }
+
+    public double getSafetyStock() {
+        return safetyStock;
+    }
+
+    public void setSafetyStock(double safetyStock) {
+        this.safetyStock = safetyStock;
+    }
+
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(int reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    public void setHistoryDays(int historyDays) {
+        this.historyDays = historyDays;
+    }
+
+    public Date getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(Date generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('idempotency_keys')}")
+public class IdempotencyRecord {
+    public static final String STATUS_IN_PROGRESS = "in_progress";
+    public static final String STATUS_COMPLETED = "completed";
+
+    @Id
+    private String key;
+    private String fingerprint;
+    private String status;
+    private int responseStatus;
+    private String contentType;
+    private byte[] responseBody;
+    @Indexed(expireAfter = "24h")
+    private Date createdAt;
+    // Start of the lease of the request holding the key; an in-progress record whose lease ran out
+    // belongs to a request that crashed and may be taken over
+    private Date reservedAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String fingerprint) {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.status = STATUS_IN_PROGRESS;
+        this.createdAt = new Date();
+        this.reservedAt = this.createdAt;
+    }
+
+    public boolean isCompleted() {
+        return STATUS_COMPLETED.equals(this.status);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(byte[] responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getReservedAt() {
+        return reservedAt;
+    }
+
+    public void setReservedAt(Date reservedAt) {
+        this.reservedAt = reservedAt;
+    }
+}
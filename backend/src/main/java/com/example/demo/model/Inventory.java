@@ -1,15 +1,21 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-@Document(collection = "inventory")
+import java.util.List;
+
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('inventory')}")
 public class Inventory {
 
     @Id
     private String productId;
     private int quantity;
     private String location;
+    // IDs of the most recent buffered adjustment batches applied to this row, see InventoryRepositoryCustom
+    @JsonIgnore
+    private List<String> appliedAdjustments;
 
     public Inventory() {
     }
@@ -43,4 +49,12 @@ public class Inventory {
     public void setLocation(String location) {
         this.location = location;
     }
+
+    public List<String> getAppliedAdjustments() {
+        return appliedAdjustments;
+    }
+
+    public void setAppliedAdjustments(List<String> appliedAdjustments) {
+        this.appliedAdjustments = appliedAdjustments;
+    }
 }
\ No newline at end of file
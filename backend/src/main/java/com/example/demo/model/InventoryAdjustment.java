@@ -0,0 +1,30 @@
+package com.example.demo.model;
+
+public class InventoryAdjustment {
+    private String productId;
+    private int delta;
+
+    public InventoryAdjustment() {
+    }
+
+    public InventoryAdjustment(String productId, int delta) {
+        this.productId = productId;
+        this.delta = delta;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
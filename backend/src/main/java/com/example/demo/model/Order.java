@@ -1,26 +1,46 @@
 package com.example.demo.model;
 
+import com.example.demo.config.EmptyArraySerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 import java.util.List;
 
-@Document(collection = "orders")
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('orders')}")
+@CompoundIndex(name = "status_orderDate", def = "{'status': 1, 'orderDate': 1}")
 public class Order {
     public static final String STATUS_SUCCESS = "success";
     public static final String STATUS_PENDING = "pending";
     public static final String STATUS_DECLINED = "declined";
+    public static final String STATUS_DELIVERED = "delivered";
     
     @Id
     private String id;
+    @Indexed
     private Date orderDate;
     private String customerId;
     private String status;
     private String customerName;
     private String customerEmail;
     private String shippingAddress;
+    // Always present in responses, even though empty values are otherwise omitted
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    @JsonSerialize(nullsUsing = EmptyArraySerializer.class)
     private List<OrderItem> items;
     private String supplierId;
+    @Indexed(unique = true, sparse = true)
+    private String idempotencyKey;
+    // Read model maintained on every write, see OrderReadModelService
+    private Double total;
+    private Integer itemCount;
+    // Set when the order reaches a fulfilled status, for supplier lead times
+    private Date fulfilledAt;
+    // Incremented by every update, for compare-and-set writes; null until the order is first updated
+    private Long revision;
 
     public Order() {
         this.orderDate = new Date();
@@ -39,6 +59,10 @@ public class Order {
         return STATUS_DECLINED.equals(this.status);
     }
 
+    public static boolean isFulfilledStatus(String status) {
+        return STATUS_SUCCESS.equals(status) || STATUS_DELIVERED.equals(status);
+    }
+
     public Order(String id, String customerId, String status, Date orderDate, 
                 String customerName, String customerEmail, String shippingAddress) {
         this.id = id;
@@ -128,4 +152,44 @@ public class Order {
     public void setSupplierId(String supplierId) {
         this.supplierId = supplierId;
     }
-}
\ No newline at end of file
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public void setTotal(Double total) {
+        this.total = total;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Date getFulfilledAt() {
+        return fulfilledAt;
+    }
+
+    public void setFulfilledAt(Date fulfilledAt) {
+        this.fulfilledAt = fulfilledAt;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import java.util.Objects;
 
-@Document
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('orderItem')}")
 public class OrderItem {
     @Id
     private String id;
@@ -22,6 +22,13 @@ public class OrderItem {
     @Field("price")
     private Double price;
 
+    // Snapshot of the product at the time the order was written
+    @Field("product_name")
+    private String productName;
+
+    @Field("supplier_id")
+    private String supplierId;
+
     public OrderItem() {
     }
 
@@ -77,6 +84,22 @@ public class OrderItem {
         this.price = price;
     }
 
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(String supplierId) {
+        this.supplierId = supplierId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,78 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import java.util.Date;
+
+/**
+ * Lightweight order row for list views; item count and total are computed by the database.
+ */
+public class OrderSummary {
+
+    @Id
+    private String id;
+    private Date orderDate;
+    private String customerName;
+    private String status;
+    private int itemCount;
+    private double total;
+
+    public OrderSummary() {
+    }
+
+    public OrderSummary(String id, Date orderDate, String customerName, String status, int itemCount, double total) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.customerName = customerName;
+        this.status = status;
+        this.itemCount = itemCount;
+        this.total = total;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(Date orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.demo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-@Document(collection = "products")
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('products')}")
+// Catalog pages are sorted by name then id; the supplier index also serves supplierId lookups and counts
+@CompoundIndexes({
+    @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}"),
+    @CompoundIndex(name = "supplier_name_id", def = "{'supplierId': 1, 'name': 1, '_id': 1}")
+})
 public class Product {
 
     @Id
@@ -0,0 +1,67 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+
+/**
+ * Product row for list views, without the description.
+ */
+public class ProductSummary {
+
+    @Id
+    private String id;
+    private String name;
+    private double price;
+    private String supplierId;
+    private String imageUrl;
+
+    public ProductSummary() {
+    }
+
+    public ProductSummary(String id, String name, double price, String supplierId, String imageUrl) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.supplierId = supplierId;
+        this.imageUrl = imageUrl;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public String getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(String supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A refresh token, stored by the SHA-256 hash of its value so a database leak does not expose
+ * usable tokens. Each refresh replaces the token with a new one in the same family; presenting
+ * a token that was already replaced revokes the whole family.
+ */
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    private String hash;
+    private String email;
+    @Indexed
+    private String familyId;
+    // The user's token epoch at issue; revoking all sessions raises it
+    private long epoch;
+    private Date issuedAt;
+    private Date replacedAt;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public RefreshToken() {
+    }
+
+    public RefreshToken(String hash, String email, String familyId, long epoch, Date expiresAt) {
+        this.hash = hash;
+        this.email = email;
+        this.familyId = familyId;
+        this.epoch = epoch;
+        this.issuedAt = new Date();
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(long epoch) {
+        this.epoch = epoch;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(Date issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public Date getReplacedAt() {
+        return replacedAt;
+    }
+
+    public void setReplacedAt(Date replacedAt) {
+        this.replacedAt = replacedAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A revocation of one access token (by its jti) or of all access tokens of a user issued before
+ * an epoch. Entries are only needed until the tokens they cover have expired, after which the
+ * TTL index removes them.
+ */
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    public static final String TYPE_TOKEN = "token";
+    public static final String TYPE_USER = "user";
+
+    @Id
+    private String id;
+    private String type;
+    // The jti, or the user's email
+    private String subject;
+    // For user revocations: tokens with a lower epoch are rejected
+    private long minEpoch;
+    @Indexed(expireAfter = "0s")
+    private Date expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public static RevokedToken token(String jti, Date expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.id = TYPE_TOKEN + ":" + jti;
+        revoked.type = TYPE_TOKEN;
+        revoked.subject = jti;
+        revoked.expiresAt = expiresAt;
+        return revoked;
+    }
+
+    public static RevokedToken user(String email, long minEpoch, Date expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.id = TYPE_USER + ":" + email;
+        revoked.type = TYPE_USER;
+        revoked.subject = email;
+        revoked.minEpoch = minEpoch;
+        revoked.expiresAt = expiresAt;
+        return revoked;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public long getMinEpoch() {
+        return minEpoch;
+    }
+
+    public void setMinEpoch(long minEpoch) {
+        this.minEpoch = minEpoch;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Progress of ledger compaction. pendingCutoff is set while a compaction run is writing
+ * snapshots, so an interrupted run is finished with the same cutoff.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('stock_ledger_checkpoints')}")
+public class StockLedgerCheckpoint {
+    public static final String COMPACTION = "compaction";
+
+    @Id
+    private String id;
+    private Date watermark;
+    private Date pendingCutoff;
+
+    public StockLedgerCheckpoint() {
+    }
+
+    public StockLedgerCheckpoint(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Date getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(Date watermark) {
+        this.watermark = watermark;
+    }
+
+    public Date getPendingCutoff() {
+        return pendingCutoff;
+    }
+
+    public void setPendingCutoff(Date pendingCutoff) {
+        this.pendingCutoff = pendingCutoff;
+    }
+}
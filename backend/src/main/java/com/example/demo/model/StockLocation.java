@@ -0,0 +1,83 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Stock of one product in one warehouse bin, a physical breakdown of the product's stock.
+ * The product's Inventory quantity stays the authoritative available stock: location changes update
+ * it too, but checkout, inventory adjustments and imports change only Inventory, so the locations of
+ * a product need not add up to it.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('stock_locations')}")
+@CompoundIndex(name = "warehouse_bin", def = "{'warehouse': 1, 'bin': 1}")
+public class StockLocation {
+
+    @Id
+    private String id;
+    @Indexed
+    private String productId;
+    private String warehouse;
+    private String bin;
+    private int quantity;
+
+    public StockLocation() {
+    }
+
+    public StockLocation(String productId, String warehouse, String bin, int quantity) {
+        this.id = idFor(productId, warehouse, bin);
+        this.productId = productId;
+        this.warehouse = warehouse;
+        this.bin = bin;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Locations have a deterministic ID so they can be upserted without a unique-index race.
+     */
+    public static String idFor(String productId, String warehouse, String bin) {
+        return productId + "|" + warehouse + "|" + bin;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(String warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public String getBin() {
+        return bin;
+    }
+
+    public void setBin(String bin) {
+        this.bin = bin;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.model;
+
+import java.util.Date;
+
+/**
+ * One change to a product's stock, as recorded in the stock ledger.
+ */
+public class StockMovement {
+    public static final String REASON_OPENING_BALANCE = "opening_balance";
+    public static final String REASON_ORDER = "order";
+    public static final String REASON_ADJUSTMENT = "adjustment";
+    public static final String REASON_LOCATION_ADJUSTMENT = "location_adjustment";
+    public static final String REASON_TRANSFER = "transfer";
+    public static final String REASON_MANUAL = "manual";
+    public static final String REASON_IMPORT = "import";
+
+    private String productId;
+    private int delta;
+    private String reason;
+    private String orderId;
+    private String reference;
+    private String warehouse;
+    private String bin;
+    private String actor;
+    private Date timestamp;
+
+    public StockMovement() {
+    }
+
+    public StockMovement(String productId, int delta, String reason, String actor) {
+        this.productId = productId;
+        this.delta = delta;
+        this.reason = reason;
+        this.actor = actor;
+        this.timestamp = new Date();
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getWarehouse() {
+        return warehouse;
+    }
+
+    public void setWarehouse(String warehouse) {
+        this.warehouse = warehouse;
+    }
+
+    public String getBin() {
+        return bin;
+    }
+
+    public void setBin(String bin) {
+        this.bin = bin;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Up to CAPACITY consecutive movements of one product, with their time range and net delta
+ * pre-computed so range queries and balance rebuilds touch few documents.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('stock_movement_buckets')}")
+@CompoundIndexes({
+    @CompoundIndex(name = "product_start", def = "{'productId': 1, 'start': 1}"),
+    @CompoundIndex(name = "product_end", def = "{'productId': 1, 'end': 1}"),
+    @CompoundIndex(name = "movement_reference", def = "{'movements.reference': 1}", sparse = true)
+})
+public class StockMovementBucket {
+    public static final int CAPACITY = 500;
+
+    @Id
+    private String id;
+    private String productId;
+    private Date start;
+    @Indexed
+    private Date end;
+    private int count;
+    private int netDelta;
+    private List<StockMovement> movements = new ArrayList<>();
+
+    public StockMovementBucket() {
+    }
+
+    public StockMovementBucket(String productId) {
+        this.productId = productId;
+    }
+
+    /**
+     * Appends a movement and updates the bucket's summary fields.
+     */
+    public void add(StockMovement movement) {
+        movements.add(movement);
+        count++;
+        netDelta += movement.getDelta();
+        if (start == null || movement.getTimestamp().before(start)) {
+            start = movement.getTimestamp();
+        }
+        if (end == null || movement.getTimestamp().after(end)) {
+            end = movement.getTimestamp();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Date getStart() {
+        return start;
+    }
+
+    public void setStart(Date start) {
+        this.start = start;
+    }
+
+    public Date getEnd() {
+        return end;
+    }
+
+    public void setEnd(Date end) {
+        this.end = end;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public int getNetDelta() {
+        return netDelta;
+    }
+
+    public void setNetDelta(int netDelta) {
+        this.netDelta = netDelta;
+    }
+
+    public List<StockMovement> getMovements() {
+        return movements;
+    }
+
+    public void setMovements(List<StockMovement> movements) {
+        this.movements = movements;
+    }
+}
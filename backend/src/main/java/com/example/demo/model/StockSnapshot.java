@@ -0,0 +1,58 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Net stock of a product from all ledger movements up to and including asOf.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('stock_snapshots')}")
+public class StockSnapshot {
+
+    @Id
+    private String productId;
+    private int quantity;
+    private long movementCount;
+    private Date asOf;
+
+    public StockSnapshot() {
+    }
+
+    public StockSnapshot(String productId) {
+        this.productId = productId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getMovementCount() {
+        return movementCount;
+    }
+
+    public void setMovementCount(long movementCount) {
+        this.movementCount = movementCount;
+    }
+
+    public Date getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(Date asOf) {
+        this.asOf = asOf;
+    }
+}
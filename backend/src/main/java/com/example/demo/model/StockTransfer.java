@@ -0,0 +1,60 @@
+package com.example.demo.model;
+
+public class StockTransfer {
+    private String fromWarehouse;
+    private String fromBin;
+    private String toWarehouse;
+    private String toBin;
+    private int quantity;
+
+    public StockTransfer() {
+    }
+
+    public StockTransfer(String fromWarehouse, String fromBin, String toWarehouse, String toBin, int quantity) {
+        this.fromWarehouse = fromWarehouse;
+        this.fromBin = fromBin;
+        this.toWarehouse = toWarehouse;
+        this.toBin = toBin;
+        this.quantity = quantity;
+    }
+
+    public String getFromWarehouse() {
+        return fromWarehouse;
+    }
+
+    public void setFromWarehouse(String fromWarehouse) {
+        this.fromWarehouse = fromWarehouse;
+    }
+
+    public String getFromBin() {
+        return fromBin;
+    }
+
+    public void setFromBin(String fromBin) {
+        this.fromBin = fromBin;
+    }
+
+    public String getToWarehouse() {
+        return toWarehouse;
+    }
+
+    public void setToWarehouse(String toWarehouse) {
+        this.toWarehouse = toWarehouse;
+    }
+
+    public String getToBin() {
+        return toBin;
+    }
+
+    public void setToBin(String toBin) {
+        this.toBin = toBin;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -3,7 +3,7 @@ package com.example.demo.model;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-@Document(collection = "suppliers")
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('suppliers')}")
 public class Supplier {
     @Id
     private String id;
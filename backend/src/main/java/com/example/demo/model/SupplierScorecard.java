@@ -0,0 +1,133 @@
+package com.example.demo.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Running purchasing totals for a supplier, maintained incrementally as orders change.
+ * An order counts towards every supplier whose products it contains.
+ */
+@Document(collection = "#{T(com.example.demo.config.TenantContext).collection('supplier_scorecards')}")
+public class SupplierScorecard {
+
+    @Id
+    private String supplierId;
+    private long ordersPlaced;
+    private long unitsOrdered;
+    private long fulfilledOrders;
+    private long fulfilledUnits;
+    private long declinedOrders;
+    private long declinedUnits;
+    private double spend;
+    private long leadTimeTotalMs;
+
+    public SupplierScorecard() {
+    }
+
+    public SupplierScorecard(String supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    /**
+     * Adds (sign 1) or subtracts (sign -1) another scorecard's counters.
+     */
+    public void add(SupplierScorecard other, int sign) {
+        ordersPlaced += sign * other.ordersPlaced;
+        unitsOrdered += sign * other.unitsOrdered;
+        fulfilledOrders += sign * other.fulfilledOrders;
+        fulfilledUnits += sign * other.fulfilledUnits;
+        declinedOrders += sign * other.declinedOrders;
+        declinedUnits += sign * other.declinedUnits;
+        spend += sign * other.spend;
+        leadTimeTotalMs += sign * other.leadTimeTotalMs;
+    }
+
+    public boolean allZero() {
+        return ordersPlaced == 0 && unitsOrdered == 0 && fulfilledOrders == 0 && fulfilledUnits == 0
+            && declinedOrders == 0 && declinedUnits == 0 && spend == 0 && leadTimeTotalMs == 0;
+    }
+
+    /**
+     * Share of units in closed orders that were fulfilled rather than declined, or null if none are closed.
+     */
+    public Double getFillRate() {
+        long closed = fulfilledUnits + declinedUnits;
+        return closed == 0 ? null : (double) fulfilledUnits / closed;
+    }
+
+    public Double getAverageLeadTimeHours() {
+        return fulfilledOrders == 0 ? null : leadTimeTotalMs / (double) fulfilledOrders / 3_600_000d;
+    }
+
+    public String getSupplierId() {
+        return supplierId;
+    }
+
+    public void setSupplierId(String supplierId) {
+        this.supplierId = supplierId;
+    }
+
+    public long getOrdersPlaced() {
+        return ordersPlaced;
+    }
+
+    public void setOrdersPlaced(long ordersPlaced) {
+        this.ordersPlaced = ordersPlaced;
+    }
+
+    public long getUnitsOrdered() {
+        return unitsOrdered;
+    }
+
+    public void setUnitsOrdered(long unitsOrdered) {
+        this.unitsOrdered = unitsOrdered;
+    }
+
+    public long getFulfilledOrders() {
+        return fulfilledOrders;
+    }
+
+    public void setFulfilledOrders(long fulfilledOrders) {
+        this.fulfilledOrders = fulfilledOrders;
+    }
+
+    public long getFulfilledUnits() {
+        return fulfilledUnits;
+    }
+
+    public void setFulfilledUnits(long fulfilledUnits) {
+        this.fulfilledUnits = fulfilledUnits;
+    }
+
+    public long getDeclinedOrders() {
+        return declinedOrders;
+    }
+
+    public void setDeclinedOrders(long declinedOrders) {
+        this.declinedOrders = declinedOrders;
+    }
+
+    public long getDeclinedUnits() {
+        return declinedUnits;
+    }
+
+    public void setDeclinedUnits(long declinedUnits) {
+        this.declinedUnits = declinedUnits;
+    }
+
+    public double getSpend() {
+        return spend;
+    }
+
+    public void setSpend(double spend) {
+        this.spend = spend;
+    }
+
+    public long getLeadTimeTotalMs() {
+        return leadTimeTotalMs;
+    }
+
+    public void setLeadTimeTotalMs(long leadTimeTotalMs) {
+        this.leadTimeTotalMs = leadTimeTotalMs;
+    }
+}
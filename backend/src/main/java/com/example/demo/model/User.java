@@ -1,13 +1,13 @@
 package com.example.demo.model;
 
+import com.example.demo.config.Permissions;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
 
 @Document(collection = "users")
 public class User implements UserDetails {
@@ -17,6 +17,10 @@ public class User implements UserDetails {
     private String email;
     private String password;
     private String role;
+    // Store the account belongs to; null for accounts created before multi-tenancy (the default store)
+    private String tenantId;
+    // Raised to invalidate all of the user's tokens; see TokenService.revokeAll
+    private long tokenEpoch;
 
     public User() {
     }
@@ -66,10 +70,27 @@ public class User implements UserDetails {
         this.role = role;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public long getTokenEpoch() {
+        return tokenEpoch;
+    }
+
+    public void setTokenEpoch(long tokenEpoch) {
+        this.tokenEpoch = tokenEpoch;
+    }
+
     // UserDetails methods
     @Override
+    @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+        return Permissions.authoritiesFor(role);
     }
 
     public String getName() {
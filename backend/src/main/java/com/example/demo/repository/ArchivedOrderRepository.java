@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ArchivedOrder;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.stream.Stream;
+
+public interface ArchivedOrderRepository extends MongoRepository<ArchivedOrder, String>, ArchivedOrderRepositoryCustom {
+    Stream<ArchivedOrder> streamAllBy();
+}
@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Order;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+public interface ArchivedOrderRepositoryCustom {
+    /**
+     * Creates the archive collection with zstd block compression if it does not exist yet.
+     * Compression is fixed when a collection is created, so this must run before the first insert.
+     */
+    void createCollection();
+
+    /**
+     * Streams archived orders with from <= orderDate < to for exports, in no particular order.
+     * Any filter may be null. The archive has no secondary indexes, so this scans the collection.
+     */
+    Stream<Order> streamForExport(Date from, Date to, String status);
+}
@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.config.MongoWorkload;
+import com.example.demo.config.MongoWorkloadTemplates;
+import com.example.demo.model.ArchivedOrder;
+import com.example.demo.model.Order;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.CreateCollectionOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+public class ArchivedOrderRepositoryCustomImpl implements ArchivedOrderRepositoryCustom {
+
+    // Archived orders are written once and rarely read: trade CPU on reads for a smaller footprint
+    private static final int NAMESPACE_EXISTS = 48;
+    private static final Document STORAGE_ENGINE = new Document("wiredTiger",
+        new Document("configString", "block_compressor=zstd"));
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoWorkloadTemplates workloadTemplates;
+
+    public ArchivedOrderRepositoryCustomImpl(MongoTemplate mongoTemplate, MongoWorkloadTemplates workloadTemplates) {
+        this.mongoTemplate = mongoTemplate;
+        this.workloadTemplates = workloadTemplates;
+    }
+
+    @Override
+    public void createCollection() {
+        // The current tenant's archive
+        String collection = mongoTemplate.getCollectionName(ArchivedOrder.class);
+        if (mongoTemplate.collectionExists(collection)) {
+            return;
+        }
+        try {
+            mongoTemplate.getDb().createCollection(collection,
+                new CreateCollectionOptions().storageEngineOptions(STORAGE_ENGINE));
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != NAMESPACE_EXISTS) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public Stream<Order> streamForExport(Date from, Date to, String status) {
+        Query query = new Query(OrderRepositoryCustomImpl.exportCriteria("order.", from, to, status))
+            .cursorBatchSize(OrderRepositoryCustomImpl.EXPORT_BATCH_SIZE);
+        return workloadTemplates.forWorkload(MongoWorkload.ANALYTICS).stream(query, ArchivedOrder.class)
+            .map(ArchivedOrder::getOrder);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.CleanupJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface CleanupJobRepository extends MongoRepository<CleanupJob, String> {
+    List<CleanupJob> findByStatus(String status);
+}
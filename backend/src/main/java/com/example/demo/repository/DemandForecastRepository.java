@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DemandForecast;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface DemandForecastRepository extends MongoRepository<DemandForecast, String> {
+}
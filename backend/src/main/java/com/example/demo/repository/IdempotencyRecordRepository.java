@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotencyRecordRepository extends MongoRepository<IdempotencyRecord, String>,
+        IdempotencyRecordRepositoryCustom {
+}
@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.IdempotencyRecord;
+
+import java.util.Date;
+
+public interface IdempotencyRecordRepositoryCustom {
+    /**
+     * Replaces the record for the same key only if its reservedAt is still expectedReservedAt,
+     * so two requests taking over a stale record, or a request completing after it was taken over,
+     * cannot overwrite each other.
+     * @param expectedReservedAt reservedAt of the record being replaced; null matches records without one
+     * @return true if the record was replaced
+     */
+    boolean replaceIfReservedAt(IdempotencyRecord record, Date expectedReservedAt);
+
+    /**
+     * Deletes the record only if its reservedAt is still expectedReservedAt.
+     * @return true if the record was deleted
+     */
+    boolean deleteIfReservedAt(String key, Date expectedReservedAt);
+}
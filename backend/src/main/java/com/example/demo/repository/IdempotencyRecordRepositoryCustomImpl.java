@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.IdempotencyRecord;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+
+public class IdempotencyRecordRepositoryCustomImpl implements IdempotencyRecordRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public IdempotencyRecordRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean replaceIfReservedAt(IdempotencyRecord record, Date expectedReservedAt) {
+        return mongoTemplate.findAndReplace(reservedAt(record.getKey(), expectedReservedAt), record) != null;
+    }
+
+    @Override
+    public boolean deleteIfReservedAt(String key, Date expectedReservedAt) {
+        return mongoTemplate.remove(reservedAt(key, expectedReservedAt), IdempotencyRecord.class).getDeletedCount() > 0;
+    }
+
+    private static Query reservedAt(String key, Date expectedReservedAt) {
+        return Query.query(Criteria.where("_id").is(key).and("reservedAt").is(expectedReservedAt));
+    }
+}
@@ -4,8 +4,10 @@ import com.example.demo.model.Inventory;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface InventoryRepository extends MongoRepository<Inventory, String> {
+public interface InventoryRepository extends MongoRepository<Inventory, String>, InventoryRepositoryCustom {
     Optional<Inventory> findByProductId(String productId);
     void deleteByProductId(String productId);
+    Stream<Inventory> streamAllBy();
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Inventory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface InventoryRepositoryCustom {
+    /**
+     * Number of batch IDs each row keeps; a batch replayed after this many newer batches were applied
+     * to the same row would be applied again.
+     */
+    int APPLIED_ADJUSTMENTS_KEPT = 64;
+
+    /**
+     * Applies coalesced quantity deltas in one batch. Each row remembers the IDs of the last
+     * {@link #APPLIED_ADJUSTMENTS_KEPT} batches applied to it, so re-applying the same batch after a
+     * crash, from this or any other instance, is a no-op for the rows it already reached.
+     * Rows that do not exist yet are created with quantity 0 first.
+     * @param deltas quantity change per product ID
+     * @param batchId globally unique ID of the batch, the same on every attempt to apply it
+     */
+    void applyAdjustments(Map<String, Integer> deltas, String batchId);
+
+    /**
+     * Atomically sets a row's quantity and location.
+     * @param upsert whether to create the row if it does not exist
+     * @return the row as it was before the update, or empty if it did not exist
+     */
+    Optional<Inventory> setQuantity(String productId, int quantity, String location, boolean upsert);
+
+    /**
+     * Sets the quantity, and the location if given, of each row on the bulk-import workload, creating
+     * rows that do not exist yet. Each row is an atomic findAndModify, so the previous quantities are
+     * exactly the values that were replaced, at the cost of one round trip per row.
+     * @return the previous quantity per product; products that had no row are absent
+     */
+    Map<String, Integer> setQuantities(List<Inventory> rows);
+}
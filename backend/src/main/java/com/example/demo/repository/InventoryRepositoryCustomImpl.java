@@ -0,0 +1,90 @@
+package com.example.demo.repository;
+
+import com.example.demo.config.MongoWorkload;
+import com.example.demo.config.MongoWorkloadTemplates;
+import com.example.demo.model.Inventory;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoWorkloadTemplates workloadTemplates;
+
+    public InventoryRepositoryCustomImpl(MongoTemplate mongoTemplate, MongoWorkloadTemplates workloadTemplates) {
+        this.mongoTemplate = mongoTemplate;
+        this.workloadTemplates = workloadTemplates;
+    }
+
+    @Override
+    public void applyAdjustments(Map<String, Integer> deltas, String batchId) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // Create missing rows separately, so the conditional $inc below never has to upsert: an upsert
+        // whose filter fails on an existing row would turn into a duplicate-key insert
+        BulkOperations create = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        for (String productId : deltas.keySet()) {
+            create.upsert(Query.query(Criteria.where("_id").is(productId)), new Update().setOnInsert("quantity", 0));
+        }
+        try {
+            create.execute();
+        } catch (BulkOperationException e) {
+            // Created concurrently by another writer
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            Query notYetApplied = Query.query(Criteria.where("_id").is(entry.getKey())
+                .and("appliedAdjustments").ne(batchId));
+            bulk.updateOne(notYetApplied, new Update()
+                .inc("quantity", entry.getValue())
+                .push("appliedAdjustments").slice(-APPLIED_ADJUSTMENTS_KEPT).each(batchId));
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public Optional<Inventory> setQuantity(String productId, int quantity, String location, boolean upsert) {
+        Update update = new Update().set("quantity", quantity).set("location", location);
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(productId)), update,
+            FindAndModifyOptions.options().returnNew(false).upsert(upsert), Inventory.class));
+    }
+
+    @Override
+    public Map<String, Integer> setQuantities(List<Inventory> rows) {
+        MongoTemplate template = workloadTemplates.forWorkload(MongoWorkload.BULK_IMPORT);
+        FindAndModifyOptions previousRow = FindAndModifyOptions.options().returnNew(false).upsert(true);
+        Map<String, Integer> previous = new HashMap<>();
+        for (Inventory row : rows) {
+            Update update = new Update().set("quantity", row.getQuantity());
+            if (row.getLocation() != null) {
+                update.set("location", row.getLocation());
+            }
+            Inventory replaced = template.findAndModify(Query.query(Criteria.where("_id").is(row.getProductId())), update,
+                previousRow, Inventory.class);
+            if (replaced != null) {
+                previous.put(row.getProductId(), replaced.getQuantity());
+            }
+        }
+        return previous;
+    }
+}
@@ -1,10 +1,19 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface OrderRepository extends MongoRepository<Order, String> {
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
     long countByStatus(String status);
     List<Order> findByStatus(String status);
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+    Stream<Order> streamAllBy();
+    Stream<Order> streamByStatus(String status);
+    List<Order> findByStatusInAndOrderDateBefore(Collection<String> statuses, Date cutoff, Pageable pageable);
 }
\ No newline at end of file
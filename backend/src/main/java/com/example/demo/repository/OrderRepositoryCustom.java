@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DailyDemand;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderSummary;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderRepositoryCustom {
+    /**
+     * Lists order summaries, optionally filtered by status, newest first.
+     * @param status the status to filter on, or null for all orders
+     */
+    List<OrderSummary> findSummaries(String status);
+
+    /**
+     * Streams units ordered per product per day for orders with from <= orderDate < to,
+     * sorted by product then day. Declined orders are excluded. The caller must close the stream.
+     */
+    Stream<DailyDemand> streamDailyDemand(Date from, Date to);
+
+    /**
+     * Streams orders with from <= orderDate < to, oldest first, for exports.
+     * Any filter may be null. Reads from the analytics workload; the caller must close the stream.
+     */
+    Stream<Order> streamForExport(Date from, Date to, String status);
+
+    /**
+     * Replaces the order only if its revision is still expectedRevision, and increments the revision,
+     * so an update based on a stale read cannot overwrite a concurrent one.
+     * @param expectedRevision the revision that was read, null for an order that was never updated
+     * @return true if the order was replaced
+     */
+    boolean replaceIfRevision(Order order, Long expectedRevision);
+
+    /**
+     * Sets the status only if it is still expectedStatus, so concurrent transitions cannot both apply.
+     * Increments the revision.
+     * @param fulfilledAt the fulfillment time to store, or null to clear it
+     * @return true if the order was updated
+     */
+    boolean updateStatus(String id, String expectedStatus, String status, Date fulfilledAt);
+
+    /**
+     * Deletes the order only if its revision is still expectedRevision, i.e. it was not updated since it was read.
+     * @return true if the order was deleted
+     */
+    boolean deleteIfRevision(String id, Long expectedRevision);
+}
@@ -0,0 +1,142 @@
+package com.example.demo.repository;
+
+import com.example.demo.config.MongoWorkload;
+import com.example.demo.config.MongoWorkloadTemplates;
+import com.example.demo.model.DailyDemand;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderSummary;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // Uses the stored read model when present; orders not yet backfilled are computed server-side,
+    // so the embedded items never leave the database either way
+    private static final Document SUMMARY_PROJECTION = Document.parse("""
+        { $project: {
+            orderDate: 1, customerName: 1, status: 1,
+            itemCount: { $ifNull: ["$itemCount", { $size: { $ifNull: ["$items", []] } }] },
+            total: { $ifNull: ["$total", { $sum: { $map: {
+                input: { $ifNull: ["$items", []] },
+                as: "item",
+                in: { $multiply: [ { $ifNull: ["$$item.price", 0] }, { $ifNull: ["$$item.quantity", 0] } ] }
+            } } }] }
+        } }
+        """);
+
+    // Only the grouped (product, day) rows leave the database; the sort may spill to disk
+    private static final Document DAILY_DEMAND_GROUP = Document.parse("""
+        { $group: {
+            _id: { productId: "$items.product_id", day: { $dateTrunc: { date: "$orderDate", unit: "day" } } },
+            quantity: { $sum: { $ifNull: ["$items.quantity", 0] } }
+        } }
+        """);
+    private static final Document DAILY_DEMAND_PROJECTION = Document.parse("""
+        { $project: { _id: 0, productId: "$_id.productId", day: "$_id.day", quantity: 1 } }
+        """);
+
+    static final int EXPORT_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoWorkloadTemplates workloadTemplates;
+
+    public OrderRepositoryCustomImpl(MongoTemplate mongoTemplate, MongoWorkloadTemplates workloadTemplates) {
+        this.mongoTemplate = mongoTemplate;
+        this.workloadTemplates = workloadTemplates;
+    }
+
+    @Override
+    public List<OrderSummary> findSummaries(String status) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (status != null) {
+            stages.add(Aggregation.match(Criteria.where("status").is(status)));
+        }
+        stages.add(Aggregation.sort(Sort.Direction.DESC, "orderDate"));
+        stages.add(Aggregation.stage(SUMMARY_PROJECTION));
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Order.class, stages), OrderSummary.class)
+            .getMappedResults();
+    }
+
+    @Override
+    public Stream<DailyDemand> streamDailyDemand(Date from, Date to) {
+        List<AggregationOperation> stages = List.of(
+            Aggregation.match(Criteria.where("orderDate").gte(from).lt(to).and("status").ne(Order.STATUS_DECLINED)),
+            Aggregation.project("orderDate", "items"),
+            Aggregation.unwind("items"),
+            Aggregation.stage(DAILY_DEMAND_GROUP),
+            Aggregation.stage(DAILY_DEMAND_PROJECTION),
+            Aggregation.stage(new Document("$sort", new Document("productId", 1).append("day", 1))));
+        AggregationOptions options = AggregationOptions.builder()
+            .allowDiskUse(true)
+            .cursorBatchSize(1000)
+            .build();
+        return workloadTemplates.forWorkload(MongoWorkload.ANALYTICS)
+            .aggregateStream(Aggregation.newAggregation(stages).withOptions(options), Order.class, DailyDemand.class);
+    }
+
+    @Override
+    public Stream<Order> streamForExport(Date from, Date to, String status) {
+        Query query = new Query(exportCriteria("", from, to, status))
+            .with(Sort.by("orderDate"))
+            .cursorBatchSize(EXPORT_BATCH_SIZE);
+        return workloadTemplates.forWorkload(MongoWorkload.ANALYTICS).stream(query, Order.class);
+    }
+
+    /**
+     * Date range and status filter shared with the archive export.
+     * @param prefix path of the order within the document, empty for the orders collection
+     */
+    static Criteria exportCriteria(String prefix, Date from, Date to, String status) {
+        Criteria criteria = new Criteria();
+        if (from != null || to != null) {
+            criteria = Criteria.where(prefix + "orderDate");
+            if (from != null) {
+                criteria = criteria.gte(from);
+            }
+            if (to != null) {
+                criteria = criteria.lt(to);
+            }
+        }
+        if (status != null) {
+            criteria = criteria.and(prefix + "status").is(status);
+        }
+        return criteria;
+    }
+
+    @Override
+    public boolean replaceIfRevision(Order order, Long expectedRevision) {
+        Query unchanged = Query.query(Criteria.where("_id").is(order.getId()).and("revision").is(expectedRevision));
+        order.setRevision(expectedRevision == null ? 1 : expectedRevision + 1);
+        return mongoTemplate.findAndReplace(unchanged, order) != null;
+    }
+
+    @Override
+    public boolean updateStatus(String id, String expectedStatus, String status, Date fulfilledAt) {
+        Query unchanged = Query.query(Criteria.where("_id").is(id).and("status").is(expectedStatus));
+        Update update = new Update().set("status", status).inc("revision", 1);
+        if (fulfilledAt != null) {
+            update.set("fulfilledAt", fulfilledAt);
+        } else {
+            update.unset("fulfilledAt");
+        }
+        return mongoTemplate.updateFirst(unchanged, update, Order.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean deleteIfRevision(String id, Long expectedRevision) {
+        Query unchanged = Query.query(Criteria.where("_id").is(id).and("revision").is(expectedRevision));
+        return mongoTemplate.remove(unchanged, Order.class).getDeletedCount() > 0;
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface ProductRepository extends MongoRepository<Product, String> {}
\ No newline at end of file
+import java.util.List;
+
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+    long countBySupplierId(String supplierId);
+    List<Product> findBySupplierId(String supplierId, Pageable pageable);
+}
\ No newline at end of file
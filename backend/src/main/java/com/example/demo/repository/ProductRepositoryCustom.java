@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductSummary;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+    /**
+     * Lists all products using the catalog read preference, which may be served by a secondary.
+     */
+    List<Product> findAllForCatalog();
+
+    /**
+     * Lists products without their descriptions, fetching only the summary fields.
+     */
+    List<ProductSummary> findAllSummaries();
+
+    /**
+     * Returns one page of product summaries, optionally restricted to a supplier.
+     * @param supplierId the supplier to filter on, or null for all products
+     */
+    List<ProductSummary> findSummaries(String supplierId, Pageable pageable);
+
+    /**
+     * Inserts or updates products by ID in one unordered bulk write on the bulk-import workload.
+     * Name, description, price and supplier are replaced; an existing image is kept.
+     */
+    void upsertAll(List<Product> products);
+}
@@ -0,0 +1,64 @@
+package com.example.demo.repository;
+
+import com.example.demo.config.MongoWorkload;
+import com.example.demo.config.MongoWorkloadTemplates;
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final MongoWorkloadTemplates workloadTemplates;
+
+    public ProductRepositoryCustomImpl(MongoWorkloadTemplates workloadTemplates) {
+        this.workloadTemplates = workloadTemplates;
+    }
+
+    @Override
+    public List<Product> findAllForCatalog() {
+        return workloadTemplates.forWorkload(MongoWorkload.CATALOG).findAll(Product.class);
+    }
+
+    @Override
+    public List<ProductSummary> findAllSummaries() {
+        // The DTO type drives the field projection, so descriptions are never read off disk or sent
+        return workloadTemplates.forWorkload(MongoWorkload.CATALOG)
+            .query(Product.class)
+            .as(ProductSummary.class)
+            .all();
+    }
+
+    @Override
+    public List<ProductSummary> findSummaries(String supplierId, Pageable pageable) {
+        Query query = supplierId != null ? Query.query(Criteria.where("supplierId").is(supplierId)) : new Query();
+        return workloadTemplates.forWorkload(MongoWorkload.CATALOG)
+            .query(Product.class)
+            .as(ProductSummary.class)
+            .matching(query.with(pageable))
+            .all();
+    }
+
+    @Override
+    public void upsertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = workloadTemplates.forWorkload(MongoWorkload.BULK_IMPORT)
+            .bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Product product : products) {
+            Update update = new Update()
+                .set("name", product.getName())
+                .set("description", product.getDescription())
+                .set("price", product.getPrice())
+                .set("supplierId", product.getSupplierId());
+            bulk.upsert(Query.query(Criteria.where("_id").is(product.getId())), update);
+        }
+        bulk.execute();
+    }
+}
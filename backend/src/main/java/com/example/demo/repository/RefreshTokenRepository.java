@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String>, RefreshTokenRepositoryCustom {
+    long deleteByFamilyId(String familyId);
+    long deleteByEmail(String email);
+}
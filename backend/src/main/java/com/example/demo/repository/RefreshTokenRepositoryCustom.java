@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+
+import java.util.Date;
+import java.util.Optional;
+
+public interface RefreshTokenRepositoryCustom {
+    /**
+     * Atomically marks a token as replaced if it has not been used yet.
+     * @return the token as it was before, or empty if it does not exist; a present token with
+     *         replacedAt set means it had already been used
+     */
+    Optional<RefreshToken> markReplaced(String hash, Date replacedAt);
+}
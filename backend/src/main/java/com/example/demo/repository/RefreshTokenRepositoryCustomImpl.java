@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.Optional;
+
+public class RefreshTokenRepositoryCustomImpl implements RefreshTokenRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RefreshTokenRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<RefreshToken> markReplaced(String hash, Date replacedAt) {
+        Query unused = Query.query(Criteria.where("_id").is(hash).and("replacedAt").is(null));
+        RefreshToken previous = mongoTemplate.findAndModify(unused, new Update().set("replacedAt", replacedAt),
+            RefreshToken.class);
+        if (previous != null) {
+            return Optional.of(previous);
+        }
+        // Either unknown or already replaced: the caller tells them apart
+        return Optional.ofNullable(mongoTemplate.findById(hash, RefreshToken.class));
+    }
+}
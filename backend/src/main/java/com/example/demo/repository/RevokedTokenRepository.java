@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Date;
+import java.util.List;
+
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(Date now);
+}
@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockLedgerCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface StockLedgerCheckpointRepository extends MongoRepository<StockLedgerCheckpoint, String> {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockMovementBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface StockLedgerRepository extends MongoRepository<StockMovementBucket, String>, StockLedgerRepositoryCustom {
+}
@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockMovement;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface StockLedgerRepositoryCustom {
+
+    /**
+     * Appends movements to the open bucket of each product, starting a new bucket when it is full.
+     */
+    void append(List<StockMovement> movements);
+
+    /**
+     * The given products that already have a movement with this reference.
+     */
+    Set<String> findProductsWithReference(String reference, Collection<String> productIds);
+
+    /**
+     * Movements of a product with from <= timestamp <= to, oldest first.
+     */
+    List<StockMovement> findMovements(String productId, Date from, Date to);
+
+    /**
+     * Net delta of a product's movements after the given time (all movements if after is null).
+     */
+    int sumMovements(String productId, Date after);
+
+    /**
+     * Net delta and movement count per product for movements with after < timestamp <= upTo.
+     * The value arrays are {netDelta, count}.
+     */
+    Map<String, long[]> sumMovementsByProduct(Date after, Date upTo);
+}
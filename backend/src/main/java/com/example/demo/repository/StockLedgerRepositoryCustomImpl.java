@@ -0,0 +1,157 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockMovement;
+import com.example.demo.model.StockMovementBucket;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bucketed stock ledger. Can also be constructed around a session-bound template so that
+ * movements are appended in the same transaction as the stock change they record.
+ */
+public class StockLedgerRepositoryCustomImpl implements StockLedgerRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public StockLedgerRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void append(List<StockMovement> movements) {
+        Map<String, List<StockMovement>> byProduct = new LinkedHashMap<>();
+        for (StockMovement movement : movements) {
+            byProduct.computeIfAbsent(movement.getProductId(), key -> new ArrayList<>()).add(movement);
+        }
+        for (Map.Entry<String, List<StockMovement>> entry : byProduct.entrySet()) {
+            List<StockMovement> productMovements = entry.getValue();
+            int netDelta = 0;
+            Date start = productMovements.get(0).getTimestamp();
+            Date end = start;
+            for (StockMovement movement : productMovements) {
+                netDelta += movement.getDelta();
+                start = movement.getTimestamp().before(start) ? movement.getTimestamp() : start;
+                end = movement.getTimestamp().after(end) ? movement.getTimestamp() : end;
+            }
+            // Matches a bucket with room left, or inserts a new one; a batch may overfill a bucket slightly
+            Query openBucket = Query.query(Criteria.where("productId").is(entry.getKey())
+                .and("count").lt(StockMovementBucket.CAPACITY));
+            Update update = new Update()
+                .inc("count", productMovements.size())
+                .inc("netDelta", netDelta)
+                .min("start", start)
+                .max("end", end);
+            update.push("movements").each(productMovements.toArray());
+            mongoTemplate.upsert(openBucket, update, StockMovementBucket.class);
+        }
+    }
+
+    @Override
+    public Set<String> findProductsWithReference(String reference, Collection<String> productIds) {
+        Query query = Query.query(Criteria.where("movements.reference").is(reference).and("productId").in(productIds));
+        return new HashSet<>(mongoTemplate.findDistinct(query, "productId", StockMovementBucket.class, String.class));
+    }
+
+    @Override
+    public List<StockMovement> findMovements(String productId, Date from, Date to) {
+        Criteria criteria = Criteria.where("productId").is(productId);
+        if (to != null) {
+            criteria.and("start").lte(to);
+        }
+        if (from != null) {
+            criteria.and("end").gte(from);
+        }
+        Query query = Query.query(criteria).with(Sort.by("start"));
+        List<StockMovement> result = new ArrayList<>();
+        for (StockMovementBucket bucket : mongoTemplate.find(query, StockMovementBucket.class)) {
+            for (StockMovement movement : bucket.getMovements()) {
+                if ((from == null || !movement.getTimestamp().before(from))
+                        && (to == null || !movement.getTimestamp().after(to))) {
+                    result.add(movement);
+                }
+            }
+        }
+        result.sort(Comparator.comparing(StockMovement::getTimestamp));
+        return result;
+    }
+
+    @Override
+    public int sumMovements(String productId, Date after) {
+        Map<String, long[]> sums = sum(productId, after, null);
+        long[] sum = sums.get(productId);
+        return sum == null ? 0 : (int) sum[0];
+    }
+
+    @Override
+    public Map<String, long[]> sumMovementsByProduct(Date after, Date upTo) {
+        return sum(null, after, upTo);
+    }
+
+    private Map<String, long[]> sum(String productId, Date after, Date upTo) {
+        Criteria match = productId == null ? new Criteria() : Criteria.where("productId").is(productId);
+        if (after != null) {
+            match.and("end").gt(after);
+        }
+        if (upTo != null) {
+            match.and("start").lte(upTo);
+        }
+        List<AggregationOperation> stages = List.of(
+            Aggregation.match(match),
+            Aggregation.stage(windowProjection(after, upTo)),
+            Aggregation.stage(new Document("$group", new Document("_id", "$productId")
+                .append("delta", new Document("$sum", "$delta"))
+                .append("count", new Document("$sum", "$count")))));
+        Map<String, long[]> result = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(Aggregation.newAggregation(StockMovementBucket.class, stages),
+                Document.class).getMappedResults()) {
+            result.put(row.getString("_id"), new long[] {
+                ((Number) row.get("delta")).longValue(), ((Number) row.get("count")).longValue() });
+        }
+        return result;
+    }
+
+    /**
+     * Buckets entirely inside (after, upTo] contribute their stored totals; only buckets that
+     * straddle a boundary have their movements filtered.
+     */
+    private static Document windowProjection(Date after, Date upTo) {
+        List<Object> bucketInside = new ArrayList<>();
+        List<Object> movementInside = new ArrayList<>();
+        if (after != null) {
+            bucketInside.add(new Document("$gt", List.of("$start", after)));
+            movementInside.add(new Document("$gt", List.of("$$m.timestamp", after)));
+        }
+        if (upTo != null) {
+            bucketInside.add(new Document("$lte", List.of("$end", upTo)));
+            movementInside.add(new Document("$lte", List.of("$$m.timestamp", upTo)));
+        }
+        Object inside = bucketInside.isEmpty() ? Boolean.TRUE : new Document("$and", bucketInside);
+        Object keep = movementInside.isEmpty() ? Boolean.TRUE : new Document("$and", movementInside);
+        Document filtered = new Document("$filter", new Document("input", "$movements")
+            .append("as", "m")
+            .append("cond", keep));
+        Document filteredDelta = new Document("$sum", new Document("$map", new Document("input", filtered)
+            .append("as", "m")
+            .append("in", "$$m.delta")));
+        return new Document("$project", new Document("productId", 1)
+            .append("delta", new Document("$cond", List.of(inside, "$netDelta", filteredDelta)))
+            .append("count", new Document("$cond", List.of(inside, "$count", new Document("$size", filtered)))));
+    }
+}
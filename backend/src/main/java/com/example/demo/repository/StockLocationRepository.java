@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockLocation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface StockLocationRepository extends MongoRepository<StockLocation, String> {
+    List<StockLocation> findByProductId(String productId);
+    List<StockLocation> findByWarehouse(String warehouse);
+    long deleteByProductId(String productId);
+}
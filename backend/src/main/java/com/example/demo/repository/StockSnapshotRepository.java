@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StockSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface StockSnapshotRepository extends MongoRepository<StockSnapshot, String> {
+}
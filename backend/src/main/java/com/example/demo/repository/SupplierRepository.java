@@ -5,5 +5,5 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface SupplierRepository extends MongoRepository<Supplier, String> {
+public interface SupplierRepository extends MongoRepository<Supplier, String>, SupplierRepositoryCustom {
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Supplier;
+
+import java.util.List;
+
+public interface SupplierRepositoryCustom {
+    /**
+     * Lists all suppliers using the catalog read preference, which may be served by a secondary.
+     */
+    List<Supplier> findAllForCatalog();
+}
@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import com.example.demo.config.MongoWorkload;
+import com.example.demo.config.MongoWorkloadTemplates;
+import com.example.demo.model.Supplier;
+
+import java.util.List;
+
+public class SupplierRepositoryCustomImpl implements SupplierRepositoryCustom {
+
+    private final MongoWorkloadTemplates workloadTemplates;
+
+    public SupplierRepositoryCustomImpl(MongoWorkloadTemplates workloadTemplates) {
+        this.workloadTemplates = workloadTemplates;
+    }
+
+    @Override
+    public List<Supplier> findAllForCatalog() {
+        return workloadTemplates.forWorkload(MongoWorkload.CATALOG).findAll(Supplier.class);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SupplierScorecard;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface SupplierScorecardRepository extends MongoRepository<SupplierScorecard, String>,
+        SupplierScorecardRepositoryCustom {
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SupplierScorecard;
+
+public interface SupplierScorecardRepositoryCustom {
+    /**
+     * Atomically adds the counters of delta to the supplier's scorecard, creating it if needed.
+     */
+    void increment(SupplierScorecard delta);
+}
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SupplierScorecard;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class SupplierScorecardRepositoryCustomImpl implements SupplierScorecardRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public SupplierScorecardRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void increment(SupplierScorecard delta) {
+        Update update = new Update()
+            .inc("ordersPlaced", delta.getOrdersPlaced())
+            .inc("unitsOrdered", delta.getUnitsOrdered())
+            .inc("fulfilledOrders", delta.getFulfilledOrders())
+            .inc("fulfilledUnits", delta.getFulfilledUnits())
+            .inc("declinedOrders", delta.getDeclinedOrders())
+            .inc("declinedUnits", delta.getDeclinedUnits())
+            .inc("spend", delta.getSpend())
+            .inc("leadTimeTotalMs", delta.getLeadTimeTotalMs());
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(delta.getSupplierId())), update, SupplierScorecard.class);
+    }
+}
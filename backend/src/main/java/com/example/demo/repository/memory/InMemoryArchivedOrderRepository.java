@@ -0,0 +1,32 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.ArchivedOrder;
+import com.example.demo.model.Order;
+import com.example.demo.repository.ArchivedOrderRepository;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+public class InMemoryArchivedOrderRepository extends InMemoryRepository<ArchivedOrder> implements ArchivedOrderRepository {
+
+    public InMemoryArchivedOrderRepository() {
+        super(ArchivedOrder.class, ArchivedOrder::getId, ArchivedOrder::setId);
+    }
+
+    @Override
+    public Stream<ArchivedOrder> streamAllBy() {
+        return findAll().stream();
+    }
+
+    @Override
+    public Stream<Order> streamForExport(Date from, Date to, String status) {
+        return findAll().stream()
+            .map(ArchivedOrder::getOrder)
+            .filter(order -> InMemoryOrderRepository.matchesExport(order, from, to, status));
+    }
+
+    @Override
+    public void createCollection() {
+        // Nothing to create
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.CleanupJob;
+import com.example.demo.repository.CleanupJobRepository;
+
+import java.util.List;
+
+public class InMemoryCleanupJobRepository extends InMemoryRepository<CleanupJob> implements CleanupJobRepository {
+
+    public InMemoryCleanupJobRepository() {
+        super(CleanupJob.class, CleanupJob::getId, CleanupJob::setId);
+        index("status", CleanupJob::getStatus, false);
+    }
+
+    @Override
+    public List<CleanupJob> findByStatus(String status) {
+        return findByIndex("status", status);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.DemandForecast;
+import com.example.demo.repository.DemandForecastRepository;
+
+public class InMemoryDemandForecastRepository extends InMemoryRepository<DemandForecast> implements DemandForecastRepository {
+
+    public InMemoryDemandForecastRepository() {
+        super(DemandForecast.class, DemandForecast::getProductId, DemandForecast::setProductId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
+
+public class InMemoryIdempotencyRecordRepository extends InMemoryRepository<IdempotencyRecord>
+        implements IdempotencyRecordRepository {
+
+    public InMemoryIdempotencyRecordRepository() {
+        super(IdempotencyRecord.class, IdempotencyRecord::getKey, IdempotencyRecord::setKey);
+    }
+
+    @Override
+    public synchronized boolean replaceIfReservedAt(IdempotencyRecord record, Date expectedReservedAt) {
+        if (!isReservedAt(record.getKey(), expectedReservedAt)) {
+            return false;
+        }
+        save(record);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteIfReservedAt(String key, Date expectedReservedAt) {
+        if (!isReservedAt(key, expectedReservedAt)) {
+            return false;
+        }
+        deleteById(key);
+        return true;
+    }
+
+    private boolean isReservedAt(String key, Date expectedReservedAt) {
+        Optional<IdempotencyRecord> existing = findById(key);
+        return existing.isPresent() && Objects.equals(existing.get().getReservedAt(), expectedReservedAt);
+    }
+}
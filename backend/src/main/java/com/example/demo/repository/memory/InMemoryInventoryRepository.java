@@ -0,0 +1,81 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.Inventory;
+import com.example.demo.repository.InventoryRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class InMemoryInventoryRepository extends InMemoryRepository<Inventory> implements InventoryRepository {
+
+    public InMemoryInventoryRepository() {
+        super(Inventory.class, Inventory::getProductId, Inventory::setProductId);
+    }
+
+    @Override
+    public Optional<Inventory> findByProductId(String productId) {
+        return findById(productId);
+    }
+
+    @Override
+    public void deleteByProductId(String productId) {
+        deleteById(productId);
+    }
+
+    @Override
+    public Stream<Inventory> streamAllBy() {
+        return findAll().stream();
+    }
+
+    @Override
+    public synchronized Optional<Inventory> setQuantity(String productId, int quantity, String location, boolean upsert) {
+        Optional<Inventory> previous = findById(productId);
+        if (previous.isEmpty() && !upsert) {
+            return previous;
+        }
+        Inventory inventory = findById(productId).orElseGet(() -> new Inventory(productId, 0, null));
+        inventory.setQuantity(quantity);
+        inventory.setLocation(location);
+        save(inventory);
+        return previous;
+    }
+
+    @Override
+    public synchronized Map<String, Integer> setQuantities(List<Inventory> rows) {
+        Map<String, Integer> previous = new HashMap<>();
+        for (Inventory row : rows) {
+            Optional<Inventory> existing = findById(row.getProductId());
+            existing.ifPresent(inventory -> previous.put(row.getProductId(), inventory.getQuantity()));
+            Inventory inventory = existing.orElseGet(() -> new Inventory(row.getProductId(), 0, null));
+            inventory.setQuantity(row.getQuantity());
+            if (row.getLocation() != null) {
+                inventory.setLocation(row.getLocation());
+            }
+            save(inventory);
+        }
+        return previous;
+    }
+
+    @Override
+    public synchronized void applyAdjustments(Map<String, Integer> deltas, String batchId) {
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            Inventory inventory = findById(entry.getKey()).orElseGet(() -> new Inventory(entry.getKey(), 0, null));
+            List<String> applied = inventory.getAppliedAdjustments() == null
+                ? new ArrayList<>() : new ArrayList<>(inventory.getAppliedAdjustments());
+            if (applied.contains(batchId)) {
+                continue;
+            }
+            applied.add(batchId);
+            if (applied.size() > APPLIED_ADJUSTMENTS_KEPT) {
+                applied = new ArrayList<>(applied.subList(applied.size() - APPLIED_ADJUSTMENTS_KEPT, applied.size()));
+            }
+            inventory.setQuantity(inventory.getQuantity() + entry.getValue());
+            inventory.setAppliedAdjustments(applied);
+            save(inventory);
+        }
+    }
+}
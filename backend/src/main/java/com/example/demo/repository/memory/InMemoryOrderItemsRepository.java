@@ -0,0 +1,30 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.OrderItem;
+import com.example.demo.repository.OrderItemsRepository;
+
+import java.util.List;
+
+public class InMemoryOrderItemsRepository extends InMemoryRepository<OrderItem> implements OrderItemsRepository {
+
+    public InMemoryOrderItemsRepository() {
+        super(OrderItem.class, OrderItem::getId, OrderItem::setId);
+        index("orderId", OrderItem::getOrderId, false);
+    }
+
+    @Override
+    public List<OrderItem> findByOrderId(String orderId) {
+        return findByIndex("orderId", orderId);
+    }
+
+    @Override
+    public List<OrderItem> findItemsById(String orderId) {
+        // Same semantics as the derived Mongo query: matches on the item's own id
+        return findById(orderId).map(List::of).orElse(List.of());
+    }
+
+    @Override
+    public void deleteByOrderId(String orderId) {
+        deleteByIndex("orderId", orderId);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.DailyDemand;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.OrderSummary;
+import com.example.demo.repository.OrderRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class InMemoryOrderRepository extends InMemoryRepository<Order> implements OrderRepository {
+
+    public InMemoryOrderRepository() {
+        super(Order.class, Order::getId, Order::setId);
+        index("status", Order::getStatus, false);
+        index("idempotencyKey", Order::getIdempotencyKey, true);
+    }
+
+    @Override
+    public long countByStatus(String status) {
+        return countByIndex("status", status);
+    }
+
+    @Override
+    public List<Order> findByStatus(String status) {
+        return findByIndex("status", status);
+    }
+
+    @Override
+    public Optional<Order> findByIdempotencyKey(String idempotencyKey) {
+        return findByIndex("idempotencyKey", idempotencyKey).stream().findFirst();
+    }
+
+    @Override
+    public Stream<Order> streamAllBy() {
+        return findAll().stream();
+    }
+
+    @Override
+    public Stream<Order> streamByStatus(String status) {
+        return findByStatus(status).stream();
+    }
+
+    @Override
+    public List<Order> findByStatusInAndOrderDateBefore(Collection<String> statuses, Date cutoff, Pageable pageable) {
+        List<Order> matching = new ArrayList<>();
+        for (String status : statuses) {
+            for (Order order : findByStatus(status)) {
+                if (order.getOrderDate() != null && order.getOrderDate().before(cutoff)) {
+                    matching.add(order);
+                }
+            }
+        }
+        return sort(matching, pageable.getSort()).stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .toList();
+    }
+
+    @Override
+    public synchronized boolean deleteIfRevision(String id, Long expectedRevision) {
+        Optional<Order> existing = findById(id);
+        if (existing.isEmpty() || !Objects.equals(existing.get().getRevision(), expectedRevision)) {
+            return false;
+        }
+        deleteById(id);
+        return true;
+    }
+
+    @Override
+    public Stream<Order> streamForExport(Date from, Date to, String status) {
+        return findAll().stream()
+            .filter(order -> InMemoryOrderRepository.matchesExport(order, from, to, status))
+            .sorted(Comparator.comparing(Order::getOrderDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
+
+    static boolean matchesExport(Order order, Date from, Date to, String status) {
+        Date orderDate = order.getOrderDate();
+        if ((from != null || to != null) && orderDate == null) {
+            return false;
+        }
+        return (from == null || !orderDate.before(from)) && (to == null || orderDate.before(to))
+            && (status == null || status.equals(order.getStatus()));
+    }
+
+    @Override
+    public synchronized boolean replaceIfRevision(Order order, Long expectedRevision) {
+        Optional<Order> existing = findById(order.getId());
+        if (existing.isEmpty() || !Objects.equals(existing.get().getRevision(), expectedRevision)) {
+            return false;
+        }
+        order.setRevision(expectedRevision == null ? 1 : expectedRevision + 1);
+        save(order);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean updateStatus(String id, String expectedStatus, String status, Date fulfilledAt) {
+        Optional<Order> existing = findById(id);
+        if (existing.isEmpty() || !Objects.equals(existing.get().getStatus(), expectedStatus)) {
+            return false;
+        }
+        Order order = existing.get();
+        order.setStatus(status);
+        order.setFulfilledAt(fulfilledAt);
+        order.setRevision(order.getRevision() == null ? 1 : order.getRevision() + 1);
+        save(order);
+        return true;
+    }
+
+    @Override
+    public List<OrderSummary> findSummaries(String status) {
+        List<Order> orders = status == null ? findAll() : findByStatus(status);
+        return orders.stream()
+            .sorted(Comparator.comparing(Order::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder())))
+            .map(InMemoryOrderRepository::summarize)
+            .toList();
+    }
+
+    @Override
+    public Stream<DailyDemand> streamDailyDemand(Date from, Date to) {
+        long dayMillis = TimeUnit.DAYS.toMillis(1);
+        Map<String, Map<Long, Long>> demand = new TreeMap<>();
+        for (Order order : findAll()) {
+            Date orderDate = order.getOrderDate();
+            if (orderDate == null || orderDate.before(from) || !orderDate.before(to)
+                    || Order.STATUS_DECLINED.equals(order.getStatus()) || order.getItems() == null) {
+                continue;
+            }
+            long day = Math.floorDiv(orderDate.getTime(), dayMillis) * dayMillis;
+            for (OrderItem item : order.getItems()) {
+                if (item.getProductId() != null && item.getQuantity() != null) {
+                    demand.computeIfAbsent(item.getProductId(), key -> new TreeMap<>())
+                        .merge(day, (long) item.getQuantity(), Long::sum);
+                }
+            }
+        }
+        return demand.entrySet().stream()
+            .flatMap(product -> product.getValue().entrySet().stream()
+                .map(day -> new DailyDemand(product.getKey(), new Date(day.getKey()), day.getValue())));
+    }
+
+    private static OrderSummary summarize(Order order) {
+        if (order.getTotal() != null && order.getItemCount() != null) {
+            return new OrderSummary(order.getId(), order.getOrderDate(), order.getCustomerName(), order.getStatus(),
+                order.getItemCount(), order.getTotal());
+        }
+        List<OrderItem> items = order.getItems() == null ? List.of() : order.getItems();
+        double total = 0;
+        for (OrderItem item : items) {
+            if (item.getPrice() != null && item.getQuantity() != null) {
+                total += item.getPrice() * item.getQuantity();
+            }
+        }
+        return new OrderSummary(order.getId(), order.getOrderDate(), order.getCustomerName(), order.getStatus(),
+            items.size(), total);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.ProductSummary;
+import com.example.demo.repository.ProductRepository;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public class InMemoryProductRepository extends InMemoryRepository<Product> implements ProductRepository {
+
+    public InMemoryProductRepository() {
+        super(Product.class, Product::getId, Product::setId);
+        index("supplierId", Product::getSupplierId, false);
+    }
+
+    @Override
+    public synchronized void upsertAll(List<Product> products) {
+        for (Product product : products) {
+            product.setImageUrl(findById(product.getId()).map(Product::getImageUrl).orElse(null));
+            save(product);
+        }
+    }
+
+    @Override
+    public long countBySupplierId(String supplierId) {
+        return countByIndex("supplierId", supplierId);
+    }
+
+    @Override
+    public List<Product> findBySupplierId(String supplierId, Pageable pageable) {
+        return sort(findByIndex("supplierId", supplierId), pageable.getSort()).stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .toList();
+    }
+
+    @Override
+    public List<Product> findAllForCatalog() {
+        return findAll();
+    }
+
+    @Override
+    public List<ProductSummary> findAllSummaries() {
+        return findAll().stream()
+            .map(product -> new ProductSummary(product.getId(), product.getName(), product.getPrice(),
+                product.getSupplierId(), product.getImageUrl()))
+            .toList();
+    }
+
+    @Override
+    public List<ProductSummary> findSummaries(String supplierId, Pageable pageable) {
+        List<Product> products = supplierId != null ? findByIndex("supplierId", supplierId) : findAll();
+        return sort(products, pageable.getSort()).stream()
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .map(product -> new ProductSummary(product.getId(), product.getName(), product.getPrice(),
+                product.getSupplierId(), product.getImageUrl()))
+            .toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.RefreshToken;
+import com.example.demo.repository.RefreshTokenRepository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public class InMemoryRefreshTokenRepository extends InMemoryRepository<RefreshToken> implements RefreshTokenRepository {
+
+    public InMemoryRefreshTokenRepository() {
+        super(RefreshToken.class, RefreshToken::getHash, RefreshToken::setHash, false);
+        index("familyId", RefreshToken::getFamilyId, false);
+        index("email", RefreshToken::getEmail, false);
+    }
+
+    @Override
+    public synchronized long deleteByFamilyId(String familyId) {
+        long count = countByIndex("familyId", familyId);
+        deleteByIndex("familyId", familyId);
+        return count;
+    }
+
+    @Override
+    public synchronized long deleteByEmail(String email) {
+        long count = countByIndex("email", email);
+        deleteByIndex("email", email);
+        return count;
+    }
+
+    @Override
+    public synchronized Optional<RefreshToken> markReplaced(String hash, Date replacedAt) {
+        Optional<RefreshToken> existing = findById(hash);
+        if (existing.isPresent() && existing.get().getReplacedAt() == null) {
+            // findById returns a copy, so the token handed back keeps its previous state
+            RefreshToken updated = findById(hash).orElseThrow();
+            updated.setReplacedAt(replacedAt);
+            save(updated);
+        }
+        return existing;
+    }
+}
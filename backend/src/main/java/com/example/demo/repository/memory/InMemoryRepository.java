@@ -0,0 +1,603 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.config.TenantContext;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * MongoRepository implementation backed by a ConcurrentHashMap, with optional secondary indexes
+ * on fields used by derived queries. Entities are copied on the way in and out so callers see the
+ * same detached-document semantics as with Mongo. Tenant-scoped repositories keep a separate
+ * partition per tenant, like the per-tenant Mongo collections. Query by example matches the probe's
+ * fields, nested ones by their dotted path, against the documents as they would be stored.
+ */
+public abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    // Copies and snapshots map fields like the Mongo mapping does; Jackson annotations and
+    // getters only shape API responses
+    static final ObjectMapper MAPPER = JsonMapper.builder()
+        .disable(MapperFeature.USE_ANNOTATIONS)
+        .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+        .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .build();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final Class<T> type;
+    private final Function<T, String> idGetter;
+    private final BiConsumer<T, String> idSetter;
+    private final boolean tenantScoped;
+    private final Map<String, SecondaryIndex<T>> indexDefinitions = new LinkedHashMap<>();
+    private final Map<String, Partition<T>> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Documents and indexes of one tenant.
+     */
+    private static final class Partition<T> {
+        final Map<String, T> documents = new ConcurrentHashMap<>();
+        final Map<String, SecondaryIndex<T>> indexes = new LinkedHashMap<>();
+    }
+
+    protected InMemoryRepository(Class<T> type, Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+        this(type, idGetter, idSetter, true);
+    }
+
+    /**
+     * @param tenantScoped whether every tenant has its own documents (see TenantContext), as
+     *                     opposed to account data shared by all stores
+     */
+    protected InMemoryRepository(Class<T> type, Function<T, String> idGetter, BiConsumer<T, String> idSetter,
+                                 boolean tenantScoped) {
+        this.type = type;
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+        this.tenantScoped = tenantScoped;
+    }
+
+    /**
+     * Declares a secondary index; must be called from the subclass constructor.
+     */
+    protected void index(String field, Function<T, Object> extractor, boolean unique) {
+        indexDefinitions.put(field, new SecondaryIndex<>(field, extractor, unique));
+    }
+
+    protected List<T> findByIndex(String field, Object value) {
+        Partition<T> partition = partition();
+        List<T> result = new ArrayList<>();
+        for (String id : indexFor(partition, field).lookup(value)) {
+            T document = partition.documents.get(id);
+            if (document != null) {
+                result.add(copy(document));
+            }
+        }
+        return result;
+    }
+
+    protected long countByIndex(String field, Object value) {
+        return indexFor(partition(), field).lookup(value).size();
+    }
+
+    protected synchronized void deleteByIndex(String field, Object value) {
+        for (String id : List.copyOf(indexFor(partition(), field).lookup(value))) {
+            deleteById(id);
+        }
+    }
+
+    public boolean isTenantScoped() {
+        return tenantScoped;
+    }
+
+    private Partition<T> partition() {
+        String tenant = tenantScoped ? TenantContext.current() : TenantContext.DEFAULT_TENANT;
+        return partitions.computeIfAbsent(tenant, key -> {
+            Partition<T> partition = new Partition<>();
+            indexDefinitions.forEach((field, index) -> partition.indexes.put(field, index.emptyCopy()));
+            return partition;
+        });
+    }
+
+    private SecondaryIndex<T> indexFor(Partition<T> partition, String field) {
+        SecondaryIndex<T> index = partition.indexes.get(field);
+        if (index == null) {
+            throw new IllegalArgumentException("No index on field " + field + " for " + type.getSimpleName());
+        }
+        return index;
+    }
+
+    @Override
+    public synchronized <S extends T> S save(S entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity must not be null");
+        }
+        Partition<T> partition = partition();
+        String id = idGetter.apply(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            idSetter.accept(entity, id);
+        }
+        T stored = copy(entity);
+        T previous = partition.documents.get(id);
+        for (SecondaryIndex<T> index : partition.indexes.values()) {
+            index.checkUnique(id, stored);
+        }
+        for (SecondaryIndex<T> index : partition.indexes.values()) {
+            if (previous != null) {
+                index.remove(id, previous);
+            }
+            index.add(id, stored);
+        }
+        partition.documents.put(id, stored);
+        return entity;
+    }
+
+    @Override
+    public synchronized <S extends T> S insert(S entity) {
+        String id = idGetter.apply(entity);
+        if (id != null && partition().documents.containsKey(id)) {
+            throw new DuplicateKeyException("Duplicate key " + id + " in " + type.getSimpleName());
+        }
+        return save(entity);
+    }
+
+    @Override
+    public synchronized <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> result = new ArrayList<>();
+        entities.forEach(entity -> result.add(insert(entity)));
+        return result;
+    }
+
+    @Override
+    public synchronized <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> result = new ArrayList<>();
+        entities.forEach(entity -> result.add(save(entity)));
+        return result;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        T document = partition().documents.get(id);
+        return document == null ? Optional.empty() : Optional.of(copy(document));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return partition().documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        Map<String, T> documents = partition().documents;
+        List<T> result = new ArrayList<>(documents.size());
+        for (T document : documents.values()) {
+            result.add(copy(document));
+        }
+        return result;
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> result = new ArrayList<>();
+        for (String id : ids) {
+            findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return sort(findAll(), sort);
+    }
+
+    protected List<T> sort(List<T> documents, Sort sort) {
+        Comparator<T> comparator = comparator(sort);
+        if (comparator != null) {
+            documents.sort(comparator);
+        }
+        return documents;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return page(findAll(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public long count() {
+        return partition().documents.size();
+    }
+
+    @Override
+    public synchronized void deleteById(String id) {
+        Partition<T> partition = partition();
+        T removed = partition.documents.remove(id);
+        if (removed != null) {
+            for (SecondaryIndex<T> index : partition.indexes.values()) {
+                index.remove(id, removed);
+            }
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idGetter.apply(entity));
+    }
+
+    @Override
+    public synchronized void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public synchronized void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        Partition<T> partition = partition();
+        partition.documents.clear();
+        partition.indexes.values().forEach(SecondaryIndex::clear);
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> matches = findAll(example);
+        if (matches.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, matches.size());
+        }
+        return matches.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        Map<String, Object> criteria = criteria(example);
+        boolean all = example.getMatcher().isAllMatching();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        List<S> result = new ArrayList<>();
+        for (T document : partition().documents.values()) {
+            if (matches(criteria, all, accessor, MAPPER.convertValue(document, MAP_TYPE))) {
+                result.add(MAPPER.convertValue(document, example.getProbeType()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        List<S> result = findAll(example);
+        Comparator<T> comparator = comparator(sort);
+        if (comparator != null) {
+            result.sort(comparator);
+        }
+        return result;
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return !findAll(example).isEmpty();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(example, Sort.unsorted(), 0, Function.identity()));
+    }
+
+    /**
+     * Writes the current tenant's documents to a JSON file, replacing any previous snapshot atomically.
+     */
+    public synchronized void writeSnapshot(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        MAPPER.writeValue(tmp.toFile(), new ArrayList<>(partition().documents.values()));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized void loadSnapshot(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        CollectionType listType = MAPPER.getTypeFactory().constructCollectionType(List.class, type);
+        List<T> snapshot = MAPPER.readValue(file.toFile(), listType);
+        deleteAll();
+        snapshot.forEach(this::save);
+    }
+
+    public String getCollectionName() {
+        return type.getSimpleName();
+    }
+
+    private T copy(T entity) {
+        return MAPPER.convertValue(entity, type);
+    }
+
+    private Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> next = Comparator.comparing(
+                (T entity) -> (Comparable<Object>) new BeanWrapperImpl(entity).getPropertyValue(order.getProperty()),
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static <S> Page<S> page(List<S> sorted, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+
+    /**
+     * The probe's values by dotted path, without ignored paths and, unless nulls are included, null values.
+     */
+    private static Map<String, Object> criteria(Example<?> example) {
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        boolean includeNulls = accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE;
+        Map<String, Object> criteria = new LinkedHashMap<>();
+        addCriteria("", MAPPER.convertValue(example.getProbe(), MAP_TYPE), accessor, includeNulls, criteria);
+        return criteria;
+    }
+
+    private static void addCriteria(String prefix, Map<String, Object> values, ExampleMatcherAccessor accessor,
+                                    boolean includeNulls, Map<String, Object> criteria) {
+        values.forEach((field, value) -> {
+            String path = prefix + field;
+            if (accessor.isIgnoredPath(path)) {
+                return;
+            }
+            if (value instanceof Map<?, ?> nested && !nested.isEmpty()) {
+                addCriteria(path + ".", MAPPER.convertValue(nested, MAP_TYPE), accessor, includeNulls, criteria);
+            } else if (value != null || includeNulls) {
+                criteria.put(path, value);
+            }
+        });
+    }
+
+    private static boolean matches(Map<String, Object> criteria, boolean all, ExampleMatcherAccessor accessor,
+                                   Map<String, Object> document) {
+        if (criteria.isEmpty()) {
+            return true;
+        }
+        for (Map.Entry<String, Object> criterion : criteria.entrySet()) {
+            String path = criterion.getKey();
+            Object expected = accessor.getValueTransformerForPath(path)
+                .apply(Optional.ofNullable(criterion.getValue())).orElse(null);
+            if (matchesValue(expected, valueAt(document, path), path, accessor) != all) {
+                return !all;
+            }
+        }
+        return all;
+    }
+
+    private static Object valueAt(Map<String, Object> document, String path) {
+        Object value = document;
+        for (String field : path.split("\\.")) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return null;
+            }
+            value = map.get(field);
+        }
+        return value;
+    }
+
+    private static boolean matchesValue(Object expected, Object actual, String path, ExampleMatcherAccessor accessor) {
+        if (!(expected instanceof String pattern) || !(actual instanceof String value)) {
+            return Objects.equals(expected, actual);
+        }
+        boolean ignoreCase = accessor.isIgnoreCaseForPath(path);
+        if (accessor.getStringMatcherForPath(path) == ExampleMatcher.StringMatcher.REGEX) {
+            // Unanchored, like $regex
+            return Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(value).find();
+        }
+        if (ignoreCase) {
+            pattern = pattern.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (accessor.getStringMatcherForPath(path)) {
+            case STARTING -> value.startsWith(pattern);
+            case ENDING -> value.endsWith(pattern);
+            case CONTAINING -> value.contains(pattern);
+            default -> value.equals(pattern);
+        };
+    }
+
+    /**
+     * Fluent query by example. Projections to other classes copy the matching fields; projected
+     * property names are not applied, the documents are always read in full.
+     */
+    private final class ExampleQuery<S extends T, R> implements FluentQuery.FetchableFluentQuery<R> {
+        private final Example<S> example;
+        private final Sort sort;
+        private final int limit;
+        private final Function<S, R> mapper;
+
+        ExampleQuery(Example<S> example, Sort sort, int limit, Function<S, R> mapper) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new ExampleQuery<>(example, this.sort.and(sort), limit, mapper);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            return new ExampleQuery<>(example, sort, limit, mapper);
+        }
+
+        @Override
+        public <P> FluentQuery.FetchableFluentQuery<P> as(Class<P> resultType) {
+            if (resultType.isInterface()) {
+                throw new UnsupportedOperationException("Interface projections are not supported by the in-memory store");
+            }
+            return new ExampleQuery<>(example, sort, limit, document -> MAPPER.convertValue(document, resultType));
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public R oneValue() {
+            List<R> results = all();
+            if (results.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, results.size());
+            }
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        @Override
+        public R firstValue() {
+            List<R> results = all();
+            return results.isEmpty() ? null : results.get(0);
+        }
+
+        @Override
+        public List<R> all() {
+            List<S> matches = findAll(example, sort);
+            if (limit > 0 && matches.size() > limit) {
+                matches = matches.subList(0, limit);
+            }
+            return matches.stream().map(mapper).toList();
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            Sort order = pageable.getSort().isSorted() ? pageable.getSort() : sort;
+            return InMemoryRepository.page(findAll(example, order), pageable).map(mapper);
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return InMemoryRepository.this.count(example);
+        }
+
+        @Override
+        public boolean exists() {
+            return InMemoryRepository.this.exists(example);
+        }
+    }
+
+    private static final class SecondaryIndex<T> {
+        private final String field;
+        private final Function<T, Object> extractor;
+        private final boolean unique;
+        private final Map<Object, Set<String>> entries = new ConcurrentHashMap<>();
+
+        SecondaryIndex(String field, Function<T, Object> extractor, boolean unique) {
+            this.field = field;
+            this.extractor = extractor;
+            this.unique = unique;
+        }
+
+        Set<String> lookup(Object value) {
+            Set<String> ids = value == null ? null : entries.get(value);
+            return ids == null ? Collections.emptySet() : ids;
+        }
+
+        void checkUnique(String id, T document) {
+            Object value = extractor.apply(document);
+            if (!unique || value == null) {
+                return;
+            }
+            for (String existing : lookup(value)) {
+                if (!Objects.equals(existing, id)) {
+                    throw new DuplicateKeyException("Duplicate value '" + value + "' for unique field " + field);
+                }
+            }
+        }
+
+        void add(String id, T document) {
+            Object value = extractor.apply(document);
+            if (value != null) {
+                entries.computeIfAbsent(value, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remove(String id, T document) {
+            Object value = extractor.apply(document);
+            if (value != null) {
+                entries.computeIfPresent(value, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        void clear() {
+            entries.clear();
+        }
+
+        SecondaryIndex<T> emptyCopy() {
+            return new SecondaryIndex<>(field, extractor, unique);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.RevokedToken;
+import com.example.demo.repository.RevokedTokenRepository;
+
+import java.util.Date;
+import java.util.List;
+
+public class InMemoryRevokedTokenRepository extends InMemoryRepository<RevokedToken> implements RevokedTokenRepository {
+
+    public InMemoryRevokedTokenRepository() {
+        super(RevokedToken.class, RevokedToken::getId, RevokedToken::setId, false);
+    }
+
+    @Override
+    public List<RevokedToken> findByExpiresAtAfter(Date now) {
+        return findAll().stream()
+            .filter(revoked -> revoked.getExpiresAt() != null && revoked.getExpiresAt().after(now))
+            .toList();
+    }
+}
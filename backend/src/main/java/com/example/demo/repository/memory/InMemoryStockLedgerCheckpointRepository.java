@@ -0,0 +1,12 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.StockLedgerCheckpoint;
+import com.example.demo.repository.StockLedgerCheckpointRepository;
+
+public class InMemoryStockLedgerCheckpointRepository extends InMemoryRepository<StockLedgerCheckpoint>
+        implements StockLedgerCheckpointRepository {
+
+    public InMemoryStockLedgerCheckpointRepository() {
+        super(StockLedgerCheckpoint.class, StockLedgerCheckpoint::getId, StockLedgerCheckpoint::setId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.StockMovement;
+import com.example.demo.model.StockMovementBucket;
+import com.example.demo.repository.StockLedgerRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class InMemoryStockLedgerRepository extends InMemoryRepository<StockMovementBucket> implements StockLedgerRepository {
+
+    public InMemoryStockLedgerRepository() {
+        super(StockMovementBucket.class, StockMovementBucket::getId, StockMovementBucket::setId);
+        index("productId", StockMovementBucket::getProductId, false);
+    }
+
+    @Override
+    public synchronized void append(List<StockMovement> movements) {
+        for (StockMovement movement : movements) {
+            StockMovementBucket bucket = findByIndex("productId", movement.getProductId()).stream()
+                .filter(candidate -> candidate.getCount() < StockMovementBucket.CAPACITY)
+                .findFirst()
+                .orElseGet(() -> new StockMovementBucket(movement.getProductId()));
+            bucket.add(movement);
+            save(bucket);
+        }
+    }
+
+    @Override
+    public Set<String> findProductsWithReference(String reference, Collection<String> productIds) {
+        Set<String> result = new HashSet<>();
+        for (String productId : productIds) {
+            for (StockMovementBucket bucket : findByIndex("productId", productId)) {
+                if (bucket.getMovements().stream().anyMatch(movement -> Objects.equals(movement.getReference(), reference))) {
+                    result.add(productId);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<StockMovement> findMovements(String productId, Date from, Date to) {
+        List<StockMovement> result = new ArrayList<>();
+        for (StockMovementBucket bucket : findByIndex("productId", productId)) {
+            for (StockMovement movement : bucket.getMovements()) {
+                if ((from == null || !movement.getTimestamp().before(from))
+                        && (to == null || !movement.getTimestamp().after(to))) {
+                    result.add(movement);
+                }
+            }
+        }
+        result.sort(Comparator.comparing(StockMovement::getTimestamp));
+        return result;
+    }
+
+    @Override
+    public int sumMovements(String productId, Date after) {
+        int sum = 0;
+        for (StockMovementBucket bucket : findByIndex("productId", productId)) {
+            for (StockMovement movement : bucket.getMovements()) {
+                if (after == null || movement.getTimestamp().after(after)) {
+                    sum += movement.getDelta();
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public Map<String, long[]> sumMovementsByProduct(Date after, Date upTo) {
+        Map<String, long[]> result = new HashMap<>();
+        for (StockMovementBucket bucket : findAll()) {
+            for (StockMovement movement : bucket.getMovements()) {
+                Date timestamp = movement.getTimestamp();
+                if ((after == null || timestamp.after(after)) && (upTo == null || !timestamp.after(upTo))) {
+                    long[] sum = result.computeIfAbsent(movement.getProductId(), key -> new long[2]);
+                    sum[0] += movement.getDelta();
+                    sum[1]++;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.StockLocation;
+import com.example.demo.repository.StockLocationRepository;
+
+import java.util.List;
+
+public class InMemoryStockLocationRepository extends InMemoryRepository<StockLocation> implements StockLocationRepository {
+
+    public InMemoryStockLocationRepository() {
+        super(StockLocation.class, StockLocation::getId, StockLocation::setId);
+        index("productId", StockLocation::getProductId, false);
+        index("warehouse", StockLocation::getWarehouse, false);
+    }
+
+    @Override
+    public List<StockLocation> findByProductId(String productId) {
+        return findByIndex("productId", productId);
+    }
+
+    @Override
+    public List<StockLocation> findByWarehouse(String warehouse) {
+        return findByIndex("warehouse", warehouse);
+    }
+
+    @Override
+    public synchronized long deleteByProductId(String productId) {
+        long count = countByIndex("productId", productId);
+        deleteByIndex("productId", productId);
+        return count;
+    }
+}
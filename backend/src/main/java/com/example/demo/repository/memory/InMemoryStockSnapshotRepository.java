@@ -0,0 +1,11 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.StockSnapshot;
+import com.example.demo.repository.StockSnapshotRepository;
+
+public class InMemoryStockSnapshotRepository extends InMemoryRepository<StockSnapshot> implements StockSnapshotRepository {
+
+    public InMemoryStockSnapshotRepository() {
+        super(StockSnapshot.class, StockSnapshot::getProductId, StockSnapshot::setProductId);
+    }
+}
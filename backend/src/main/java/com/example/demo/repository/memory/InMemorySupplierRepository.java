@@ -0,0 +1,18 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.Supplier;
+import com.example.demo.repository.SupplierRepository;
+
+import java.util.List;
+
+public class InMemorySupplierRepository extends InMemoryRepository<Supplier> implements SupplierRepository {
+
+    public InMemorySupplierRepository() {
+        super(Supplier.class, Supplier::getId, Supplier::setId);
+    }
+
+    @Override
+    public List<Supplier> findAllForCatalog() {
+        return findAll();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.SupplierScorecard;
+import com.example.demo.repository.SupplierScorecardRepository;
+
+public class InMemorySupplierScorecardRepository extends InMemoryRepository<SupplierScorecard>
+        implements SupplierScorecardRepository {
+
+    public InMemorySupplierScorecardRepository() {
+        super(SupplierScorecard.class, SupplierScorecard::getSupplierId, SupplierScorecard::setSupplierId);
+    }
+
+    @Override
+    public synchronized void increment(SupplierScorecard delta) {
+        SupplierScorecard scorecard = findById(delta.getSupplierId())
+            .orElseGet(() -> new SupplierScorecard(delta.getSupplierId()));
+        scorecard.add(delta, 1);
+        save(scorecard);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+
+import java.util.Optional;
+
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
+
+    public InMemoryUserRepository() {
+        super(User.class, User::getId, User::setId, false);
+        index("email", User::getEmail, false);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return countByIndex("email", email) > 0;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findByIndex("email", email).stream().findFirst();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.model.CatalogEntry;
+import com.example.demo.model.Inventory;
+import com.example.demo.model.ProductSummary;
+import com.example.demo.model.Supplier;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.SupplierRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds catalog pages that join products with their supplier and inventory.
+ * Each page costs three bounded queries: one page of product summaries, then
+ * batched id lookups for the suppliers and inventory rows it references.
+ */
+@Service
+public class CatalogService {
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final ProductRepository productRepository;
+    private final SupplierRepository supplierRepository;
+    private final InventoryRepository inventoryRepository;
+
+    @Autowired
+    public CatalogService(ProductRepository productRepository, SupplierRepository supplierRepository,
+                          InventoryRepository inventoryRepository) {
+        this.productRepository = productRepository;
+        this.supplierRepository = supplierRepository;
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    /**
+     * Returns one page of the catalog sorted by product name
+     * @param supplierId optional supplier filter
+     * @throws IllegalArgumentException if page or size are out of range
+     */
+    public Page<CatalogEntry> getCatalogPage(String supplierId, int page, int size) {
+        if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name").and(Sort.by("id")));
+        List<ProductSummary> products = productRepository.findSummaries(supplierId, pageable);
+
+        Set<String> supplierIds = new HashSet<>();
+        List<String> productIds = new ArrayList<>(products.size());
+        for (ProductSummary product : products) {
+            productIds.add(product.getId());
+            if (product.getSupplierId() != null) {
+                supplierIds.add(product.getSupplierId());
+            }
+        }
+        Map<String, Supplier> suppliers = new HashMap<>();
+        supplierRepository.findAllById(supplierIds).forEach(supplier -> suppliers.put(supplier.getId(), supplier));
+        Map<String, Inventory> inventory = new HashMap<>();
+        inventoryRepository.findAllById(productIds).forEach(row -> inventory.put(row.getProductId(), row));
+
+        List<CatalogEntry> entries = new ArrayList<>(products.size());
+        for (ProductSummary product : products) {
+            entries.add(new CatalogEntry(product, suppliers.get(product.getSupplierId()), inventory.get(product.getId())));
+        }
+        long total = supplierId != null ? productRepository.countBySupplierId(supplierId) : productRepository.count();
+        return new PageImpl<>(entries, pageable, total);
+    }
+}
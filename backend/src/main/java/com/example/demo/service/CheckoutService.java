@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import com.example.demo.config.MongoTransactionRunner;
+import com.example.demo.model.Inventory;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockMovement;
+import com.example.demo.repository.OrderRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Places orders atomically: validates and prices the items from the product catalog,
+ * decrements inventory and records the stock movements in the same multi-document
+ * transaction (requires a replica set).
+ */
+@Service
+public class CheckoutService {
+
+    private final MongoTransactionRunner transactionRunner;
+    private final OrderRepository orderRepository;
+    private final SupplierScorecardService scorecardService;
+    private final InventoryAdjustmentBuffer adjustmentBuffer;
+
+    @Autowired
+    public CheckoutService(MongoTransactionRunner transactionRunner, OrderRepository orderRepository,
+                           SupplierScorecardService scorecardService, InventoryAdjustmentBuffer adjustmentBuffer) {
+        this.transactionRunner = transactionRunner;
+        this.orderRepository = orderRepository;
+        this.scorecardService = scorecardService;
+        this.adjustmentBuffer = adjustmentBuffer;
+    }
+
+    /**
+     * Creates an order and reserves its stock in one transaction.
+     * Transient transaction errors, such as write conflicts on a contended product, and unknown
+     * commit results are retried by {@link MongoTransactionRunner}.
+     * @param order the order to place; item prices are ignored and taken from the product catalog
+     * @param idempotencyKey optional client key; a repeated key from the same user returns the order
+     *                       created the first time
+     * @return the persisted order
+     * @throws IllegalArgumentException if the order or any item is invalid or references an unknown product
+     * @throws IllegalStateException if a product does not have enough stock
+     */
+    public Order placeOrder(Order order, String idempotencyKey) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+        // Keys are per user, like those of IdempotencyFilter, so a key reused by someone else is a new order
+        String scopedKey = idempotencyKey != null
+            ? IdempotencyService.scopedKey(idempotencyKey, StockLedgerService.currentActor()) : null;
+        if (scopedKey != null) {
+            Optional<Order> existing = orderRepository.findByIdempotencyKey(scopedKey);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+
+        Map<String, Integer> quantities = aggregateQuantities(order.getItems());
+        if (quantities.keySet().stream().anyMatch(productId -> adjustmentBuffer.pendingDelta(productId) != 0)) {
+            // Let buffered adjustments, such as restocks, reach the rows the stock check reads
+            adjustmentBuffer.flush();
+        }
+        try {
+            Order placed = transactionRunner.execute(tx -> placeOrderInSession(tx, order, quantities, scopedKey));
+            scorecardService.recordPlaced(placed);
+            return placed;
+        } catch (DuplicateKeyException e) {
+            // A concurrent request with the same key committed first
+            if (scopedKey != null) {
+                return orderRepository.findByIdempotencyKey(scopedKey).orElseThrow(() -> e);
+            }
+            throw e;
+        }
+    }
+
+    private Order placeOrderInSession(MongoTemplate tx, Order order, Map<String, Integer> quantities,
+                                      String idempotencyKey) {
+        Map<String, Product> products = tx.find(Query.query(Criteria.where("_id").in(quantities.keySet())), Product.class)
+            .stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (String productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new IllegalArgumentException("Unknown product: " + productId);
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            // Deductions still buffered, e.g. accepted since the flush above, count against the stock.
+            // Buffered additions do not: one that is flushed concurrently could be counted twice.
+            int pendingDeductions = Math.min(adjustmentBuffer.pendingDelta(entry.getKey()), 0);
+            Query inStock = Query.query(Criteria.where("_id").is(entry.getKey())
+                .and("quantity").gte(entry.getValue() - pendingDeductions));
+            UpdateResult result = tx.updateFirst(inStock, new Update().inc("quantity", -entry.getValue()), Inventory.class);
+            if (result.getModifiedCount() == 0) {
+                throw new IllegalStateException("Insufficient stock for product: " + entry.getKey());
+            }
+        }
+
+        String orderId = order.getId() != null ? order.getId() : new ObjectId().toHexString();
+        List<StockMovement> movements = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            StockMovement movement = new StockMovement(entry.getKey(), -entry.getValue(), StockMovement.REASON_ORDER,
+                StockLedgerService.currentActor());
+            movement.setOrderId(orderId);
+            movements.add(movement);
+        }
+        StockLedgerService.recordInSession(tx, movements);
+
+        List<OrderItem> pricedItems = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            Product product = products.get(item.getProductId());
+            pricedItems.add(new OrderItem(orderId, item.getProductId(), item.getQuantity(), product.getPrice()));
+        }
+
+        order.setId(orderId);
+        order.setItems(pricedItems);
+        order.setStatus(Order.STATUS_PENDING);
+        order.setIdempotencyKey(idempotencyKey);
+        OrderReadModelService.apply(order, products);
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(new Date());
+        }
+        return tx.insert(order);
+    }
+
+    private static Map<String, Integer> aggregateQuantities(List<OrderItem> items) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            if (item.getProductId() == null) {
+                throw new IllegalArgumentException("Order item product ID is required");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Order item quantity must be positive");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TenantRegistry;
+import com.example.demo.config.WebMvcConfig;
+import com.example.demo.model.CleanupJob;
+import com.example.demo.model.Product;
+import com.example.demo.repository.CleanupJobRepository;
+import com.example.demo.repository.DemandForecastRepository;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StockLocationRepository;
+import com.example.demo.repository.SupplierRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes products and suppliers in two phases: the document itself is removed on the request
+ * thread, and a persisted job removes its dependents (inventory, stock locations, forecasts,
+ * images, and for suppliers their products) on a single background worker. Supplier products
+ * are processed in throttled batches. Every step is idempotent, so jobs interrupted by a
+ * restart are simply run again. Order history and the stock ledger are kept: order items
+ * carry their own product snapshot.
+ */
+@Service
+public class CleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(CleanupService.class);
+
+    private final CleanupJobRepository jobRepository;
+    private final ProductRepository productRepository;
+    private final SupplierRepository supplierRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockLocationRepository stockLocationRepository;
+    private final DemandForecastRepository forecastRepository;
+    private final TenantRegistry tenantRegistry;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cleanup-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public CleanupService(CleanupJobRepository jobRepository,
+                          ProductRepository productRepository,
+                          SupplierRepository supplierRepository,
+                          InventoryRepository inventoryRepository,
+                          StockLocationRepository stockLocationRepository,
+                          DemandForecastRepository forecastRepository,
+                          TenantRegistry tenantRegistry,
+                          @Value("${app.cleanup.batch-size:200}") int batchSize,
+                          @Value("${app.cleanup.batch-pause-ms:100}") long batchPauseMs) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Cleanup batch size must be positive");
+        }
+        this.jobRepository = jobRepository;
+        this.productRepository = productRepository;
+        this.supplierRepository = supplierRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.stockLocationRepository = stockLocationRepository;
+        this.forecastRepository = forecastRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+    }
+
+    @PostConstruct
+    public void resumeJobs() {
+        tenantRegistry.forEachTenant("Resuming cleanup jobs", () -> {
+            for (String status : List.of(CleanupJob.STATUS_RUNNING, CleanupJob.STATUS_QUEUED)) {
+                for (CleanupJob job : jobRepository.findByStatus(status)) {
+                    log.info("Resuming {} cleanup job {} for {} of tenant {}", job.getType(), job.getId(),
+                        job.getTargetId(), TenantContext.current());
+                    submit(job);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Unfinished jobs stay queued or running and are resumed on the next start
+        worker.shutdownNow();
+    }
+
+    public Optional<CleanupJob> getJob(String id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Deletes a product and schedules removal of its dependents.
+     * @return the cleanup job, or empty if the product does not exist
+     */
+    public Optional<CleanupJob> deleteProduct(String productId) {
+        Optional<Product> product = productRepository.findById(productId);
+        if (product.isEmpty()) {
+            return Optional.empty();
+        }
+        CleanupJob job = new CleanupJob(CleanupJob.TYPE_PRODUCT, productId);
+        job.setImageUrl(product.get().getImageUrl());
+        // The job is stored before the product is removed, so a crash in between leaves nothing orphaned
+        jobRepository.save(job);
+        productRepository.deleteById(productId);
+        submit(job);
+        return Optional.of(job);
+    }
+
+    /**
+     * Deletes a supplier and schedules removal of its products and their dependents.
+     * @return the cleanup job, or empty if the supplier does not exist
+     */
+    public Optional<CleanupJob> deleteSupplier(String supplierId) {
+        if (!supplierRepository.existsById(supplierId)) {
+            return Optional.empty();
+        }
+        CleanupJob job = jobRepository.save(new CleanupJob(CleanupJob.TYPE_SUPPLIER, supplierId));
+        supplierRepository.deleteById(supplierId);
+        submit(job);
+        return Optional.of(job);
+    }
+
+    /**
+     * Runs the job on the worker, in the tenant it was created in.
+     */
+    private void submit(CleanupJob job) {
+        worker.execute(TenantContext.wrap(() -> run(job.getId())));
+    }
+
+    private void run(String jobId) {
+        Optional<CleanupJob> found = jobRepository.findById(jobId);
+        if (found.isEmpty() || CleanupJob.STATUS_COMPLETED.equals(found.get().getStatus())) {
+            return;
+        }
+        CleanupJob job = found.get();
+        job.setStatus(CleanupJob.STATUS_RUNNING);
+        job.setStartedAt(new Date());
+        job.setError(null);
+        jobRepository.save(job);
+        try {
+            if (CleanupJob.TYPE_SUPPLIER.equals(job.getType())) {
+                removeSupplierProducts(job);
+            } else {
+                removeProductDependents(job, job.getTargetId(), job.getImageUrl());
+            }
+            job.setStatus(CleanupJob.STATUS_COMPLETED);
+        } catch (InterruptedException e) {
+            // Shutting down; left running so it is resumed on the next start
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            log.error("Cleanup job {} failed", jobId, e);
+            job.setStatus(CleanupJob.STATUS_FAILED);
+            job.setError(e.getMessage());
+        }
+        job.setFinishedAt(new Date());
+        jobRepository.save(job);
+    }
+
+    private void removeSupplierProducts(CleanupJob job) throws InterruptedException {
+        // Always the first page: each batch is deleted before the next one is read
+        PageRequest firstPage = PageRequest.of(0, batchSize, Sort.by("id"));
+        List<Product> batch;
+        while (!(batch = productRepository.findBySupplierId(job.getTargetId(), firstPage)).isEmpty()) {
+            for (Product product : batch) {
+                removeProductDependents(job, product.getId(), product.getImageUrl());
+                productRepository.deleteById(product.getId());
+                job.addRemoved("products", 1);
+            }
+            jobRepository.save(job);
+            if (batchPauseMs > 0) {
+                Thread.sleep(batchPauseMs);
+            }
+        }
+    }
+
+    private void removeProductDependents(CleanupJob job, String productId, String imageUrl) {
+        if (inventoryRepository.existsById(productId)) {
+            inventoryRepository.deleteById(productId);
+            job.addRemoved("inventory", 1);
+        }
+        job.addRemoved("stockLocations", stockLocationRepository.deleteByProductId(productId));
+        if (forecastRepository.existsById(productId)) {
+            forecastRepository.deleteById(productId);
+            job.addRemoved("forecasts", 1);
+        }
+        if (deleteImage(imageUrl)) {
+            job.addRemoved("images", 1);
+        }
+    }
+
+    private static boolean deleteImage(String imageUrl) {
+        String prefix = "/" + WebMvcConfig.UPLOAD_DIR;
+        if (imageUrl == null || !imageUrl.startsWith(prefix)) {
+            return false;
+        }
+        Path uploads = Paths.get(WebMvcConfig.UPLOAD_DIR).toAbsolutePath().normalize();
+        Path image = uploads.resolve(imageUrl.substring(prefix.length())).normalize();
+        if (!image.startsWith(uploads)) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(image);
+        } catch (IOException e) {
+            log.warn("Failed to delete image file {}", image, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.service;
+
+import com.example.demo.config.MongoWorkload;
+import com.example.demo.config.MongoWorkloadTemplates;
+import com.example.demo.model.Inventory;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.model.Supplier;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates synthetic suppliers, products, inventory and orders at production-like volumes.
+ * Product popularity follows a Zipf distribution so a few SKUs dominate order lines, and
+ * everything is written through unordered bulk inserts on the bulk-import workload template.
+ */
+@Service
+public class DataSetGenerator {
+    public static final String ID_PREFIX = "gen-";
+
+    private static final Logger log = LoggerFactory.getLogger(DataSetGenerator.class);
+    private static final String[] STATUSES = {"delivered", "shipped", "processing", Order.STATUS_PENDING,
+        Order.STATUS_SUCCESS, Order.STATUS_DECLINED};
+    private static final double[] STATUS_WEIGHTS = {0.55, 0.12, 0.08, 0.10, 0.10, 0.05};
+    private static final String[] WAREHOUSES = {"Warehouse A", "Warehouse B", "Warehouse C", "Warehouse D"};
+
+    private final MongoTemplate bulkTemplate;
+
+    @Autowired
+    public DataSetGenerator(MongoWorkloadTemplates workloadTemplates) {
+        this.bulkTemplate = workloadTemplates.forWorkload(MongoWorkload.BULK_IMPORT);
+    }
+
+    /**
+     * Sizes and distribution parameters for a generated data set.
+     */
+    public static class Spec {
+        public int suppliers = 100;
+        public int products = 10_000;
+        public long orders = 1_000_000;
+        public int maxItemsPerOrder = 5;
+        public double productSkew = 1.1;
+        public int historyDays = 730;
+        public int batchSize = 5_000;
+        public long seed = 42;
+    }
+
+    public void generate(Spec spec) {
+        if (spec.suppliers <= 0 || spec.products <= 0 || spec.batchSize <= 0 || spec.maxItemsPerOrder <= 0) {
+            throw new IllegalArgumentException("Data set sizes must be positive");
+        }
+        Random random = new Random(spec.seed);
+        long start = System.nanoTime();
+
+        List<Supplier> suppliers = new ArrayList<>(spec.suppliers);
+        for (int i = 0; i < spec.suppliers; i++) {
+            suppliers.add(new Supplier(supplierId(i), "Supplier " + i, "sales" + i + "@supplier.example",
+                i + " Industrial Way", "+1 (555) " + String.format("%03d-%04d", i % 1000, i), "www.supplier" + i + ".example"));
+        }
+        insert(suppliers, Supplier.class);
+
+        double[] supplierCdf = zipfCdf(spec.suppliers, 0.8);
+        double[] prices = new double[spec.products];
+        String[] productSuppliers = new String[spec.products];
+        List<Product> products = new ArrayList<>(spec.batchSize);
+        List<Inventory> inventory = new ArrayList<>(spec.batchSize);
+        for (int i = 0; i < spec.products; i++) {
+            // Log-normal prices: mostly cheap items with a long tail of expensive ones
+            prices[i] = Math.round(Math.exp(3.5 + random.nextGaussian()) * 100) / 100.0 + 0.99;
+            String supplierId = supplierId(sample(supplierCdf, random));
+            productSuppliers[i] = supplierId;
+            products.add(new Product(productId(i), "Product " + i, "Generated product " + i, prices[i], supplierId, null));
+            inventory.add(new Inventory(productId(i), random.nextInt(1_000),
+                WAREHOUSES[random.nextInt(WAREHOUSES.length)] + ", Shelf " + (1 + random.nextInt(50))));
+            if (products.size() == spec.batchSize) {
+                insert(products, Product.class);
+                insert(inventory, Inventory.class);
+                products.clear();
+                inventory.clear();
+            }
+        }
+        insert(products, Product.class);
+        insert(inventory, Inventory.class);
+
+        double[] productCdf = zipfCdf(spec.products, spec.productSkew);
+        long now = System.currentTimeMillis();
+        List<Order> orders = new ArrayList<>(spec.batchSize);
+        for (long n = 0; n < spec.orders; n++) {
+            String orderId = new ObjectId().toHexString();
+            int itemCount = 1 + random.nextInt(spec.maxItemsPerOrder);
+            List<OrderItem> items = new ArrayList<>(itemCount);
+            double total = 0;
+            for (int j = 0; j < itemCount; j++) {
+                int product = sample(productCdf, random);
+                OrderItem item = new OrderItem(orderId, productId(product), 1 + random.nextInt(4), prices[product]);
+                item.setProductName("Product " + product);
+                item.setSupplierId(productSuppliers[product]);
+                total += item.getPrice() * item.getQuantity();
+                items.add(item);
+            }
+            long customer = random.nextInt(Math.max(1, (int) Math.min(Integer.MAX_VALUE, spec.orders / 4)));
+            Order order = new Order(orderId, new Date(now - orderAgeMillis(random, spec.historyDays)),
+                "gen-cust" + customer, items);
+            order.setStatus(pickStatus(random));
+            order.setCustomerName("Customer " + customer);
+            order.setCustomerEmail("customer" + customer + "@example.com");
+            order.setShippingAddress(customer + " Generated St");
+            order.setSupplierId(supplierId(random.nextInt(spec.suppliers)));
+            order.setTotal(total);
+            order.setItemCount(itemCount);
+            orders.add(order);
+            if (orders.size() == spec.batchSize) {
+                insert(orders, Order.class);
+                orders.clear();
+                if ((n + 1) % (spec.batchSize * 20L) == 0) {
+                    log.info("Generated {} / {} orders", n + 1, spec.orders);
+                }
+            }
+        }
+        insert(orders, Order.class);
+
+        log.info("Generated {} suppliers, {} products, {} orders in {} s", spec.suppliers, spec.products, spec.orders,
+            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    public static String supplierId(int index) {
+        return ID_PREFIX + "sup" + index;
+    }
+
+    public static String productId(int index) {
+        return ID_PREFIX + "prod" + index;
+    }
+
+    private <T> void insert(List<T> documents, Class<T> type) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        bulkTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(documents).execute();
+    }
+
+    private static long orderAgeMillis(Random random, int historyDays) {
+        // Recent days are busier than old ones, reflecting order volume growth
+        int day = (int) (historyDays * Math.pow(random.nextDouble(), 1.5));
+        return TimeUnit.DAYS.toMillis(day) + random.nextInt((int) TimeUnit.DAYS.toMillis(1));
+    }
+
+    private static String pickStatus(Random random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < STATUSES.length; i++) {
+            r -= STATUS_WEIGHTS[i];
+            if (r <= 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[STATUSES.length - 1];
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+    }
+}
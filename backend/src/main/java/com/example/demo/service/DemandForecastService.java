@@ -0,0 +1,317 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TenantRegistry;
+import com.example.demo.model.DailyDemand;
+import com.example.demo.model.DemandForecast;
+import com.example.demo.repository.DemandForecastRepository;
+import com.example.demo.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Forecasts daily demand per product from order history and derives reorder points.
+ * Order lines are grouped per product and day by the database and streamed in product order;
+ * products are fitted in batches on a fork-join pool while the next batch is being read, so
+ * memory use is bounded by the batch size rather than the order history.
+ * <p>
+ * Model: a moving average of recent daily demand scaled by day-of-week factors. The reorder
+ * point covers forecast demand over the lead time plus safety stock for the configured
+ * service level.
+ */
+@Service
+public class DemandForecastService {
+
+    private static final Logger log = LoggerFactory.getLogger(DemandForecastService.class);
+    private static final int FIT_THRESHOLD = 64;
+
+    private final OrderRepository orderRepository;
+    private final DemandForecastRepository forecastRepository;
+    private final int historyDays;
+    private final int movingAverageDays;
+    private final int leadTimeDays;
+    private final double serviceLevelZ;
+    private final int batchProducts;
+    private final long intervalHours;
+    private final ForkJoinPool pool;
+    private final TenantBackgroundJob<Integer> job;
+
+    @Autowired
+    public DemandForecastService(OrderRepository orderRepository,
+                                 DemandForecastRepository forecastRepository,
+                                 TenantRegistry tenantRegistry,
+                                 @Value("${app.forecast.history-days:365}") int historyDays,
+                                 @Value("${app.forecast.moving-average-days:28}") int movingAverageDays,
+                                 @Value("${app.forecast.lead-time-days:7}") int leadTimeDays,
+                                 @Value("${app.forecast.service-level-z:1.65}") double serviceLevelZ,
+                                 @Value("${app.forecast.batch-products:1000}") int batchProducts,
+                                 @Value("${app.forecast.parallelism:0}") int parallelism,
+                                 @Value("${app.forecast.interval-hours:24}") long intervalHours) {
+        if (historyDays <= 0 || movingAverageDays <= 0 || leadTimeDays <= 0 || batchProducts <= 0) {
+            throw new IllegalArgumentException("Forecast history, window, lead time and batch size must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.forecastRepository = forecastRepository;
+        this.historyDays = historyDays;
+        this.movingAverageDays = Math.min(movingAverageDays, historyDays);
+        this.leadTimeDays = leadTimeDays;
+        this.serviceLevelZ = serviceLevelZ;
+        this.batchProducts = batchProducts;
+        this.intervalHours = intervalHours;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.job = new TenantBackgroundJob<>("Demand forecast run", tenantRegistry, this::forecast);
+    }
+
+    @PostConstruct
+    public void start() {
+        job.start(intervalHours);
+    }
+
+    @PreDestroy
+    public void stop() {
+        job.stop();
+        pool.shutdownNow();
+    }
+
+    public Optional<DemandForecast> getForecast(String productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        return forecastRepository.findById(productId);
+    }
+
+    /**
+     * Starts a forecast run for the current tenant in the background.
+     * @return false if a run for the current tenant is already queued or in progress
+     */
+    public boolean trigger() {
+        return job.trigger();
+    }
+
+    public Map<String, Object> getLastRun() {
+        return job.getLastRun();
+    }
+
+    /**
+     * Forecasts every product of the current tenant ordered in the history window, using full days
+     * up to today (UTC).
+     * @return the number of products forecast
+     * @throws IllegalStateException if a run for the current tenant is already in progress
+     */
+    public int run() {
+        return job.run();
+    }
+
+    private int forecast(Map<String, Object> status) {
+        long started = System.currentTimeMillis();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate firstDay = today.minusDays(historyDays);
+        Date from = Date.from(firstDay.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date to = Date.from(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date generatedAt = new Date();
+
+        int products = 0;
+        long rows = 0;
+        List<ProductSeries> batch = new ArrayList<>(batchProducts);
+        ForkJoinTask<List<DemandForecast>> fitting = null;
+        ProductSeries current = null;
+        try (Stream<DailyDemand> stream = orderRepository.streamDailyDemand(from, to)) {
+            Iterator<DailyDemand> demand = stream.iterator();
+            while (demand.hasNext()) {
+                DailyDemand row = demand.next();
+                rows++;
+                if (current == null || !current.productId.equals(row.getProductId())) {
+                    if (current != null && batch.size() == batchProducts) {
+                        fitting = submit(fitting, batch, today, generatedAt);
+                        products += batch.size();
+                        batch = new ArrayList<>(batchProducts);
+                    }
+                    current = new ProductSeries(row.getProductId(), firstDay, historyDays);
+                    batch.add(current);
+                }
+                current.add(row.getDay(), row.getQuantity());
+            }
+        }
+        fitting = submit(fitting, batch, today, generatedAt);
+        products += batch.size();
+        save(fitting);
+
+        status.put("products", products);
+        status.put("dailyRows", rows);
+        log.info("Forecast {} products of tenant {} from {} daily demand rows in {} ms", products,
+            TenantContext.current(), rows,
+            System.currentTimeMillis() - started);
+        return products;
+    }
+
+    /**
+     * Saves the previous batch's forecasts, then starts fitting the next batch, so reading the
+     * stream overlaps with fitting.
+     */
+    private ForkJoinTask<List<DemandForecast>> submit(ForkJoinTask<List<DemandForecast>> previous,
+                                                      List<ProductSeries> batch, LocalDate today, Date generatedAt) {
+        save(previous);
+        if (batch.isEmpty()) {
+            return null;
+        }
+        return pool.submit(new FitTask(this, batch, 0, batch.size(), today, generatedAt));
+    }
+
+    private void save(ForkJoinTask<List<DemandForecast>> fitting) {
+        if (fitting != null) {
+            forecastRepository.saveAll(fitting.join());
+        }
+    }
+
+    DemandForecast fit(ProductSeries series, LocalDate today, Date generatedAt) {
+        long[] daily = series.daily;
+        int days = daily.length;
+
+        double movingAverage = 0;
+        for (int i = days - movingAverageDays; i < days; i++) {
+            movingAverage += daily[i];
+        }
+        movingAverage /= movingAverageDays;
+
+        double[] factors = weekdayFactors(series);
+        List<Double> forecast = new ArrayList<>(leadTimeDays);
+        double leadTimeDemand = 0;
+        for (int i = 0; i < leadTimeDays; i++) {
+            double value = movingAverage * factors[today.plusDays(i).getDayOfWeek().ordinal()];
+            forecast.add(value);
+            leadTimeDemand += value;
+        }
+
+        // Spread of recent demand around the model, scaled to the lead time
+        double squaredError = 0;
+        for (int i = days - movingAverageDays; i < days; i++) {
+            double expected = movingAverage * factors[series.firstDay.plusDays(i).getDayOfWeek().ordinal()];
+            squaredError += (daily[i] - expected) * (daily[i] - expected);
+        }
+        double sigma = Math.sqrt(squaredError / movingAverageDays);
+        double safetyStock = serviceLevelZ * sigma * Math.sqrt(leadTimeDays);
+
+        DemandForecast result = new DemandForecast(series.productId);
+        result.setMovingAverage(movingAverage);
+        List<Double> factorList = new ArrayList<>(factors.length);
+        for (double factor : factors) {
+            factorList.add(factor);
+        }
+        result.setWeekdayFactors(factorList);
+        result.setDailyForecast(forecast);
+        result.setLeadTimeDemand(leadTimeDemand);
+        result.setSafetyStock(safetyStock);
+        result.setReorderPoint((int) Math.ceil(leadTimeDemand + safetyStock));
+        result.setHistoryDays(days);
+        result.setGeneratedAt(generatedAt);
+        return result;
+    }
+
+    /**
+     * Average demand per day of week relative to the overall average; all 1.0 without two full weeks of history.
+     */
+    private static double[] weekdayFactors(ProductSeries series) {
+        double[] factors = {1, 1, 1, 1, 1, 1, 1};
+        long[] daily = series.daily;
+        if (daily.length < 14) {
+            return factors;
+        }
+        double[] sums = new double[7];
+        int[] counts = new int[7];
+        double total = 0;
+        for (int i = 0; i < daily.length; i++) {
+            int weekday = series.firstDay.plusDays(i).getDayOfWeek().ordinal();
+            sums[weekday] += daily[i];
+            counts[weekday]++;
+            total += daily[i];
+        }
+        if (total == 0) {
+            return factors;
+        }
+        double overall = total / daily.length;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int weekday = day.ordinal();
+            factors[weekday] = (sums[weekday] / counts[weekday]) / overall;
+        }
+        return factors;
+    }
+
+    /**
+     * Dense daily demand of one product over the history window; days without orders are zero.
+     */
+    static final class ProductSeries {
+        final String productId;
+        final LocalDate firstDay;
+        final long[] daily;
+
+        ProductSeries(String productId, LocalDate firstDay, int days) {
+            this.productId = productId;
+            this.firstDay = firstDay;
+            this.daily = new long[days];
+        }
+
+        void add(Date day, long quantity) {
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(day.getTime()), ZoneOffset.UTC);
+            long index = date.toEpochDay() - firstDay.toEpochDay();
+            if (index >= 0 && index < daily.length) {
+                daily[(int) index] += quantity;
+            }
+        }
+    }
+
+    private static final class FitTask extends RecursiveTask<List<DemandForecast>> {
+        private final DemandForecastService service;
+        private final List<ProductSeries> series;
+        private final int from;
+        private final int to;
+        private final LocalDate today;
+        private final Date generatedAt;
+
+        FitTask(DemandForecastService service, List<ProductSeries> series, int from, int to,
+                LocalDate today, Date generatedAt) {
+            this.service = service;
+            this.series = series;
+            this.from = from;
+            this.to = to;
+            this.today = today;
+            this.generatedAt = generatedAt;
+        }
+
+        @Override
+        protected List<DemandForecast> compute() {
+            if (to - from <= FIT_THRESHOLD) {
+                List<DemandForecast> result = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    result.add(service.fit(series.get(i), today, generatedAt));
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            FitTask left = new FitTask(service, series, from, middle, today, generatedAt);
+            left.fork();
+            List<DemandForecast> result = new FitTask(service, series, middle, to, today, generatedAt).compute();
+            result.addAll(0, left.join());
+            return result;
+        }
+    }
+}
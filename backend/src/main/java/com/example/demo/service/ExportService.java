@@ -0,0 +1,132 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Inventory;
+import com.example.demo.model.Order;
+import com.example.demo.repository.ArchivedOrderRepository;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders and inventory as CSV or XLSX straight from a database cursor to the response,
+ * one row at a time, so heap use stays constant regardless of the number of rows exported.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        CSV("text/csv; charset=UTF-8", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the format is not supported
+         */
+        public static Format parse(String name) {
+            for (Format format : values()) {
+                if (format.extension.equals(name.toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format '" + name + "', use csv or xlsx");
+        }
+    }
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryAdjustmentBuffer adjustmentBuffer;
+
+    @Autowired
+    public ExportService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                         InventoryRepository inventoryRepository, InventoryAdjustmentBuffer adjustmentBuffer) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.adjustmentBuffer = adjustmentBuffer;
+    }
+
+    /**
+     * Writes one row per order with from <= orderDate < to, oldest first. Archived orders,
+     * if included, follow the hot ones.
+     * @param from optional start of the date range
+     * @param to optional end of the date range, exclusive
+     * @param status optional status filter
+     */
+    public void exportOrders(OutputStream out, Format format, Date from, Date to, String status,
+                             boolean includeArchived) throws IOException {
+        try (RowWriter rows = open(out, format, "Orders")) {
+            rows.writeRow("id", "orderDate", "status", "customerId", "customerName", "customerEmail", "supplierId",
+                "itemCount", "total", "fulfilledAt", "archived");
+            try (Stream<Order> orders = orderRepository.streamForExport(from, to, status)) {
+                writeOrders(rows, orders.iterator(), false);
+            }
+            if (includeArchived) {
+                try (Stream<Order> orders = archivedOrderRepository.streamForExport(from, to, status)) {
+                    writeOrders(rows, orders.iterator(), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes one row per product, including adjustments not yet flushed to the database.
+     */
+    public void exportInventory(OutputStream out, Format format) throws IOException {
+        try (RowWriter rows = open(out, format, "Inventory");
+             Stream<Inventory> inventory = inventoryRepository.streamAllBy()) {
+            rows.writeRow("productId", "quantity", "location");
+            Iterator<Inventory> iterator = inventory.iterator();
+            while (iterator.hasNext()) {
+                Inventory item = iterator.next();
+                int quantity = item.getQuantity() + adjustmentBuffer.pendingDelta(item.getProductId());
+                rows.writeRow(item.getProductId(), quantity, item.getLocation());
+            }
+        }
+    }
+
+    private static void writeOrders(RowWriter rows, Iterator<Order> orders, boolean archived) throws IOException {
+        while (orders.hasNext()) {
+            Order order = orders.next();
+            if (order.getTotal() == null || order.getItemCount() == null) {
+                // Not backfilled yet: compute from the embedded items
+                OrderReadModelService.apply(order, Map.of());
+            }
+            rows.writeRow(order.getId(), format(order.getOrderDate()), order.getStatus(), order.getCustomerId(),
+                order.getCustomerName(), order.getCustomerEmail(), order.getSupplierId(), order.getItemCount(),
+                order.getTotal(), format(order.getFulfilledAt()), archived);
+        }
+    }
+
+    private static RowWriter open(OutputStream out, Format format, String sheetName) throws IOException {
+        return format == Format.XLSX ? new XlsxRowWriter(out, sheetName) : new CsvRowWriter(out);
+    }
+
+    private static String format(Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+}
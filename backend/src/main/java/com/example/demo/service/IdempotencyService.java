@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantLruCache;
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Stores Idempotency-Key reservations and their cached responses.
+ * Completed responses live in the TTL-indexed idempotency_keys collection and in a bounded LRU in front of it.
+ * Keys are scoped to the tenant, and so is the LRU, so a busy store cannot evict another's responses.
+ * Within a tenant they are scoped to the caller (see {@link #scopedKey}), so a key reused by someone
+ * else never replays another caller's response. A reservation is a lease: if its request does not
+ * finish in time, e.g. because the server crashed, a retry takes the key over.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final Duration TTL = Duration.ofHours(24);
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TenantLruCache<String, IdempotencyRecord> recentResponses;
+    private final Duration lease;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              @Value("${app.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${app.idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.recordRepository = recordRepository;
+        this.recentResponses = new TenantLruCache<>(cacheSize);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    /**
+     * The stored key for a client's Idempotency-Key. Header values cannot contain line breaks,
+     * so different (key, caller) pairs never map to the same stored key.
+     * @param caller the authenticated subject, or another identifier for anonymous callers
+     */
+    public static String scopedKey(String key, String caller) {
+        return key + "\n" + caller;
+    }
+
+    /**
+     * Looks up a completed response for the key, checking the in-memory cache before the database.
+     * @return the completed record, or empty if the key is unknown, expired or still in progress
+     */
+    public Optional<IdempotencyRecord> findCompleted(String key) {
+        IdempotencyRecord cached = recentResponses.get(key);
+        if (cached != null && !isExpired(cached)) {
+            return Optional.of(cached);
+        }
+        return recordRepository.findById(key)
+            .filter(IdempotencyRecord::isCompleted)
+            .filter(record -> !isExpired(record))
+            .map(record -> {
+                remember(record);
+                return record;
+            });
+    }
+
+    /**
+     * Atomically claims the key for a new request. A record whose 24h TTL has passed, or an
+     * in-progress one whose lease has run out, is taken over.
+     * @param reservation a new in-progress record for the key; pass it to complete or release afterwards
+     * @return empty if the key was claimed, otherwise the record already holding it
+     */
+    public Optional<IdempotencyRecord> reserve(IdempotencyRecord reservation) {
+        while (true) {
+            try {
+                recordRepository.insert(reservation);
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(reservation.getKey());
+                if (existing.isEmpty()) {
+                    // Released in the meantime
+                    continue;
+                }
+                IdempotencyRecord current = existing.get();
+                if (!isExpired(current) && !isAbandoned(current)) {
+                    return existing;
+                }
+                // Conditional, so only one of several concurrent retries takes it over
+                if (recordRepository.replaceIfReservedAt(reservation, current.getReservedAt())) {
+                    return Optional.empty();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores the response for a reservation, unless its lease ran out and another request took the key over.
+     * @return true if the response was stored
+     */
+    public boolean complete(IdempotencyRecord reservation, int status, String contentType, byte[] body) {
+        reservation.setStatus(IdempotencyRecord.STATUS_COMPLETED);
+        reservation.setResponseStatus(status);
+        reservation.setContentType(contentType);
+        reservation.setResponseBody(body);
+        if (!recordRepository.replaceIfReservedAt(reservation, reservation.getReservedAt())) {
+            log.warn("Idempotency-Key reservation was taken over after its lease ran out; response not stored");
+            return false;
+        }
+        remember(reservation);
+        return true;
+    }
+
+    /**
+     * Drops a reservation so the request can be retried, e.g. after a server error.
+     * Does nothing if another request has taken the key over.
+     */
+    public void release(IdempotencyRecord reservation) {
+        recordRepository.deleteIfReservedAt(reservation.getKey(), reservation.getReservedAt());
+    }
+
+    private void remember(IdempotencyRecord record) {
+        recentResponses.put(record.getKey(), record);
+    }
+
+    private static boolean isExpired(IdempotencyRecord record) {
+        return record.getCreatedAt() != null
+            && record.getCreatedAt().toInstant().plus(TTL).isBefore(Instant.now());
+    }
+
+    private boolean isAbandoned(IdempotencyRecord record) {
+        return !record.isCompleted() && record.getReservedAt() != null
+            && record.getReservedAt().toInstant().plus(lease).isBefore(Instant.now());
+    }
+}
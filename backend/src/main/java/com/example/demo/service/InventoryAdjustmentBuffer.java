@@ -0,0 +1,294 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.model.InventoryAdjustment;
+import com.example.demo.model.StockMovement;
+import com.example.demo.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for inventory quantity adjustments.
+ * Deltas are journaled with the user who made them, coalesced per product and user in memory, and
+ * flushed periodically as one bulk batch of $inc updates per tenant. Each batch gets a random ID that is journaled before it is
+ * applied, so a batch that is replayed after a crash is applied at most once, even if the journal
+ * was lost in between or other instances flush to the same rows
+ * (see InventoryRepositoryCustom.applyAdjustments). The journal sequence only orders this
+ * instance's adjustments against its checkpoints.
+ */
+@Service
+public class InventoryAdjustmentBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryAdjustmentBuffer.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final StockLedgerService stockLedgerService;
+    private final InventoryAdjustmentJournal journal;
+    private final long flushIntervalMs;
+    private final long maxJournalBytes;
+    private final Object flushLock = new Object();
+
+    // Guarded by this
+    private long seq;
+    private Map<Key, Pending> pending = new HashMap<>();
+    private Batch inFlight;
+    private Batch retry;
+
+    private ScheduledExecutorService flusher;
+
+    private record Key(String tenant, String productId) {
+    }
+
+    private static final class Pending {
+        final Map<String, Integer> byActor = new HashMap<>();
+        long seq;
+    }
+
+    /**
+     * @param deltas per product, the summed delta of each user who adjusted it
+     */
+    private record Batch(Map<Key, Map<String, Integer>> deltas, long seq, String id) {
+    }
+
+    @Autowired
+    public InventoryAdjustmentBuffer(InventoryRepository inventoryRepository,
+                                     StockLedgerService stockLedgerService,
+                                     @Value("${app.inventory.buffer.journal:./data/inventory-adjustments.journal}") String journalPath,
+                                     @Value("${app.inventory.buffer.fsync:true}") boolean fsync,
+                                     @Value("${app.inventory.buffer.flush-interval-ms:500}") long flushIntervalMs,
+                                     @Value("${app.inventory.buffer.max-journal-bytes:16777216}") long maxJournalBytes) {
+        this.inventoryRepository = inventoryRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.journal = new InventoryAdjustmentJournal(Paths.get(journalPath), fsync);
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxJournalBytes = maxJournalBytes;
+    }
+
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        InventoryAdjustmentJournal.Recovery recovery = journal.open();
+        seq = recovery.lastSeq;
+        Map<Key, Map<String, Integer>> interrupted = new HashMap<>();
+        for (InventoryAdjustmentJournal.Entry entry : recovery.unflushed) {
+            Key key = new Key(entry.tenant(), entry.productId());
+            if (entry.seq() <= recovery.startedFlushSeq) {
+                // Part of a flush that may have been partially applied: retry it under its original sequence
+                interrupted.computeIfAbsent(key, k -> new HashMap<>()).merge(entry.actor(), entry.delta(), Integer::sum);
+            } else {
+                addPending(key, entry.actor(), entry.delta(), entry.seq());
+            }
+        }
+        if (!interrupted.isEmpty()) {
+            retry = new Batch(interrupted, recovery.startedFlushSeq, recovery.startedFlushId);
+        }
+        if (!recovery.unflushed.isEmpty()) {
+            log.info("Recovered {} unflushed inventory adjustments from the journal", recovery.unflushed.size());
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-adjustment-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+        synchronized (this) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Accepts adjustments for the current tenant durably; they reach the database with the next flush.
+     * @throws IllegalArgumentException if an adjustment has no product ID
+     * @throws IllegalStateException if the journal cannot be written
+     */
+    public synchronized void adjust(List<InventoryAdjustment> adjustments) {
+        for (InventoryAdjustment adjustment : adjustments) {
+            String productId = adjustment.getProductId();
+            if (productId == null || productId.isBlank() || productId.chars().anyMatch(Character::isWhitespace)) {
+                throw new IllegalArgumentException("A product ID without whitespace is required");
+            }
+        }
+        String tenant = TenantContext.current();
+        String actor = StockLedgerService.currentActor();
+        try {
+            for (InventoryAdjustment adjustment : adjustments) {
+                long next = ++seq;
+                journal.appendAdjustment(next, tenant, adjustment.getProductId(), adjustment.getDelta(), actor);
+                addPending(new Key(tenant, adjustment.getProductId()), actor, adjustment.getDelta(), next);
+            }
+            journal.sync();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not journal inventory adjustment", e);
+        }
+    }
+
+    /**
+     * Sum of the deltas accepted for a product of the current tenant that may not be in the database yet.
+     */
+    public synchronized int pendingDelta(String productId) {
+        Key key = new Key(TenantContext.current(), productId);
+        Pending p = pending.get(key);
+        int delta = p != null ? sum(p.byActor) : 0;
+        if (inFlight != null) {
+            delta += sum(inFlight.deltas().getOrDefault(key, Map.of()));
+        }
+        if (retry != null) {
+            delta += sum(retry.deltas().getOrDefault(key, Map.of()));
+        }
+        return delta;
+    }
+
+    /**
+     * Flushes all buffered adjustments, then runs an absolute write, such as setting a quantity, while
+     * no adjustment can be accepted or flushed. Buffered deltas thereby reach the database before the
+     * new value, instead of being counted on top of it or overwriting it.
+     * @throws IllegalStateException if the buffered adjustments could not be written; the write is not run then
+     */
+    public <T> T flushAndRun(Supplier<T> write) {
+        synchronized (flushLock) {
+            synchronized (this) {
+                flush();
+                if (retry != null || !pending.isEmpty()) {
+                    throw new IllegalStateException("Buffered inventory adjustments could not be written, try again");
+                }
+                return write.get();
+            }
+        }
+    }
+
+    /**
+     * Writes buffered adjustments to the database. Runs on the flusher thread; safe to call directly.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Batch failed;
+            synchronized (this) {
+                failed = retry;
+            }
+            if (failed != null && !apply(failed)) {
+                return;
+            }
+
+            Batch batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                Map<Key, Map<String, Integer>> deltas = new HashMap<>();
+                pending.forEach((key, p) -> deltas.put(key, p.byActor));
+                batch = new Batch(deltas, seq, UUID.randomUUID().toString());
+                try {
+                    journal.appendFlushStarted(batch.seq(), batch.id());
+                } catch (IOException e) {
+                    log.error("Could not journal inventory flush, will retry", e);
+                    return;
+                }
+                pending = new HashMap<>();
+                inFlight = batch;
+            }
+            if (!apply(batch)) {
+                synchronized (this) {
+                    inFlight = null;
+                    retry = batch;
+                }
+            }
+        }
+    }
+
+    private boolean apply(Batch batch) {
+        Map<String, Map<String, Map<String, Integer>>> byTenant = new HashMap<>();
+        batch.deltas().forEach((key, byActor) ->
+            byTenant.computeIfAbsent(key.tenant(), tenant -> new HashMap<>()).put(key.productId(), byActor));
+        try {
+            // A retry re-applies tenants that already succeeded; the batch ID makes that a no-op
+            byTenant.forEach((tenant, products) -> {
+                Map<String, Integer> deltas = new HashMap<>();
+                products.forEach((productId, byActor) -> deltas.put(productId, sum(byActor)));
+                TenantContext.run(tenant, () -> inventoryRepository.applyAdjustments(deltas, batch.id()));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Inventory adjustment flush of {} products failed, will retry", batch.deltas().size(), e);
+            return false;
+        }
+        byTenant.forEach((tenant, products) -> TenantContext.run(tenant, () -> recordMovements(products, batch.id())));
+        synchronized (this) {
+            if (inFlight == batch) {
+                inFlight = null;
+            }
+            if (retry == batch) {
+                retry = null;
+            }
+            try {
+                journal.appendCheckpoint(batch.seq());
+                if (journal.size() > maxJournalBytes) {
+                    List<InventoryAdjustmentJournal.Entry> remaining = new ArrayList<>(pending.size());
+                    pending.forEach((key, p) -> p.byActor.forEach((actor, delta) -> remaining.add(
+                        new InventoryAdjustmentJournal.Entry(p.seq, key.tenant(), key.productId(), delta, actor))));
+                    journal.compact(batch.seq(), remaining);
+                }
+            } catch (IOException e) {
+                // The batch is applied; without the checkpoint it is replayed on restart and skipped by its ID
+                log.warn("Could not checkpoint inventory journal", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One ledger movement per product and user per batch; individual adjustments are coalesced by then.
+     * The movements carry the batch as their reference, so a batch replayed after a crash between
+     * recording them and the checkpoint is not recorded twice.
+     * @param products per product, the summed delta of each user who adjusted it
+     */
+    private void recordMovements(Map<String, Map<String, Integer>> products, String batchId) {
+        String reference = "adjustment-batch-" + batchId;
+        List<StockMovement> movements = new ArrayList<>(products.size());
+        products.forEach((productId, byActor) -> byActor.forEach((actor, delta) -> {
+            if (delta != 0) {
+                StockMovement movement = new StockMovement(productId, delta, StockMovement.REASON_ADJUSTMENT, actor);
+                movement.setReference(reference);
+                movements.add(movement);
+            }
+        }));
+        try {
+            stockLedgerService.recordOnce(reference, movements);
+        } catch (RuntimeException e) {
+            log.error("Could not record ledger movements for inventory adjustment batch {}", batchId, e);
+        }
+    }
+
+    private void addPending(Key key, String actor, int delta, long entrySeq) {
+        Pending p = pending.computeIfAbsent(key, k -> new Pending());
+        p.byActor.merge(actor, delta, Integer::sum);
+        p.seq = Math.max(p.seq, entrySeq);
+    }
+
+    private static int sum(Map<String, Integer> byActor) {
+        return byActor.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
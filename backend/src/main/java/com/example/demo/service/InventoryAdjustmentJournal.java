@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log backing {@link InventoryAdjustmentBuffer}. Line formats:
+ * <pre>
+ * A seq productId delta tenant actor   an accepted adjustment and the user who made it
+ * F seq batchId                        a flush of every adjustment up to seq has started as batch batchId
+ * C seq                                every adjustment up to seq is in the database
+ * </pre>
+ * Not thread-safe; the buffer serializes access.
+ */
+public class InventoryAdjustmentJournal implements AutoCloseable {
+
+    /**
+     * Journal contents that were not yet checkpointed when the journal was opened.
+     */
+    public static class Recovery {
+        public long lastSeq;
+        public long startedFlushSeq;
+        public String startedFlushId;
+        public final List<Entry> unflushed = new ArrayList<>();
+    }
+
+    public record Entry(long seq, String tenant, String productId, int delta, String actor) {
+    }
+
+    private final Path file;
+    private final boolean fsync;
+    private FileChannel channel;
+
+    public InventoryAdjustmentJournal(Path file, boolean fsync) {
+        this.file = file;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads the existing journal and opens it for appending.
+     */
+    public Recovery open() throws IOException {
+        Recovery recovery = new Recovery();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (Files.exists(file)) {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int end = content.lastIndexOf('\n') + 1;
+            if (end < content.length()) {
+                // A torn last record from a crash mid-write; drop it so new records start on a clean line
+                try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    truncate.truncate(content.substring(0, end).getBytes(StandardCharsets.UTF_8).length);
+                }
+            }
+            long checkpoint = 0;
+            List<Entry> entries = new ArrayList<>();
+            for (String line : content.substring(0, end).split("\n")) {
+                // The actor is last and may contain spaces
+                String[] parts = line.split(" ", 6);
+                switch (parts[0]) {
+                    case "A" -> entries.add(new Entry(Long.parseLong(parts[1]), parts[4], parts[2],
+                        Integer.parseInt(parts[3]), parts[5]));
+                    case "F" -> {
+                        recovery.startedFlushSeq = Long.parseLong(parts[1]);
+                        recovery.startedFlushId = parts[2];
+                    }
+                    case "C" -> checkpoint = Long.parseLong(parts[1]);
+                    default -> {
+                        // Blank line
+                    }
+                }
+            }
+            for (Entry entry : entries) {
+                recovery.lastSeq = Math.max(recovery.lastSeq, entry.seq());
+                if (entry.seq() > checkpoint) {
+                    recovery.unflushed.add(entry);
+                }
+            }
+            recovery.lastSeq = Math.max(recovery.lastSeq, checkpoint);
+            if (recovery.startedFlushSeq <= checkpoint) {
+                recovery.startedFlushSeq = 0;
+                recovery.startedFlushId = null;
+            }
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return recovery;
+    }
+
+    public void appendAdjustment(long seq, String tenant, String productId, int delta, String actor) throws IOException {
+        append(adjustmentRecord(new Entry(seq, tenant, productId, delta, actor)));
+    }
+
+    /**
+     * Records that a flush up to seq is starting as the given batch. Always forced to disk: if it were
+     * lost, recovery would re-apply the batch under a new batch ID and count it twice.
+     */
+    public void appendFlushStarted(long seq, String batchId) throws IOException {
+        append("F " + seq + " " + batchId + "\n");
+        channel.force(false);
+    }
+
+    public void appendCheckpoint(long seq) throws IOException {
+        append("C " + seq + "\n");
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Replaces the journal with a checkpoint plus the given still-pending adjustments.
+     */
+    public void compact(long checkpointSeq, List<Entry> pending) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write("C " + checkpointSeq + "\n");
+            for (Entry entry : pending) {
+                writer.write(adjustmentRecord(entry));
+            }
+        }
+        try (FileChannel tmpChannel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            tmpChannel.force(true);
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Forces appended adjustments to disk when fsync is enabled.
+     */
+    public void sync() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private static String adjustmentRecord(Entry entry) {
+        return "A " + entry.seq() + " " + entry.productId() + " " + entry.delta() + " " + entry.tenant() + " " + entry.actor() + "\n";
+    }
+
+    private void append(String record) throws IOException {
+        channel.write(StandardCharsets.UTF_8.encode(record));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
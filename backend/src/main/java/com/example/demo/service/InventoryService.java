@@ -1,24 +1,45 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Inventory;
+import com.example.demo.model.InventoryAdjustment;
+import com.example.demo.model.StockMovement;
 import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.List;
 
 @Service 
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final InventoryAdjustmentBuffer adjustmentBuffer;
+    private final StockLedgerService stockLedgerService;
+    private final ProductRepository productRepository;
 
     @Autowired
-    public InventoryService(InventoryRepository inventoryRepository) {
+    public InventoryService(InventoryRepository inventoryRepository, InventoryAdjustmentBuffer adjustmentBuffer,
+                            StockLedgerService stockLedgerService, ProductRepository productRepository) {
         this.inventoryRepository = inventoryRepository;
+        this.adjustmentBuffer = adjustmentBuffer;
+        this.stockLedgerService = stockLedgerService;
+        this.productRepository = productRepository;
     }
 
-    public List<Inventory> getAllInventory() {
-        return inventoryRepository.findAll();
+    /**
+     * Streams all inventory with pending adjustments applied; the caller must close the stream.
+     */
+    public Stream<Inventory> streamAllInventory() {
+        return inventoryRepository.streamAllBy().map(inventory -> {
+            includePending(inventory);
+            return inventory;
+        });
     }
 
     /**
@@ -31,14 +52,68 @@ public class InventoryService {
         if (productId == null) {
             throw new IllegalArgumentException("Product ID cannot be null");
         }
-        return inventoryRepository.findByProductId(productId);
+        Optional<Inventory> inventory = inventoryRepository.findByProductId(productId);
+        inventory.ifPresent(this::includePending);
+        return inventory;
     }
 
-    public Inventory saveInventory(Inventory inventory) {
-        return inventoryRepository.save(inventory);
+    /**
+     * Queues quantity adjustments; they are coalesced and written in bulk by the adjustment buffer.
+     * Reads through this service already reflect them.
+     * @throws IllegalArgumentException if an adjustment has no valid product ID or references an unknown product
+     */
+    public void adjustQuantities(List<InventoryAdjustment> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new IllegalArgumentException("At least one adjustment is required");
+        }
+        // Checked here, so the buffer never creates inventory rows for products that do not exist
+        Set<String> productIds = adjustments.stream()
+            .map(InventoryAdjustment::getProductId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<String> known = new HashSet<>();
+        productRepository.findAllById(productIds).forEach(product -> known.add(product.getId()));
+        for (String productId : productIds) {
+            if (!known.contains(productId)) {
+                throw new IllegalArgumentException("Unknown product: " + productId);
+            }
+        }
+        adjustmentBuffer.adjust(adjustments);
+    }
+
+    /**
+     * Sets a product's quantity and location and records the change in the stock ledger.
+     * The write is an atomic $set applied after the adjustment buffer has been flushed, so neither
+     * buffered adjustments nor concurrent checkouts are lost or counted twice, and the ledger delta is
+     * taken against the quantity the write replaced.
+     * @param create whether to create the row if the product has no inventory yet
+     * @return the updated row, or empty if it does not exist and create is false
+     * @throws IllegalArgumentException if productId is blank
+     * @throws IllegalStateException if buffered adjustments could not be flushed first
+     */
+    public Optional<Inventory> setInventory(String productId, int quantity, String location, boolean create) {
+        if (productId == null || productId.isBlank()) {
+            throw new IllegalArgumentException("Product ID is required");
+        }
+        Optional<Inventory> previous = adjustmentBuffer.flushAndRun(
+            () -> inventoryRepository.setQuantity(productId, quantity, location, create));
+        if (previous.isEmpty() && !create) {
+            return Optional.empty();
+        }
+        int delta = quantity - previous.map(Inventory::getQuantity).orElse(0);
+        if (delta != 0) {
+            stockLedgerService.record(List.of(new StockMovement(productId, delta,
+                StockMovement.REASON_MANUAL, StockLedgerService.currentActor())));
+        }
+        Inventory updated = new Inventory(productId, quantity, location);
+        return Optional.of(updated);
     }
 
     public void deleteInventoryByProductId(String productId) {
         inventoryRepository.deleteByProductId(productId);
     }
-}
\ No newline at end of file
+
+    private void includePending(Inventory inventory) {
+        inventory.setQuantity(inventory.getQuantity() + adjustmentBuffer.pendingDelta(inventory.getProductId()));
+    }
+}
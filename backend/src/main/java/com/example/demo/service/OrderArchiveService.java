@@ -0,0 +1,140 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TenantRegistry;
+import com.example.demo.model.ArchivedOrder;
+import com.example.demo.model.Order;
+import com.example.demo.repository.ArchivedOrderRepository;
+import com.example.demo.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves closed (delivered or declined) orders older than the configured age from the hot
+ * orders collection to the compressed orders_archive collection, so the working set and the
+ * order indexes only cover recent and open orders. Archived orders stay readable by id through
+ * {@link OrderService#getOrderById}, but are read-only.
+ * <p>
+ * Each order is copied to the archive first and then deleted from orders only if its revision is
+ * unchanged, so an update between the copy and the delete is never lost, and an interrupted run
+ * leaves at most a duplicate that the next run overwrites.
+ * The default age is longer than the demand forecast history, which only reads hot orders.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+    private static final List<String> CLOSED_STATUSES = List.of(Order.STATUS_DELIVERED, Order.STATUS_DECLINED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archiveRepository;
+    private final long afterDays;
+    private final int batchSize;
+    private final long intervalHours;
+    private final TenantBackgroundJob<Long> job;
+
+    @Autowired
+    public OrderArchiveService(OrderRepository orderRepository,
+                               ArchivedOrderRepository archiveRepository,
+                               TenantRegistry tenantRegistry,
+                               @Value("${app.orders.archive.after-days:400}") long afterDays,
+                               @Value("${app.orders.archive.batch-size:500}") int batchSize,
+                               @Value("${app.orders.archive.interval-hours:24}") long intervalHours) {
+        if (afterDays <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Order archive age and batch size must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.archiveRepository = archiveRepository;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+        this.intervalHours = intervalHours;
+        this.job = new TenantBackgroundJob<>("Order archive run", tenantRegistry, this::archive);
+    }
+
+    @PostConstruct
+    public void start() {
+        job.start(intervalHours);
+    }
+
+    @PreDestroy
+    public void stop() {
+        job.stop();
+    }
+
+    public Optional<Order> findArchived(String id) {
+        return archiveRepository.findById(id).map(ArchivedOrder::getOrder);
+    }
+
+    public void deleteArchived(String id) {
+        archiveRepository.deleteById(id);
+    }
+
+    /**
+     * Starts an archive run for the current tenant in the background.
+     * @return false if a run for the current tenant is already queued or in progress
+     */
+    public boolean trigger() {
+        return job.trigger();
+    }
+
+    public Map<String, Object> getLastRun() {
+        return job.getLastRun();
+    }
+
+    /**
+     * Archives the current tenant's closed orders placed more than the configured number of days ago.
+     * @return the number of orders archived
+     * @throws IllegalStateException if a run for the current tenant is already in progress
+     */
+    public long run() {
+        return job.run();
+    }
+
+    private long archive(Map<String, Object> status) {
+        long started = System.currentTimeMillis();
+        long archived = 0;
+        long skipped = 0;
+        archiveRepository.createCollection();
+        Date cutoff = new Date(started - TimeUnit.DAYS.toMillis(afterDays));
+        status.put("cutoff", cutoff);
+        status.put("archived", archived);
+        status.put("skipped", skipped);
+        // Archived orders leave the result set, so the first page is always the next batch
+        PageRequest firstPage = PageRequest.of(0, batchSize, Sort.by("orderDate"));
+        List<Order> batch;
+        while (!(batch = orderRepository.findByStatusInAndOrderDateBefore(CLOSED_STATUSES, cutoff, firstPage)).isEmpty()) {
+            List<ArchivedOrder> copies = new ArrayList<>(batch.size());
+            batch.forEach(order -> copies.add(new ArchivedOrder(order)));
+            archiveRepository.saveAll(copies);
+            for (Order order : batch) {
+                if (orderRepository.deleteIfRevision(order.getId(), order.getRevision())) {
+                    archived++;
+                } else {
+                    // Changed or deleted since it was read; if still closed it is picked up again
+                    archiveRepository.deleteById(order.getId());
+                    skipped++;
+                }
+            }
+            // Counted per batch, so a failed run still reports how far it got
+            status.put("archived", archived);
+            status.put("skipped", skipped);
+        }
+        log.info("Archived {} closed orders of tenant {} older than {} in {} ms", archived, TenantContext.current(), cutoff,
+            System.currentTimeMillis() - started);
+        return archived;
+    }
+}
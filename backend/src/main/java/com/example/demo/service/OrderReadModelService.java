@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the denormalized fields on orders: order total, item count and a product
+ * name/supplier snapshot on each item. They are written in the same document as the items,
+ * so every order save updates them atomically.
+ */
+@Service
+public class OrderReadModelService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReadModelService.class);
+
+    private final ProductRepository productRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public OrderReadModelService(ProductRepository productRepository, MongoTemplate mongoTemplate) {
+        this.productRepository = productRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Fills the read model fields, looking up the referenced products in one query.
+     */
+    public void refresh(Order order) {
+        apply(order, loadProducts(List.of(order)));
+    }
+
+    /**
+     * Fills the read model fields from already loaded products.
+     * Items whose product is unknown keep whatever snapshot they already had.
+     */
+    public static void apply(Order order, Map<String, Product> products) {
+        List<OrderItem> items = order.getItems() == null ? List.of() : order.getItems();
+        double total = 0;
+        for (OrderItem item : items) {
+            Product product = products.get(item.getProductId());
+            if (product != null) {
+                item.setProductName(product.getName());
+                item.setSupplierId(product.getSupplierId());
+            }
+            if (item.getPrice() != null && item.getQuantity() != null) {
+                total += item.getPrice() * item.getQuantity();
+            }
+        }
+        order.setTotal(total);
+        order.setItemCount(items.size());
+    }
+
+    /**
+     * Computes the read model for orders written before it existed.
+     * Streams the orders missing a total and writes them back in bulk batches. An order updated
+     * after it was read is skipped; every save fills the read model itself.
+     * @return the number of orders updated
+     */
+    public long backfill(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        Query missing = Query.query(Criteria.where("total").exists(false));
+        missing.fields().include("items").include("revision");
+        long updated = 0;
+        List<Order> batch = new ArrayList<>(batchSize);
+        try (Stream<Order> stream = mongoTemplate.stream(missing, Order.class)) {
+            Iterator<Order> orders = stream.iterator();
+            while (orders.hasNext()) {
+                batch.add(orders.next());
+                if (batch.size() == batchSize) {
+                    updated += writeBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        updated += writeBatch(batch);
+        log.info("Backfilled order read model for {} orders", updated);
+        return updated;
+    }
+
+    private long writeBatch(List<Order> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<String, Product> products = loadProducts(batch);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        for (Order order : batch) {
+            apply(order, products);
+            // Only if the order is unchanged since it was read, so a concurrent save is not overwritten
+            Query unchanged = Query.query(Criteria.where("_id").is(order.getId())
+                .and("revision").is(order.getRevision())
+                .and("total").exists(false));
+            bulk.updateOne(unchanged, new Update()
+                .set("items", order.getItems())
+                .set("total", order.getTotal())
+                .set("itemCount", order.getItemCount())
+                .inc("revision", 1));
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    private Map<String, Product> loadProducts(List<Order> orders) {
+        Set<String> productIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getItems() != null) {
+                order.getItems().forEach(item -> productIds.add(item.getProductId()));
+            }
+        }
+        productIds.remove(null);
+        Map<String, Product> products = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            productRepository.findAllById(productIds).forEach(product -> products.put(product.getId(), product));
+        }
+        return products;
+    }
+}
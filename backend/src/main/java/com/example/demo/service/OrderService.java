@@ -1,47 +1,76 @@
 package com.example.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
+import com.example.demo.model.OrderSummary;
+import com.example.demo.model.SupplierScorecard;
 import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.OrderItemsRepository;
 
 @Service
 public class OrderService {
 
+    private static final int UPDATE_ATTEMPTS = 3;
+
     private final OrderRepository orderRepository;
     private final OrderItemsRepository orderItemsRepository;
+    private final OrderReadModelService readModelService;
+    private final SupplierScorecardService scorecardService;
+    private final OrderArchiveService archiveService;
 
     @Autowired
-    public OrderService(OrderRepository orderRepository, OrderItemsRepository orderItemsRepository) {
+    public OrderService(OrderRepository orderRepository, OrderItemsRepository orderItemsRepository,
+                        OrderReadModelService readModelService, SupplierScorecardService scorecardService,
+                        OrderArchiveService archiveService) {
         this.orderRepository = orderRepository;
         this.orderItemsRepository = orderItemsRepository;
+        this.readModelService = readModelService;
+        this.scorecardService = scorecardService;
+        this.archiveService = archiveService;
     }
 
-    public List<Order> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        orders.forEach(order -> {
-            if (order.getItems() == null) {
-                order.setItems(List.of());
-            }
-        });
-        return orders;
+    /**
+     * Streams all orders; the caller must close the stream.
+     */
+    public Stream<Order> streamAllOrders() {
+        return orderRepository.streamAllBy();
+    }
+
+    /**
+     * Lists order summaries for table views
+     * @param status optional status filter, null for all orders
+     * @return summaries with item count and total, newest first
+     */
+    public List<OrderSummary> getOrderSummaries(String status) {
+        return orderRepository.findSummaries(status);
     }
 
     public Optional<Order> getOrderById(String id) {
         if (id == null) {
             throw new IllegalArgumentException("Order ID cannot be null");
         }
-        return orderRepository.findById(id);
+        // Closed orders past the archive age are only found in the archive
+        return orderRepository.findById(id).or(() -> archiveService.findArchived(id));
     }
 
     public List<OrderItem> getOrderItems(String orderId) {
         return orderItemsRepository.findItemsById(orderId);
     }
 
+    /**
+     * Creates or fully replaces an order.
+     * The replace is a compare-and-set on the revision of the stored order, retried on a concurrent
+     * update, so the scorecards are adjusted by exactly the difference this save made.
+     * @throws IllegalStateException if the order is archived or keeps being updated concurrently
+     */
     public Order saveOrder(Order order) {
         if (order == null) {
             throw new IllegalArgumentException("Order cannot be null");
@@ -49,45 +78,145 @@ public class OrderService {
         if (order.getOrderDate() == null) {
             throw new IllegalArgumentException("Order date is required");
         }
-        return orderRepository.save(order);
+        setFulfilledAt(order);
+        readModelService.refresh(order);
+        for (int attempt = 0; attempt < UPDATE_ATTEMPTS; attempt++) {
+            Optional<Order> current = order.getId() == null ? Optional.empty() : orderRepository.findById(order.getId());
+            if (current.isEmpty()) {
+                if (order.getId() != null) {
+                    rejectIfArchived(order.getId());
+                }
+                order.setRevision(null);
+                try {
+                    Order saved = orderRepository.insert(order);
+                    scorecardService.recordChange(Map.of(), SupplierScorecardService.contributions(saved));
+                    return saved;
+                } catch (DuplicateKeyException e) {
+                    // Created concurrently under the same id; replace it on the next attempt
+                    if (order.getId() == null || orderRepository.findById(order.getId()).isEmpty()) {
+                        throw e;
+                    }
+                    continue;
+                }
+            }
+            Map<String, SupplierScorecard> before = SupplierScorecardService.contributions(current.get());
+            if (orderRepository.replaceIfRevision(order, current.get().getRevision())) {
+                scorecardService.recordChange(before, SupplierScorecardService.contributions(order));
+                return order;
+            }
+        }
+        throw new IllegalStateException("Order " + order.getId() + " is being updated concurrently");
     }
 
+    /**
+     * Replaces the items of an order, with the same compare-and-set as {@link #saveOrder}.
+     * @throws IllegalStateException if the order is archived or keeps being updated concurrently
+     */
     public void updateOrderItems(String orderId, List<OrderItem> items) {
         if (orderId == null) {
             throw new IllegalArgumentException("Order ID cannot be null");
         }
-        Order order = orderRepository.findById(orderId)
-            .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-        order.setItems(items);
-        orderRepository.save(order);
+        for (int attempt = 0; attempt < UPDATE_ATTEMPTS; attempt++) {
+            Order order = findHotOrder(orderId);
+            Long revision = order.getRevision();
+            Map<String, SupplierScorecard> before = SupplierScorecardService.contributions(order);
+            order.setItems(items);
+            readModelService.refresh(order);
+            if (orderRepository.replaceIfRevision(order, revision)) {
+                scorecardService.recordChange(before, SupplierScorecardService.contributions(order));
+                return;
+            }
+        }
+        throw new IllegalStateException("Order " + orderId + " is being updated concurrently");
+    }
+
+    /**
+     * Computes totals and product snapshots for orders saved before the read model existed
+     * @return the number of orders updated
+     */
+    public long backfillReadModel(int batchSize) {
+        return readModelService.backfill(batchSize);
     }
 
     public void deleteOrder(String id) {
         if (id == null) {
             throw new IllegalArgumentException("Order ID cannot be null");
         }
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isEmpty()) {
+            Optional<Order> archived = archiveService.findArchived(id);
+            if (archived.isPresent()) {
+                archiveService.deleteArchived(id);
+                scorecardService.recordChange(SupplierScorecardService.contributions(archived.get()), Map.of());
+            }
+            return;
+        }
         // Delete the order (items are embedded and will be deleted automatically)
         orderRepository.deleteById(id);
+        scorecardService.recordChange(SupplierScorecardService.contributions(order.get()), Map.of());
     }
 
     public long countSuccessfulOrders() {
         return orderRepository.countByStatus(Order.STATUS_SUCCESS);
     }
 
-    public List<Order> getOrdersByStatus(String status) {
+    /**
+     * Streams the orders with a status; the caller must close the stream.
+     */
+    public Stream<Order> streamOrdersByStatus(String status) {
         if (status == null) {
             throw new IllegalArgumentException("Status cannot be null");
         }
-        return orderRepository.findByStatus(status);
+        return orderRepository.streamByStatus(status);
     }
 
     public Order updateOrderStatus(String id, String status) {
         if (id == null || status == null) {
             throw new IllegalArgumentException("ID and status cannot be null");
         }
-        return orderRepository.findById(id).map(order -> {
+        // Compare-and-set on the status, so each transition is counted in the scorecards exactly once
+        for (int attempt = 0; attempt < UPDATE_ATTEMPTS; attempt++) {
+            Order order = findHotOrder(id);
+            String previousStatus = order.getStatus();
+            if (status.equals(previousStatus)) {
+                return order;
+            }
+            Map<String, SupplierScorecard> before = SupplierScorecardService.contributions(order);
             order.setStatus(status);
-            return orderRepository.save(order);
-        }).orElseThrow(() -> new IllegalArgumentException("Order not found"));
+            setFulfilledAt(order);
+            if (orderRepository.updateStatus(id, previousStatus, status, order.getFulfilledAt())) {
+                scorecardService.recordChange(before, SupplierScorecardService.contributions(order));
+                return order;
+            }
+        }
+        throw new IllegalStateException("Order " + id + " is being updated concurrently");
+    }
+
+    /**
+     * Finds an order that can still be modified.
+     * @throws IllegalArgumentException if there is no such order
+     * @throws IllegalStateException if the order has been archived
+     */
+    private Order findHotOrder(String id) {
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isEmpty()) {
+            rejectIfArchived(id);
+            throw new IllegalArgumentException("Order not found");
+        }
+        return order.get();
+    }
+
+    private void rejectIfArchived(String id) {
+        if (archiveService.findArchived(id).isPresent()) {
+            throw new IllegalStateException("Order " + id + " is archived and can no longer be modified");
+        }
+    }
+
+    private static void setFulfilledAt(Order order) {
+        if (!Order.isFulfilledStatus(order.getStatus())) {
+            order.setFulfilledAt(null);
+        } else if (order.getFulfilledAt() == null) {
+            order.setFulfilledAt(new Date());
+        }
     }
 }
\ No newline at end of file
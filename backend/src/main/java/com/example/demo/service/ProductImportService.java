@@ -0,0 +1,323 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.model.Inventory;
+import com.example.demo.model.Product;
+import com.example.demo.model.StockMovement;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of products, and optionally their inventory, from CSV.
+ * The upload is parsed as it streams in and cut into batches; batches are validated and
+ * upserted in parallel on a fixed pool, with a bounded number in flight so a fast upload cannot
+ * outrun the database. Each batch's result is reported as soon as it completes.
+ * <p>
+ * Columns, by header name: id, name and price are required; description, supplierId, quantity
+ * and location are optional. Rows are validated like {@link ProductService#saveProduct}. A row
+ * with a quantity also sets the product's inventory, recorded in the stock ledger like a manual
+ * inventory update. If an ID appears more than once, the last row wins within a batch; across
+ * batches the order is not defined.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+    private static final List<String> REQUIRED_COLUMNS = List.of("id", "name", "price");
+
+    /**
+     * Receives progress reports on the importing thread, in completion order.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Map<String, Object> progress) throws IOException;
+    }
+
+    private record Row(int line, List<String> fields) {
+    }
+
+    private record BatchResult(int firstLine, int lastLine, int rows, int products, int inventory, int failed,
+                               List<Map<String, Object>> errors) {
+    }
+
+    private static final class Totals {
+        int rows;
+        int products;
+        int inventory;
+        int failed;
+
+        void add(BatchResult result) {
+            rows += result.rows();
+            products += result.products();
+            inventory += result.inventory();
+            failed += result.failed();
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockLedgerService stockLedgerService;
+    private final InventoryAdjustmentBuffer adjustmentBuffer;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService pool;
+
+    @Autowired
+    public ProductImportService(ProductRepository productRepository,
+                                InventoryRepository inventoryRepository,
+                                StockLedgerService stockLedgerService,
+                                InventoryAdjustmentBuffer adjustmentBuffer,
+                                @Value("${app.import.batch-size:1000}") int batchSize,
+                                @Value("${app.import.parallelism:0}") int parallelism) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Import batch size must be positive");
+        }
+        this.productRepository = productRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.adjustmentBuffer = adjustmentBuffer;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "product-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Imports a CSV upload, reporting each batch to the listener as it completes.
+     * @return totals for the whole import
+     * @throws IllegalArgumentException if the header lacks a required column or the CSV is malformed;
+     *         the header is checked before anything is imported or reported
+     */
+    public Map<String, Object> importCsv(InputStream in, ProgressListener listener) throws IOException {
+        long started = System.currentTimeMillis();
+        CsvRowReader reader = new CsvRowReader(in);
+        Map<String, Integer> columns = readHeader(reader.next());
+        String actor = StockLedgerService.currentActor();
+        String tenant = TenantContext.current();
+
+        CompletionService<BatchResult> completion = new ExecutorCompletionService<>(pool);
+        int maxInFlight = parallelism * 2;
+        int inFlight = 0;
+        Totals totals = new Totals();
+
+        List<Row> batch = new ArrayList<>(batchSize);
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            batch.add(new Row(reader.getRecordLine(), fields));
+            if (batch.size() == batchSize) {
+                List<Row> rows = batch;
+                completion.submit(() -> importBatch(rows, columns, actor, tenant));
+                batch = new ArrayList<>(batchSize);
+                if (++inFlight == maxInFlight) {
+                    report(take(completion), totals, listener);
+                    inFlight--;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            List<Row> rows = batch;
+            completion.submit(() -> importBatch(rows, columns, actor, tenant));
+            inFlight++;
+        }
+        for (; inFlight > 0; inFlight--) {
+            report(take(completion), totals, listener);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", totals.rows);
+        result.put("products", totals.products);
+        result.put("inventory", totals.inventory);
+        result.put("failed", totals.failed);
+        result.put("elapsedMs", System.currentTimeMillis() - started);
+        log.info("Imported products from CSV: {}", result);
+        return result;
+    }
+
+    private static Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("The CSV header must contain the columns " + REQUIRED_COLUMNS);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Runs on a pool thread, in the tenant of the upload.
+     */
+    private BatchResult importBatch(List<Row> rows, Map<String, Integer> columns, String actor, String tenant) {
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            return importBatch(rows, columns, actor);
+        }
+    }
+
+    private BatchResult importBatch(List<Row> rows, Map<String, Integer> columns, String actor) {
+        List<Map<String, Object>> errors = new ArrayList<>();
+        Map<String, Product> products = new LinkedHashMap<>();
+        Map<String, Inventory> inventory = new LinkedHashMap<>();
+        for (Row row : rows) {
+            try {
+                Product product = toProduct(row.fields(), columns);
+                products.put(product.getId(), product);
+                String quantity = field(row.fields(), columns, "quantity");
+                if (quantity != null) {
+                    inventory.put(product.getId(), new Inventory(product.getId(), parseQuantity(quantity),
+                        field(row.fields(), columns, "location")));
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(error(row.line(), e.getMessage()));
+            }
+        }
+
+        int firstLine = rows.get(0).line();
+        int lastLine = rows.get(rows.size() - 1).line();
+        try {
+            productRepository.upsertAll(new ArrayList<>(products.values()));
+            if (!inventory.isEmpty()) {
+                upsertInventory(new ArrayList<>(inventory.values()), actor);
+            }
+        } catch (RuntimeException e) {
+            log.error("Import of CSV lines {}-{} failed", firstLine, lastLine, e);
+            errors.add(error(firstLine, "Lines " + firstLine + "-" + lastLine + " could not be written: " + e.getMessage()));
+            int invalid = errors.size() - 1;
+            return new BatchResult(firstLine, lastLine, rows.size(), 0, 0, invalid + products.size(), errors);
+        }
+        return new BatchResult(firstLine, lastLine, rows.size(), products.size(), inventory.size(), errors.size(),
+            errors);
+    }
+
+    /**
+     * Sets imported quantities and records the change from the previous quantity in the ledger.
+     * Like {@link InventoryService#setInventory}, the quantities are set atomically after the adjustment
+     * buffer has been flushed, and the ledger deltas are taken against the values that were replaced.
+     */
+    private void upsertInventory(List<Inventory> rows, String actor) {
+        Map<String, Integer> previous = adjustmentBuffer.flushAndRun(() -> inventoryRepository.setQuantities(rows));
+        List<StockMovement> movements = new ArrayList<>();
+        for (Inventory row : rows) {
+            int delta = row.getQuantity() - previous.getOrDefault(row.getProductId(), 0);
+            if (delta != 0) {
+                movements.add(new StockMovement(row.getProductId(), delta, StockMovement.REASON_IMPORT, actor));
+            }
+        }
+        stockLedgerService.record(movements);
+    }
+
+    private static Product toProduct(List<String> fields, Map<String, Integer> columns) {
+        String id = field(fields, columns, "id");
+        if (id == null) {
+            throw new IllegalArgumentException("Product ID is required");
+        }
+        String price = field(fields, columns, "price");
+        Product product = new Product(id, field(fields, columns, "name"), field(fields, columns, "description"),
+            price == null ? 0 : parsePrice(price), field(fields, columns, "supplierid"), null);
+        ProductService.validateProduct(product);
+        return product;
+    }
+
+    private static double parsePrice(String price) {
+        try {
+            double value = Double.parseDouble(price);
+            if (!Double.isFinite(value) || value < 0) {
+                throw new IllegalArgumentException("Invalid price '" + price + "'");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price '" + price + "'");
+        }
+    }
+
+    private static int parseQuantity(String quantity) {
+        try {
+            int value = Integer.parseInt(quantity);
+            if (value < 0) {
+                throw new IllegalArgumentException("Quantity cannot be negative");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid quantity '" + quantity + "'");
+        }
+    }
+
+    /**
+     * @return the trimmed value of the column, or null if the column is absent or blank
+     */
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Map<String, Object> error(int line, String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("line", line);
+        error.put("message", message);
+        return error;
+    }
+
+    private static BatchResult take(CompletionService<BatchResult> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import batch failed", e.getCause());
+        }
+    }
+
+    private static void report(BatchResult result, Totals totals, ProgressListener listener) throws IOException {
+        totals.add(result);
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("firstLine", result.firstLine());
+        progress.put("lastLine", result.lastLine());
+        progress.put("rows", result.rows());
+        progress.put("products", result.products());
+        progress.put("inventory", result.inventory());
+        progress.put("failed", result.failed());
+        progress.put("errors", result.errors());
+        listener.onProgress(progress);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.example.demo.model.Product;
+import com.example.demo.model.ProductSummary;
 import com.example.demo.repository.ProductRepository;
 
 import java.util.List;
@@ -19,7 +20,11 @@ public class ProductService {
     }
 
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return productRepository.findAllForCatalog();
+    }
+
+    public List<ProductSummary> getProductSummaries() {
+        return productRepository.findAllSummaries();
     }
 
     public Optional<Product> getProductById(String id) {
@@ -33,6 +38,15 @@ public class ProductService {
      * @throws IllegalArgumentException if product is null or missing required fields
      */
     public Product saveProduct(Product product) {
+        validateProduct(product);
+        return productRepository.save(product);
+    }
+
+    /**
+     * Checks the fields required for every product write, including bulk imports
+     * @throws IllegalArgumentException if product is null or missing required fields
+     */
+    public static void validateProduct(Product product) {
         if (product == null) {
             throw new IllegalArgumentException("Product cannot be null");
         }
@@ -42,7 +56,6 @@ public class ProductService {
         if (product.getPrice() == 0) {
             throw new IllegalArgumentException("Product price is required");
         }
-        return productRepository.save(product);
     }
 
     public void deleteProduct(String id) {
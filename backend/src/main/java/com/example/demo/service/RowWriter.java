@@ -0,0 +1,14 @@
+package com.example.demo.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes tabular data one row at a time, so exports never hold more than the current row.
+ * Values may be null, strings, numbers or booleans; closing finishes the document but leaves
+ * the underlying stream open.
+ */
+interface RowWriter extends Closeable {
+
+    void writeRow(Object... values) throws IOException;
+}
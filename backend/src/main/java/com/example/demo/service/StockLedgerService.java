@@ -0,0 +1,204 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TenantRegistry;
+import com.example.demo.model.StockLedgerCheckpoint;
+import com.example.demo.model.StockMovement;
+import com.example.demo.model.StockSnapshot;
+import com.example.demo.repository.StockLedgerCheckpointRepository;
+import com.example.demo.repository.StockLedgerRepository;
+import com.example.demo.repository.StockLedgerRepositoryCustomImpl;
+import com.example.demo.repository.StockSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only history of stock movements. Movements are stored in per-product buckets and
+ * periodically folded into per-product snapshots, so a product's balance is rebuilt from its
+ * snapshot plus the movements since, however long the history grows.
+ */
+@Service
+public class StockLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+    private static final String SYSTEM_ACTOR = "system";
+    private static final int SNAPSHOT_BATCH_SIZE = 1000;
+
+    private final StockLedgerRepository ledgerRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final StockLedgerCheckpointRepository checkpointRepository;
+    private final TenantRegistry tenantRegistry;
+    private final long compactionIntervalMinutes;
+    private final long compactionLagMinutes;
+
+    private ScheduledExecutorService compactor;
+
+    @Autowired
+    public StockLedgerService(StockLedgerRepository ledgerRepository,
+                              StockSnapshotRepository snapshotRepository,
+                              StockLedgerCheckpointRepository checkpointRepository,
+                              TenantRegistry tenantRegistry,
+                              @Value("${app.inventory.ledger.compaction-interval-minutes:60}") long compactionIntervalMinutes,
+                              @Value("${app.inventory.ledger.compaction-lag-minutes:10}") long compactionLagMinutes) {
+        this.ledgerRepository = ledgerRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.compactionIntervalMinutes = compactionIntervalMinutes;
+        this.compactionLagMinutes = compactionLagMinutes;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (compactionIntervalMinutes <= 0) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-ledger-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> tenantRegistry.forEachTenant("Stock ledger compaction", this::compact),
+            compactionIntervalMinutes, compactionIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (compactor != null) {
+            compactor.shutdown();
+        }
+    }
+
+    /**
+     * Name of the authenticated user, or "system" outside of a request.
+     */
+    public static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication.getName() == null
+                || "anonymousUser".equals(authentication.getName())) {
+            return SYSTEM_ACTOR;
+        }
+        return authentication.getName();
+    }
+
+    public void record(List<StockMovement> movements) {
+        if (!movements.isEmpty()) {
+            ledgerRepository.append(movements);
+        }
+    }
+
+    /**
+     * Records movements that all carry the same reference, skipping products that already have a
+     * movement with it, so that a write replayed after a crash is not recorded twice.
+     */
+    public void recordOnce(String reference, List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Set<String> recorded = ledgerRepository.findProductsWithReference(reference,
+            movements.stream().map(StockMovement::getProductId).toList());
+        record(movements.stream().filter(movement -> !recorded.contains(movement.getProductId())).toList());
+    }
+
+    /**
+     * Records movements through a session-bound template, as part of the caller's transaction.
+     */
+    public static void recordInSession(MongoTemplate tx, List<StockMovement> movements) {
+        if (!movements.isEmpty()) {
+            new StockLedgerRepositoryCustomImpl(tx).append(movements);
+        }
+    }
+
+    public List<StockMovement> getMovements(String productId, Date from, Date to) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (from != null && to != null && from.after(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        return ledgerRepository.findMovements(productId, from, to);
+    }
+
+    /**
+     * Rebuilds a product's current quantity from the ledger.
+     */
+    public Map<String, Object> getBalance(String productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        StockSnapshot snapshot = snapshotRepository.findById(productId).orElseGet(() -> new StockSnapshot(productId));
+        int quantity = snapshot.getQuantity() + ledgerRepository.sumMovements(productId, snapshot.getAsOf());
+        Map<String, Object> balance = new LinkedHashMap<>();
+        balance.put("productId", productId);
+        balance.put("quantity", quantity);
+        balance.put("snapshotAsOf", snapshot.getAsOf());
+        return balance;
+    }
+
+    /**
+     * Folds the current tenant's movements older than the compaction lag into the product snapshots.
+     * Movements must be recorded within the lag of their timestamp to be included.
+     * @return the number of products whose snapshot was updated
+     */
+    public synchronized int compact() {
+        StockLedgerCheckpoint checkpoint = checkpointRepository.findById(StockLedgerCheckpoint.COMPACTION)
+            .orElseGet(() -> new StockLedgerCheckpoint(StockLedgerCheckpoint.COMPACTION));
+        Date watermark = checkpoint.getWatermark();
+        Date cutoff = checkpoint.getPendingCutoff() != null
+            ? checkpoint.getPendingCutoff()
+            : new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(compactionLagMinutes));
+        if (watermark != null && !cutoff.after(watermark)) {
+            return 0;
+        }
+        checkpoint.setPendingCutoff(cutoff);
+        checkpointRepository.save(checkpoint);
+
+        Map<String, long[]> sums = ledgerRepository.sumMovementsByProduct(watermark, cutoff);
+        List<String> productIds = new ArrayList<>(sums.keySet());
+        int updated = 0;
+        for (int from = 0; from < productIds.size(); from += SNAPSHOT_BATCH_SIZE) {
+            List<String> batch = productIds.subList(from, Math.min(from + SNAPSHOT_BATCH_SIZE, productIds.size()));
+            Map<String, StockSnapshot> snapshots = new LinkedHashMap<>();
+            batch.forEach(productId -> snapshots.put(productId, new StockSnapshot(productId)));
+            snapshotRepository.findAllById(batch).forEach(snapshot -> snapshots.put(snapshot.getProductId(), snapshot));
+            List<StockSnapshot> changed = new ArrayList<>();
+            for (StockSnapshot snapshot : snapshots.values()) {
+                if (snapshot.getAsOf() != null && !snapshot.getAsOf().before(cutoff)) {
+                    // Already folded by an interrupted run with the same cutoff
+                    continue;
+                }
+                long[] sum = sums.get(snapshot.getProductId());
+                snapshot.setQuantity(snapshot.getQuantity() + (int) sum[0]);
+                snapshot.setMovementCount(snapshot.getMovementCount() + sum[1]);
+                snapshot.setAsOf(cutoff);
+                changed.add(snapshot);
+            }
+            snapshotRepository.saveAll(changed);
+            updated += changed.size();
+        }
+
+        checkpoint.setWatermark(cutoff);
+        checkpoint.setPendingCutoff(null);
+        checkpointRepository.save(checkpoint);
+        log.info("Compacted stock ledger of tenant {} up to {}: {} snapshots updated", TenantContext.current(), cutoff, updated);
+        return updated;
+    }
+}
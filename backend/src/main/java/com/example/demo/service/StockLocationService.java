@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.config.MongoTransactionRunner;
+import com.example.demo.model.Inventory;
+import com.example.demo.model.StockLocation;
+import com.example.demo.model.StockMovement;
+import com.example.demo.model.StockTransfer;
+import com.example.demo.repository.StockLocationRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Per-warehouse stock. Every change to a location also updates the product's Inventory
+ * quantity and the stock ledger in the same transaction. Inventory remains the available stock
+ * that checkout and adjustments work on, so it is not necessarily the sum of the locations
+ * (see StockLocation).
+ */
+@Service
+public class StockLocationService {
+
+    private final MongoTransactionRunner transactionRunner;
+    private final StockLocationRepository stockLocationRepository;
+
+    @Autowired
+    public StockLocationService(MongoTransactionRunner transactionRunner, StockLocationRepository stockLocationRepository) {
+        this.transactionRunner = transactionRunner;
+        this.stockLocationRepository = stockLocationRepository;
+    }
+
+    public List<StockLocation> getLocationsByProductId(String productId) {
+        return stockLocationRepository.findByProductId(productId);
+    }
+
+    public List<StockLocation> getLocationsByWarehouse(String warehouse) {
+        return stockLocationRepository.findByWarehouse(warehouse);
+    }
+
+    /**
+     * Adds or removes stock at one location and updates the product total with it.
+     * @return the updated location
+     * @throws IllegalArgumentException if the product, warehouse or bin is missing or delta is zero
+     * @throws IllegalStateException if removing more than the location or the product total holds
+     */
+    public StockLocation adjustStock(String productId, String warehouse, String bin, int delta) {
+        requireLocation(productId, warehouse, bin);
+        if (delta == 0) {
+            throw new IllegalArgumentException("Delta must not be zero");
+        }
+        return transactionRunner.execute(tx -> {
+            StockLocation location = changeLocation(tx, productId, warehouse, bin, delta);
+            changeTotal(tx, productId, delta);
+            StockLedgerService.recordInSession(tx, List.of(
+                movement(productId, warehouse, bin, delta, StockMovement.REASON_LOCATION_ADJUSTMENT)));
+            return location;
+        });
+    }
+
+    /**
+     * Moves stock between two locations of the same product atomically. The product total is unchanged.
+     * @return the product's locations after the transfer
+     * @throws IllegalArgumentException if a location is missing, both are the same or quantity is not positive
+     * @throws IllegalStateException if the source location does not hold enough stock
+     */
+    public List<StockLocation> transfer(String productId, StockTransfer transfer) {
+        requireLocation(productId, transfer.getFromWarehouse(), transfer.getFromBin());
+        requireLocation(productId, transfer.getToWarehouse(), transfer.getToBin());
+        if (transfer.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Transfer quantity must be positive");
+        }
+        String fromId = StockLocation.idFor(productId, transfer.getFromWarehouse(), transfer.getFromBin());
+        if (fromId.equals(StockLocation.idFor(productId, transfer.getToWarehouse(), transfer.getToBin()))) {
+            throw new IllegalArgumentException("Source and destination must differ");
+        }
+        transactionRunner.execute(tx -> {
+            changeLocation(tx, productId, transfer.getFromWarehouse(), transfer.getFromBin(), -transfer.getQuantity());
+            changeLocation(tx, productId, transfer.getToWarehouse(), transfer.getToBin(), transfer.getQuantity());
+            StockLedgerService.recordInSession(tx, List.of(
+                movement(productId, transfer.getFromWarehouse(), transfer.getFromBin(), -transfer.getQuantity(),
+                    StockMovement.REASON_TRANSFER),
+                movement(productId, transfer.getToWarehouse(), transfer.getToBin(), transfer.getQuantity(),
+                    StockMovement.REASON_TRANSFER)));
+            return null;
+        });
+        return stockLocationRepository.findByProductId(productId);
+    }
+
+    private StockLocation changeLocation(MongoTemplate tx, String productId, String warehouse, String bin, int delta) {
+        String id = StockLocation.idFor(productId, warehouse, bin);
+        if (delta < 0) {
+            Query inStock = Query.query(Criteria.where("_id").is(id).and("quantity").gte(-delta));
+            UpdateResult result = tx.updateFirst(inStock, new Update().inc("quantity", delta), StockLocation.class);
+            if (result.getModifiedCount() == 0) {
+                throw new IllegalStateException("Insufficient stock for product " + productId
+                    + " at " + warehouse + " / " + bin);
+            }
+        } else {
+            tx.upsert(Query.query(Criteria.where("_id").is(id)), new Update()
+                .inc("quantity", delta)
+                .setOnInsert("productId", productId)
+                .setOnInsert("warehouse", warehouse)
+                .setOnInsert("bin", bin), StockLocation.class);
+        }
+        return tx.findById(id, StockLocation.class);
+    }
+
+    private void changeTotal(MongoTemplate tx, String productId, int delta) {
+        if (delta < 0) {
+            Query available = Query.query(Criteria.where("_id").is(productId).and("quantity").gte(-delta));
+            UpdateResult result = tx.updateFirst(available, new Update().inc("quantity", delta), Inventory.class);
+            if (result.getModifiedCount() == 0) {
+                // The location has the stock but it is already reserved by orders
+                throw new IllegalStateException("Insufficient available stock for product " + productId);
+            }
+        } else {
+            tx.upsert(Query.query(Criteria.where("_id").is(productId)), new Update().inc("quantity", delta), Inventory.class);
+        }
+    }
+
+    private static StockMovement movement(String productId, String warehouse, String bin, int delta, String reason) {
+        StockMovement movement = new StockMovement(productId, delta, reason, StockLedgerService.currentActor());
+        movement.setWarehouse(warehouse);
+        movement.setBin(bin);
+        return movement;
+    }
+
+    private static void requireLocation(String productId, String warehouse, String bin) {
+        if (productId == null || productId.isBlank()) {
+            throw new IllegalArgumentException("Product ID is required");
+        }
+        if (warehouse == null || warehouse.isBlank() || bin == null || bin.isBlank()) {
+            throw new IllegalArgumentException("Warehouse and bin are required");
+        }
+        if (warehouse.contains("|") || bin.contains("|")) {
+            throw new IllegalArgumentException("Warehouse and bin must not contain '|'");
+        }
+    }
+}
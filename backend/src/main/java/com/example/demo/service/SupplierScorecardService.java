@@ -0,0 +1,190 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantLruCache;
+import com.example.demo.model.ArchivedOrder;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.SupplierScorecard;
+import com.example.demo.repository.ArchivedOrderRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.SupplierScorecardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Supplier performance: order volume, spend, fill rate and lead time.
+ * Every order write applies the difference between the order's contribution before and after
+ * the change as $inc updates, so scorecards never need a full-history scan. Reads are served
+ * from a short-lived local cache, bounded per tenant.
+ */
+@Service
+public class SupplierScorecardService {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierScorecardService.class);
+    private static final String ALL = "*";
+
+    private final SupplierScorecardRepository scorecardRepository;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final long cacheTtlMs;
+    private final TenantLruCache<String, Cached> cache;
+
+    private record Cached(Object value, long expiresAt) {
+    }
+
+    @Autowired
+    public SupplierScorecardService(SupplierScorecardRepository scorecardRepository,
+                                    OrderRepository orderRepository,
+                                    ArchivedOrderRepository archivedOrderRepository,
+                                    @Value("${app.supplier-scorecard.cache-ttl-seconds:60}") long cacheTtlSeconds,
+                                    @Value("${app.supplier-scorecard.cache-size:1000}") int cacheSize) {
+        this.scorecardRepository = scorecardRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.cacheTtlMs = cacheTtlSeconds * 1000;
+        this.cache = new TenantLruCache<>(cacheSize);
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlMs / 1000;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<SupplierScorecard> getScorecard(String supplierId) {
+        if (supplierId == null) {
+            throw new IllegalArgumentException("Supplier ID cannot be null");
+        }
+        return (Optional<SupplierScorecard>) cached(supplierId, () -> scorecardRepository.findById(supplierId));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<SupplierScorecard> getAllScorecards() {
+        return (List<SupplierScorecard>) cached(ALL, scorecardRepository::findAll);
+    }
+
+    /**
+     * What an order adds to each supplier's scorecard in its current state. Items are attributed
+     * through their supplier snapshot, falling back to the order's supplier.
+     */
+    public static Map<String, SupplierScorecard> contributions(Order order) {
+        Map<String, SupplierScorecard> result = new HashMap<>();
+        if (order == null || order.getItems() == null) {
+            return result;
+        }
+        boolean fulfilled = Order.isFulfilledStatus(order.getStatus());
+        boolean declined = Order.STATUS_DECLINED.equals(order.getStatus());
+        for (OrderItem item : order.getItems()) {
+            String supplierId = item.getSupplierId() != null ? item.getSupplierId() : order.getSupplierId();
+            if (supplierId == null) {
+                continue;
+            }
+            int units = item.getQuantity() == null ? 0 : item.getQuantity();
+            SupplierScorecard scorecard = result.computeIfAbsent(supplierId, key -> {
+                SupplierScorecard created = new SupplierScorecard(key);
+                created.setOrdersPlaced(1);
+                if (fulfilled) {
+                    created.setFulfilledOrders(1);
+                    if (order.getFulfilledAt() != null && order.getOrderDate() != null) {
+                        created.setLeadTimeTotalMs(order.getFulfilledAt().getTime() - order.getOrderDate().getTime());
+                    }
+                } else if (declined) {
+                    created.setDeclinedOrders(1);
+                }
+                return created;
+            });
+            scorecard.setUnitsOrdered(scorecard.getUnitsOrdered() + units);
+            if (fulfilled) {
+                scorecard.setFulfilledUnits(scorecard.getFulfilledUnits() + units);
+                if (item.getPrice() != null) {
+                    scorecard.setSpend(scorecard.getSpend() + item.getPrice() * units);
+                }
+            } else if (declined) {
+                scorecard.setDeclinedUnits(scorecard.getDeclinedUnits() + units);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies the change from an order's previous contribution to its new one.
+     * Failures are logged rather than thrown: the order write has already happened.
+     */
+    public void recordChange(Map<String, SupplierScorecard> before, Map<String, SupplierScorecard> after) {
+        Set<String> supplierIds = new HashSet<>(before.keySet());
+        supplierIds.addAll(after.keySet());
+        for (String supplierId : supplierIds) {
+            SupplierScorecard delta = new SupplierScorecard(supplierId);
+            if (after.containsKey(supplierId)) {
+                delta.add(after.get(supplierId), 1);
+            }
+            if (before.containsKey(supplierId)) {
+                delta.add(before.get(supplierId), -1);
+            }
+            if (delta.allZero()) {
+                continue;
+            }
+            try {
+                scorecardRepository.increment(delta);
+            } catch (RuntimeException e) {
+                log.error("Could not update scorecard for supplier {}", supplierId, e);
+            }
+            cache.remove(supplierId);
+            cache.remove(ALL);
+        }
+    }
+
+    public void recordPlaced(Order order) {
+        recordChange(Map.of(), contributions(order));
+    }
+
+    /**
+     * Recomputes all scorecards from the order history, including archived orders, for initial
+     * population or repair.
+     * Streams the orders; scorecard updates made while it runs may be lost.
+     * @return the number of scorecards written
+     */
+    public int rebuild() {
+        Map<String, SupplierScorecard> totals = new HashMap<>();
+        try (Stream<Order> orders = orderRepository.streamAllBy()) {
+            addContributions(totals, orders.iterator());
+        }
+        try (Stream<ArchivedOrder> archived = archivedOrderRepository.streamAllBy()) {
+            addContributions(totals, archived.map(ArchivedOrder::getOrder).iterator());
+        }
+        scorecardRepository.deleteAll();
+        scorecardRepository.saveAll(totals.values());
+        cache.clear();
+        return totals.size();
+    }
+
+    private static void addContributions(Map<String, SupplierScorecard> totals, Iterator<Order> orders) {
+        while (orders.hasNext()) {
+            contributions(orders.next()).forEach((supplierId, contribution) ->
+                totals.computeIfAbsent(supplierId, SupplierScorecard::new).add(contribution, 1));
+        }
+    }
+
+    private Object cached(String key, Supplier<Object> loader) {
+        long now = System.currentTimeMillis();
+        Cached entry = cache.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.value();
+        }
+        Object value = loader.get();
+        cache.put(key, new Cached(value, now + cacheTtlMs));
+        return value;
+    }
+}
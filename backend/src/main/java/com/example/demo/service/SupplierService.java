@@ -18,7 +18,7 @@ public class SupplierService {
     }
 
     public List<Supplier> findAllSuppliers() {
-        return supplierRepository.findAll();
+        return supplierRepository.findAllForCatalog();
     }
 
     public Optional<Supplier> findSupplierById(String id) {
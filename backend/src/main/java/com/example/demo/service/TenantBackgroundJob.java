@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TenantRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A long-running job that runs for every tenant on a fixed delay and can also be triggered for
+ * one tenant. Runs share a single background thread, so runs of different tenants queue behind
+ * each other, but only one run per tenant is queued or in progress at a time. The status of each
+ * tenant's last run is kept for the job's status endpoint.
+ * @param <T> the result of a run
+ */
+final class TenantBackgroundJob<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantBackgroundJob.class);
+
+    private final String name;
+    private final TenantRegistry tenantRegistry;
+    private final Function<Map<String, Object>, T> task;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Map<String, Map<String, Object>> lastRuns = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param name used for the background thread name and in log and error messages, e.g. "Order archive run"
+     * @param task runs the job for the current tenant; it receives the run's status to add its counters to
+     */
+    TenantBackgroundJob(String name, TenantRegistry tenantRegistry, Function<Map<String, Object>, T> task) {
+        this.name = name;
+        this.tenantRegistry = tenantRegistry;
+        this.task = task;
+    }
+
+    /**
+     * Starts the background thread and, if the interval is positive, the periodic runs for all tenants.
+     */
+    void start(long intervalHours) {
+        String threadName = name.toLowerCase().replace(' ', '-');
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (intervalHours > 0) {
+            scheduler.scheduleWithFixedDelay(() -> tenantRegistry.forEachTenant(name, this::run),
+                intervalHours, intervalHours, TimeUnit.HOURS);
+        }
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Queues a run for the current tenant.
+     * @return false if a run for the current tenant is already queued or in progress
+     */
+    boolean trigger() {
+        String tenant = TenantContext.current();
+        if (!running.add(tenant)) {
+            return false;
+        }
+        try {
+            scheduler.execute(TenantContext.wrap(() -> {
+                try {
+                    runReserved(tenant);
+                } catch (RuntimeException e) {
+                    log.error("{} failed for tenant {}", name, tenant, e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            running.remove(tenant);
+            throw e;
+        }
+        return true;
+    }
+
+    Map<String, Object> getLastRun() {
+        String tenant = TenantContext.current();
+        Map<String, Object> status = new LinkedHashMap<>(lastRuns.getOrDefault(tenant, Map.of()));
+        status.put("running", running.contains(tenant));
+        return status;
+    }
+
+    /**
+     * Runs the job for the current tenant on the calling thread.
+     * @throws IllegalStateException if a run for the current tenant is already queued or in progress
+     */
+    T run() {
+        String tenant = TenantContext.current();
+        if (!running.add(tenant)) {
+            throw new IllegalStateException(name + " is already in progress");
+        }
+        return runReserved(tenant);
+    }
+
+    private T runReserved(String tenant) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("startedAt", new Date());
+        try {
+            return task.apply(status);
+        } catch (RuntimeException e) {
+            status.put("error", e.getMessage());
+            throw e;
+        } finally {
+            status.put("finishedAt", new Date());
+            lastRuns.put(tenant, status);
+            running.remove(tenant);
+        }
+    }
+}
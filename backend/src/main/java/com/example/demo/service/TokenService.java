@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import com.example.demo.config.JwtUtils;
+import com.example.demo.config.Permissions;
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TokenRevocationList;
+import com.example.demo.model.RefreshToken;
+import com.example.demo.model.RevokedToken;
+import com.example.demo.model.User;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues short-lived access tokens with rotating refresh tokens, and revokes them.
+ * Each refresh replaces the refresh token; a replaced token presented again means it was
+ * copied, so its whole family is revoked and the user has to log in again.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private final JwtUtils jwtUtils;
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationList revocationList;
+    private final long refreshExpirationMs;
+    private final SecureRandom random = new SecureRandom();
+
+    public record TokenPair(String accessToken, String refreshToken, long expiresIn) {
+    }
+
+    @Autowired
+    public TokenService(JwtUtils jwtUtils,
+                        UserRepository userRepository,
+                        RefreshTokenRepository refreshTokenRepository,
+                        TokenRevocationList revocationList,
+                        @Value("${app.jwt.refresh.expiration.ms:1209600000}") long refreshExpirationMs) {
+        this.jwtUtils = jwtUtils;
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revocationList = revocationList;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /**
+     * Starts a new session for a user who has just authenticated.
+     */
+    public TokenPair issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token.
+     * @throws IllegalArgumentException if the token is unknown, expired, revoked or already used
+     */
+    public TokenPair refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new IllegalArgumentException("Refresh token is required");
+        }
+        Date now = new Date();
+        Optional<RefreshToken> found = refreshTokenRepository.markReplaced(hash(refreshToken), now);
+        if (found.isEmpty()) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        RefreshToken token = found.get();
+        if (token.getReplacedAt() != null) {
+            log.warn("Refresh token reuse for {}, revoking token family {}", token.getEmail(), token.getFamilyId());
+            refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        if (token.getExpiresAt() == null || !token.getExpiresAt().after(now)) {
+            throw new IllegalArgumentException("Refresh token has expired");
+        }
+        User user = userRepository.findByEmail(token.getEmail())
+            .filter(u -> u.getTokenEpoch() <= token.getEpoch())
+            .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        return issue(user, token.getFamilyId());
+    }
+
+    /**
+     * Revokes the presented access token and, if given, the session of the refresh token.
+     */
+    public void logout(Claims accessToken, String refreshToken) {
+        if (accessToken.getId() != null) {
+            revocationList.revoke(RevokedToken.token(accessToken.getId(), accessToken.getExpiration()));
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findById(hash(refreshToken))
+                .filter(token -> token.getEmail().equals(accessToken.getSubject()))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+        }
+    }
+
+    /**
+     * Ends every session of a user: access tokens issued so far are rejected and refresh tokens deleted.
+     * @return false if there is no such user in the current tenant
+     */
+    public boolean revokeAll(String email) {
+        Optional<User> found = findInCurrentTenant(email);
+        if (found.isEmpty()) {
+            return false;
+        }
+        endSessions(found.get());
+        return true;
+    }
+
+    /**
+     * Changes the role of a user and ends their sessions, so the new role applies from their next
+     * login instead of once their current access token expires.
+     * @return false if there is no such user in the current tenant
+     * @throws IllegalArgumentException if the role is unknown
+     */
+    public boolean changeRole(String email, String role) {
+        if (!Permissions.isRole(role)) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
+        Optional<User> found = findInCurrentTenant(email);
+        if (found.isEmpty()) {
+            return false;
+        }
+        User user = found.get();
+        user.setRole(role);
+        endSessions(user);
+        return true;
+    }
+
+    private Optional<User> findInCurrentTenant(String email) {
+        return userRepository.findByEmail(email)
+            .filter(user -> TenantContext.orDefault(user.getTenantId()).equals(TenantContext.current()));
+    }
+
+    private void endSessions(User user) {
+        String email = user.getEmail();
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        userRepository.save(user);
+        // Needed only until the last access token issued under the old epoch has expired
+        Date expiresAt = new Date(System.currentTimeMillis() + jwtUtils.getExpirationMs());
+        revocationList.revoke(RevokedToken.user(email, user.getTokenEpoch(), expiresAt));
+        refreshTokenRepository.deleteByEmail(email);
+    }
+
+    private TokenPair issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), user.getEmail(), familyId,
+            user.getTokenEpoch(), new Date(System.currentTimeMillis() + refreshExpirationMs)));
+        return new TokenPair(jwtUtils.generateToken(user), refreshToken, jwtUtils.getExpirationMs() / 1000);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
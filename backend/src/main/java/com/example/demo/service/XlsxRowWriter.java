@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming XLSX (Office Open XML) writer: sheet XML is deflated straight into the zip
+ * as rows arrive, with inline strings and no shared-string table or styles, so memory use does
+ * not grow with the row count. Rows beyond the Excel limit continue on a new sheet, with the
+ * header repeated.
+ */
+class XlsxRowWriter implements RowWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final String sheetName;
+    private Object[] header;
+    private int sheets;
+    private int rowsInSheet;
+
+    XlsxRowWriter(OutputStream out, String sheetName) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        this.sheetName = sheetName;
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        if (header == null) {
+            header = values.clone();
+        }
+        if (sheets == 0) {
+            startSheet();
+        } else if (rowsInSheet == MAX_ROWS_PER_SHEET) {
+            startSheet();
+            appendRow(header);
+        }
+        appendRow(values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sheets == 0) {
+            startSheet();
+        }
+        endSheet();
+        entry("[Content_Types].xml", contentTypes());
+        entry("_rels/.rels", XML_HEADER
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>");
+        entry("xl/workbook.xml", workbook());
+        entry("xl/_rels/workbook.xml.rels", workbookRels());
+        zip.finish();
+        zip.flush();
+    }
+
+    private void startSheet() throws IOException {
+        if (sheets > 0) {
+            endSheet();
+        }
+        sheets++;
+        rowsInSheet = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+        writer.write(XML_HEADER + "<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void appendRow(Object[] values) throws IOException {
+        rowsInSheet++;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowsInSheet));
+        writer.write("\">");
+        for (Object value : values) {
+            if (value == null) {
+                writer.write("<c/>");
+            } else if (value instanceof Number) {
+                writer.write("<c><v>");
+                writer.write(value.toString());
+                writer.write("</v></c>");
+            } else if (value instanceof Boolean bool) {
+                writer.write(bool ? "<c t=\"b\"><v>1</v></c>" : "<c t=\"b\"><v>0</v></c>");
+            } else {
+                writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writer.write(escape(value.toString()));
+                writer.write("</t></is></c>");
+            }
+        }
+        writer.write("</row>");
+    }
+
+    private void entry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+            .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+            .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+            .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+            .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        for (int i = 1; i <= sheets; i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+            .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+        for (int i = 1; i <= sheets; i++) {
+            String name = sheets == 1 ? sheetName : sheetName + " " + i;
+            xml.append("<sheet name=\"").append(escape(name)).append("\" sheetId=\"").append(i)
+                .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRels() {
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+            .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= sheets; i++) {
+            xml.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        return xml.append("</Relationships>").toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    // Control characters other than tab and line breaks are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
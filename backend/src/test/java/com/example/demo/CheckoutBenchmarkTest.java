@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import com.example.demo.model.Inventory;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.repository.InventoryRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.CheckoutService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares transactional checkout against plain order inserts.
+ * Needs a replica set (a single-node one is enough), e.g.
+ * mongod --replSet rs0 followed by rs.initiate(), then run with
+ * mvn test -Dtest=CheckoutBenchmarkTest -Dcheckout.benchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "checkout.benchmark", matches = "true")
+public class CheckoutBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private final List<String> createdOrderIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        productRepository.save(new Product("bench-prod1", "Bench Product 1", "benchmark", 10.0, null, null));
+        productRepository.save(new Product("bench-prod2", "Bench Product 2", "benchmark", 25.0, null, null));
+        inventoryRepository.save(new Inventory("bench-prod1", Integer.MAX_VALUE, "bench"));
+        inventoryRepository.save(new Inventory("bench-prod2", Integer.MAX_VALUE, "bench"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        orderRepository.deleteAllById(createdOrderIds);
+        productRepository.deleteAllById(List.of("bench-prod1", "bench-prod2"));
+        inventoryRepository.deleteAllById(List.of("bench-prod1", "bench-prod2"));
+    }
+
+    @Test
+    public void checkoutIsAtomicAndIdempotent() {
+        Order first = checkoutService.placeOrder(newOrder(), "bench-key");
+        Order retried = checkoutService.placeOrder(newOrder(), "bench-key");
+        createdOrderIds.add(first.getId());
+
+        assertEquals(first.getId(), retried.getId());
+        assertEquals(10.0, first.getItems().get(0).getPrice());
+        assertEquals(Integer.MAX_VALUE - 2, inventoryRepository.findById("bench-prod1").orElseThrow().getQuantity());
+        assertThrows(IllegalStateException.class, () -> {
+            Order tooLarge = newOrder();
+            tooLarge.getItems().get(0).setQuantity(Integer.MAX_VALUE);
+            checkoutService.placeOrder(tooLarge, null);
+        });
+    }
+
+    @Test
+    public void measureTransactionalOverhead() {
+        for (int i = 0; i < WARMUP; i++) {
+            createdOrderIds.add(orderRepository.save(newOrder()).getId());
+            createdOrderIds.add(checkoutService.placeOrder(newOrder(), null).getId());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            createdOrderIds.add(orderRepository.save(newOrder()).getId());
+        }
+        long plainNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            createdOrderIds.add(checkoutService.placeOrder(newOrder(), null).getId());
+        }
+        long checkoutNanos = System.nanoTime() - start;
+
+        System.out.printf("plain insert: %.1f us/op, transactional checkout: %.1f us/op (%.2fx)%n",
+            plainNanos / 1000.0 / ITERATIONS, checkoutNanos / 1000.0 / ITERATIONS,
+            (double) checkoutNanos / plainNanos);
+    }
+
+    private static Order newOrder() {
+        List<OrderItem> items = new ArrayList<>();
+        items.add(new OrderItem("bench-prod1", 2));
+        items.add(new OrderItem("bench-prod2", 1));
+        return new Order(null, new Date(), "bench-customer", items);
+    }
+}
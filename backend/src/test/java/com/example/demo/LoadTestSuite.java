@@ -0,0 +1,222 @@
+package com.example.demo;
+
+import com.example.demo.service.DataSetGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the main endpoint mixes against a generated data set and prints throughput and p50/p99 latency.
+ * Meant for a throwaway Mongo, see scripts/loadtest.sh. Sizes are controlled with
+ * -Dloadtest.products, -Dloadtest.orders, -Dloadtest.threads, -Dloadtest.users and -Dloadtest.seconds.
+ * Threads send requests with the bearer tokens of several load test users, created on first use.
+ * Rate limits and load shedding are off for the run, so the numbers measure the endpoints; 429s are
+ * still counted apart, and any other response than 2xx, such as insufficient stock, is an error.
+ * Throughput and latencies are of 2xx responses only.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "app.rate-limit.group.auth.capacity=0",
+    "app.rate-limit.group.bulk.capacity=0",
+    "app.rate-limit.group.orders-read.capacity=0",
+    "app.rate-limit.group.write.capacity=0",
+    "app.rate-limit.group.read.capacity=0",
+    "app.load-shedding.latency-threshold-ms=0",
+    "app.load-shedding.pool-wait-threshold-ms=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class LoadTestSuite {
+
+    private static final int PRODUCTS = Integer.getInteger("loadtest.products", 10_000);
+    private static final long ORDERS = Long.getLong("loadtest.orders", 200_000L);
+    private static final int THREADS = Integer.getInteger("loadtest.threads", 16);
+    private static final int SECONDS = Integer.getInteger("loadtest.seconds", 30);
+    private static final int USERS = Integer.getInteger("loadtest.users", THREADS);
+    private static final String PASSWORD = "loadtest-password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSetGenerator generator;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final List<String> tokens = new ArrayList<>();
+    // The token of the user the current load thread sends requests as
+    private final ThreadLocal<String> token = new ThreadLocal<>();
+
+    @BeforeAll
+    public void logIn() throws Exception {
+        for (int u = 0; u < USERS; u++) {
+            String credentials = objectMapper.writeValueAsString(
+                Map.of("name", "Load Test " + u, "email", "loadtest" + u + "@example.com", "password", PASSWORD));
+            // Fails harmlessly if the user exists from an earlier run
+            client.send(post("/api/auth/signup", credentials), HttpResponse.BodyHandlers.discarding());
+            HttpResponse<String> response = client.send(post("/api/auth/login", credentials), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), "login failed: " + response.body());
+            tokens.add(objectMapper.readTree(response.body()).get("token").asText());
+        }
+    }
+
+    @BeforeAll
+    public void loadDataSet() {
+        if (mongoTemplate.getCollection("orders").estimatedDocumentCount() >= ORDERS) {
+            return;
+        }
+        DataSetGenerator.Spec spec = new DataSetGenerator.Spec();
+        spec.products = PRODUCTS;
+        spec.orders = ORDERS;
+        generator.generate(spec);
+    }
+
+    @Test
+    public void catalogBrowsing() throws Exception {
+        run("catalog", n -> {
+            int roll = n % 100;
+            if (roll < 60) {
+                return get("/api/products/" + randomProduct());
+            } else if (roll < 80) {
+                return get("/api/inventory/" + randomProduct());
+            } else if (roll < 95) {
+                return get("/api/products");
+            }
+            return get("/api/suppliers");
+        });
+    }
+
+    @Test
+    public void orderReporting() throws Exception {
+        run("orders", n -> {
+            int roll = n % 100;
+            if (roll < 70) {
+                return get("/api/orders/count/successful");
+            }
+            return get("/api/orders/status/" + (roll < 90 ? "declined" : "pending"));
+        });
+    }
+
+    @Test
+    public void checkout() throws Exception {
+        run("checkout", n -> HttpRequest.newBuilder(uri("/api/orders/checkout"))
+            .header("Content-Type", "application/json")
+            .header("Authorization", "Bearer " + token.get())
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"customerId\":\"load-cust\",\"items\":[{\"productId\":\"" + randomProduct() + "\",\"quantity\":1}]}"))
+            .build());
+    }
+
+    /**
+     * Latencies of one thread's 2xx responses, and counts of the others.
+     */
+    private static final class Sample {
+        long[] latencies = new long[1024];
+        int count;
+        long rateLimited;
+        long errors;
+    }
+
+    private void run(String mix, IntFunction<HttpRequest> requests) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        List<Future<Sample>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String threadToken = tokens.get(t % tokens.size());
+            results.add(pool.submit(() -> {
+                token.set(threadToken);
+                Sample sample = new Sample();
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = requests.apply(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    long elapsed = System.nanoTime() - start;
+                    if (response.statusCode() == 429) {
+                        sample.rateLimited++;
+                    } else if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        sample.errors++;
+                    } else {
+                        if (sample.count == sample.latencies.length) {
+                            sample.latencies = Arrays.copyOf(sample.latencies, sample.count * 2);
+                        }
+                        sample.latencies[sample.count++] = elapsed;
+                    }
+                }
+                return sample;
+            }));
+        }
+
+        long[] all = new long[0];
+        long rateLimited = 0;
+        long errors = 0;
+        for (Future<Sample> result : results) {
+            Sample sample = result.get();
+            rateLimited += sample.rateLimited;
+            errors += sample.errors;
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + sample.count);
+            System.arraycopy(sample.latencies, 0, all, offset, sample.count);
+        }
+        pool.shutdown();
+        Arrays.sort(all);
+
+        assertTrue(all.length > 0, "no requests succeeded");
+        System.out.printf("%-10s %8d ok  %8.1f ok/s  p50 %7.2f ms  p99 %7.2f ms  429 %d  errors %d%n",
+            mix, all.length, all.length / (double) SECONDS,
+            percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, rateLimited, errors);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token.get()).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String randomProduct() {
+        return DataSetGenerator.productId(ThreadLocalRandom.current().nextInt(PRODUCTS));
+    }
+}
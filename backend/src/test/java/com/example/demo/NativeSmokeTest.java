@@ -0,0 +1,182 @@
+package com.example.demo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts a packaged build of the application as a separate process against a local Mongo and
+ * checks the paths that depend on reflection: JWT issue and parse, Jackson bodies, repositories,
+ * method security and streaming export. Prints startup time and resident memory, so the native
+ * executable and the JVM jar can be compared; see scripts/native-smoke.sh.
+ * -Dsmoke.command is the command line to start, e.g. "target/storemanager" or
+ * "java -jar target/demo-0.0.1-SNAPSHOT.jar".
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "smoke.command", matches = ".+")
+public class NativeSmokeTest {
+
+    private static final String COMMAND = System.getProperty("smoke.command", "");
+    private static final String MONGO_PORT = System.getProperty("spring.data.mongodb.port", "27017");
+    private static final String ADMIN_EMAIL = "smoke-admin@example.com";
+    private static final String ADMIN_PASSWORD = "smoke-" + UUID.randomUUID();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private Process process;
+    private int port;
+
+    @BeforeAll
+    public void start() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(Arrays.asList(COMMAND.trim().split("\\s+")));
+        command.add("--server.port=" + port);
+        command.add("--spring.data.mongodb.port=" + MONGO_PORT);
+        command.add("--spring.data.mongodb.database=smoke");
+        ProcessBuilder builder = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(Files.createTempFile("smoke", ".log").toFile());
+        builder.environment().put("ADMIN_EMAIL", ADMIN_EMAIL);
+        builder.environment().put("ADMIN_PASSWORD", ADMIN_PASSWORD);
+
+        long started = System.nanoTime();
+        process = builder.start();
+        while (true) {
+            assertTrue(process.isAlive(), "Application exited during startup");
+            try {
+                if (client.send(get("/api/products", null), HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    break;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(120), "Application did not start");
+            Thread.sleep(10);
+        }
+        System.out.printf("%s: ready in %d ms, RSS %s%n", COMMAND,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), residentMemory());
+    }
+
+    @AfterAll
+    public void stop() throws Exception {
+        if (process != null) {
+            System.out.printf("%s: RSS after tests %s%n", COMMAND, residentMemory());
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void signupLoginAndRefresh() throws Exception {
+        String email = "smoke-" + UUID.randomUUID() + "@example.com";
+        HttpResponse<String> signup = send(post("/api/auth/signup", null,
+            "{\"name\":\"Smoke\",\"email\":\"" + email + "\",\"password\":\"secret123\"}"));
+        assertEquals(200, signup.statusCode(), signup.body());
+
+        JsonNode login = login(email, "secret123");
+        assertEquals("USER", login.get("role").asText());
+        assertTrue(login.get("permissions").isArray());
+
+        HttpResponse<String> refresh = send(post("/api/auth/refresh", null,
+            "{\"refreshToken\":\"" + login.get("refreshToken").asText() + "\"}"));
+        assertEquals(200, refresh.statusCode(), refresh.body());
+        assertNotEquals(login.get("refreshToken").asText(), mapper.readTree(refresh.body()).get("refreshToken").asText());
+    }
+
+    @Test
+    public void writesNeedPermission() throws Exception {
+        String supplier = "{\"name\":\"Smoke Supplier\",\"email\":\"supplier@example.com\"}";
+        assertEquals(401, send(post("/api/suppliers", null, supplier)).statusCode());
+
+        String token = login(ADMIN_EMAIL, ADMIN_PASSWORD).get("token").asText();
+        HttpResponse<String> created = send(post("/api/suppliers", token, supplier));
+        assertEquals(200, created.statusCode(), created.body());
+        String id = mapper.readTree(created.body()).get("id").asText();
+
+        HttpResponse<String> read = send(get("/api/suppliers/" + id, null));
+        assertEquals(200, read.statusCode());
+        assertEquals("Smoke Supplier", mapper.readTree(read.body()).get("name").asText());
+    }
+
+    @Test
+    public void exportsStream() throws Exception {
+        String token = login(ADMIN_EMAIL, ADMIN_PASSWORD).get("token").asText();
+        HttpResponse<String> export = send(get("/api/exports/inventory?format=csv", token));
+        assertEquals(200, export.statusCode(), export.body());
+        assertTrue(export.body().contains("productId"), export.body());
+    }
+
+    private JsonNode login(String email, String password) throws Exception {
+        HttpResponse<String> response = send(post("/api/auth/login", null,
+            "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode body = mapper.readTree(response.body());
+        assertNotNull(body.get("token"));
+        return body;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // Linux only; the application process is the launched command itself, not a shell
+    private String residentMemory() {
+        try {
+            return Files.readAllLines(Path.of("/proc/" + process.pid() + "/status")).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.substring("VmRSS:".length()).trim())
+                .findFirst()
+                .orElse("unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
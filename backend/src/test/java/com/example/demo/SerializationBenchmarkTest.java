@@ -0,0 +1,182 @@
+package com.example.demo;
+
+import com.example.demo.config.StreamingJsonWriter;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares payload size and encode/decode time of an order list as JSON, CBOR and Smile, with
+ * and without the Blackbird module (see JacksonConfig), and the default list response against the
+ * tuned one (non-empty inclusion, Blackbird, streamed through StreamingJsonWriter). Run with
+ * mvn test -Dtest=SerializationBenchmarkTest -Dserialization.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "serialization.benchmark", matches = "true")
+public class SerializationBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("serialization.orders", 1000);
+    private static final int ITEMS_PER_ORDER = Integer.getInteger("serialization.items", 50);
+    private static final int LIST_ORDERS = Integer.getInteger("serialization.list-orders", 100_000);
+    private static final int LIST_ITEMS_PER_ORDER = Integer.getInteger("serialization.list-items", 5);
+    private static final int WARMUP = 30;
+    private static final int ITERATIONS = 100;
+
+    @Test
+    public void compareFormats() throws Exception {
+        List<Order> orders = orders(ORDERS, ITEMS_PER_ORDER);
+        int jsonBytes = 0;
+        System.out.printf("%d orders x %d items%n", ORDERS, ITEMS_PER_ORDER);
+        for (boolean blackbird : new boolean[] {false, true}) {
+            for (JsonFactory factory : new JsonFactory[] {new JsonFactory(), new CBORFactory(), new SmileFactory()}) {
+                Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().factory(factory);
+                if (blackbird) {
+                    builder.modulesToInstall(new BlackbirdModule());
+                }
+                ObjectMapper mapper = builder.build();
+                JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, Order.class);
+
+                byte[] encoded = mapper.writeValueAsBytes(orders);
+                for (int i = 0; i < WARMUP; i++) {
+                    mapper.writeValueAsBytes(orders);
+                    mapper.readValue(encoded, type);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    encoded = mapper.writeValueAsBytes(orders);
+                }
+                long encodeNanos = (System.nanoTime() - start) / ITERATIONS;
+                List<Order> decoded = null;
+                start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    decoded = mapper.readValue(encoded, type);
+                }
+                long decodeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+                assertEquals(ORDERS, decoded.size());
+                assertEquals(ITEMS_PER_ORDER, decoded.get(ORDERS - 1).getItems().size());
+                if (jsonBytes == 0) {
+                    jsonBytes = encoded.length;
+                } else if (!(factory.getClass() == JsonFactory.class)) {
+                    assertTrue(encoded.length < jsonBytes, factory.getFormatName() + " should be smaller than JSON");
+                }
+                System.out.printf("%-6s %-10s %9d bytes (%3.0f%%)  encode %7.2f ms  decode %7.2f ms%n",
+                    factory.getFormatName(), blackbird ? "blackbird" : "reflection", encoded.length,
+                    100.0 * encoded.length / jsonBytes, encodeNanos / 1e6, decodeNanos / 1e6);
+            }
+        }
+    }
+
+    @Test
+    public void compareListResponse() throws Exception {
+        List<Order> orders = orders(LIST_ORDERS, LIST_ITEMS_PER_ORDER);
+        ObjectMapper baseline = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper tuned = Jackson2ObjectMapperBuilder.json()
+            .serializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .modulesToInstall(new BlackbirdModule())
+            .build();
+        System.out.printf("List response of %d orders x %d items%n", LIST_ORDERS, LIST_ITEMS_PER_ORDER);
+
+        long baselineBytes = 0;
+        for (int round = 0; round < 2; round++) {
+            // The first round warms up both paths
+            boolean report = round == 1;
+            Measurement before = measure(() -> {
+                byte[] body = baseline.writeValueAsBytes(orders);
+                return body.length;
+            });
+            Measurement after = measure(() -> {
+                CountingOutputStream out = new CountingOutputStream();
+                StreamingJsonWriter.writeArray(tuned, Order.class, orders.iterator(), out);
+                return out.count;
+            });
+            if (report) {
+                baselineBytes = before.bytes();
+                before.print("default", baselineBytes);
+                after.print("tuned", baselineBytes);
+                assertTrue(after.bytes() < before.bytes(), "Omitting empty fields should shrink the response");
+            }
+        }
+        assertTrue(baselineBytes > 0);
+    }
+
+    private interface Body {
+        long write() throws Exception;
+    }
+
+    private record Measurement(long bytes, double millis, long allocated) {
+        void print(String label, long baselineBytes) {
+            System.out.printf("%-8s %11d bytes (%3.0f%%)  %8.1f ms  %8.1f MB allocated%n", label, bytes,
+                100.0 * bytes / baselineBytes, millis, allocated / 1e6);
+        }
+    }
+
+    private static Measurement measure(Body body) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytes = 0;
+        long nanos = 0;
+        long allocated = 0;
+        int runs = 5;
+        for (int i = 0; i < runs; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            bytes = body.write();
+            nanos += System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        }
+        return new Measurement(bytes, nanos / 1e6 / runs, allocated / runs);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private static List<Order> orders(int count, int itemsPerOrder) {
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>(count);
+        for (int o = 0; o < count; o++) {
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            for (int i = 0; i < itemsPerOrder; i++) {
+                OrderItem item = new OrderItem("order-" + o, "prod" + random.nextInt(10_000),
+                    1 + random.nextInt(20), Math.round(random.nextDouble() * 100_000) / 100.0);
+                item.setProductName("Product " + item.getProductId());
+                item.setSupplierId("sup" + random.nextInt(100));
+                items.add(item);
+            }
+            Order order = new Order("order-" + o, new Date(1_700_000_000_000L + o * 60_000L), "customer" + o, items);
+            order.setStatus(Order.STATUS_DELIVERED);
+            order.setCustomerName("Customer " + o);
+            order.setShippingAddress(o + " Main Street");
+            orders.add(order);
+        }
+        return orders;
+    }
+}
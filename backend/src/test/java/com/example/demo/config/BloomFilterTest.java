@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testNoFalseNegativesAndBoundedFalsePositives() {
+        int entries = 10_000;
+        BloomFilter filter = new BloomFilter(entries, 0.01);
+        for (int i = 0; i < entries; i++) {
+            filter.add("token-" + i);
+        }
+        for (int i = 0; i < entries; i++) {
+            assertTrue(filter.mightContain("token-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < entries; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        // Target is 1% at the sized capacity; leave room for variance
+        assertTrue(falsePositives < entries * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testEmptyFilter() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+        assertFalse(filter.mightContain(""));
+        filter.add("");
+        assertTrue(filter.mightContain(""));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.mongodb.MongoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+
+import static com.mongodb.MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL;
+import static com.mongodb.MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoTransactionRunnerTest {
+
+    @Test
+    public void testErrorLabelSurvivesTemplateTranslation() {
+        MongoException writeConflict = new MongoException(112, "WriteConflict");
+        writeConflict.addLabel(TRANSIENT_TRANSACTION_ERROR_LABEL);
+
+        DataAccessException translated = new MongoExceptionTranslator().translateExceptionIfPossible(writeConflict);
+        assertNotNull(translated);
+        assertTrue(MongoTransactionRunner.hasErrorLabel(translated, TRANSIENT_TRANSACTION_ERROR_LABEL));
+        assertFalse(MongoTransactionRunner.hasErrorLabel(translated, UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL));
+        assertFalse(MongoTransactionRunner.hasErrorLabel(new IllegalStateException("Insufficient stock"),
+            TRANSIENT_TRANSACTION_ERROR_LABEL));
+    }
+}
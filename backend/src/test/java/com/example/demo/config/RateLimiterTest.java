@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static RateLimiter limiter(int capacity, double refillPerSecond, int maxKeys) {
+        MockEnvironment env = new MockEnvironment()
+            .withProperty("app.rate-limit.group.write.capacity", String.valueOf(capacity))
+            .withProperty("app.rate-limit.group.write.refill-per-second", String.valueOf(refillPerSecond));
+        return new RateLimiter(env, maxKeys, 60_000);
+    }
+
+    @Test
+    public void testBurstThenRetryAfterOneInterval() {
+        RateLimiter limiter = limiter(5, 1, 100);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "ann").allowed(), "request " + i);
+        }
+        RateLimiter.Decision rejected = limiter.tryAcquire(RateLimitGroup.WRITE, "ann");
+        assertFalse(rejected.allowed());
+        // The next token is earned one interval after the burst started
+        assertTrue(rejected.retryAfterNanos() > 0);
+        assertTrue(rejected.retryAfterNanos() <= TimeUnit.SECONDS.toNanos(1));
+
+        // Buckets are per client, and groups without a limit are never limited
+        assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "bob").allowed());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(RateLimitGroup.READ, "ann").allowed());
+        }
+        assertEquals(1L, limiter.snapshot().get("rejected"));
+    }
+
+    @Test
+    public void testNewClientsShareOverflowBucketWhenTableIsFull() {
+        RateLimiter limiter = limiter(2, 1, 1);
+        assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "ann").allowed());
+        assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "bob").allowed());
+        assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "carl").allowed());
+        assertFalse(limiter.tryAcquire(RateLimitGroup.WRITE, "dora").allowed());
+        // An existing client keeps its own bucket
+        assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "ann").allowed());
+        assertEquals(3L, limiter.snapshot().get("overflowed"));
+    }
+
+    @Test
+    public void testSweepDropsFullBuckets() throws Exception {
+        RateLimiter limiter = limiter(1, 1000, 100);
+        assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "ann").allowed());
+        assertEquals(1, limiter.snapshot().get("trackedClients"));
+        Thread.sleep(10);
+        limiter.sweep();
+        assertEquals(0, limiter.snapshot().get("trackedClients"));
+        assertTrue(limiter.tryAcquire(RateLimitGroup.WRITE, "ann").allowed());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantContextTest {
+
+    @Test
+    public void testWrapCarriesTenantAcrossExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<String> seen = new AtomicReference<>();
+            try (TenantContext.Scope ignored = TenantContext.enter("store-a")) {
+                executor.submit(TenantContext.wrap(() -> seen.set(TenantContext.current()))).get(5, TimeUnit.SECONDS);
+            }
+            assertEquals("store-a", seen.get());
+
+            // The pooled thread is back on the default tenant afterwards
+            executor.submit(() -> seen.set(TenantContext.collection("orders"))).get(5, TimeUnit.SECONDS);
+            assertEquals("orders", seen.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testScopesNest() {
+        try (TenantContext.Scope outer = TenantContext.enter("store-a")) {
+            TenantContext.run("store-b", () -> assertEquals("orders.store-b", TenantContext.collection("orders")));
+            assertEquals("store-a", TenantContext.current());
+        }
+        assertEquals(TenantContext.DEFAULT_TENANT, TenantContext.current());
+        assertThrows(IllegalArgumentException.class, () -> TenantContext.enter("Store A"));
+    }
+}
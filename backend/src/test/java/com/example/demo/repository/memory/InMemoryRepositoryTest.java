@@ -0,0 +1,168 @@
+package com.example.demo.repository.memory;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Supplier;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryRepositoryTest {
+
+    @Test
+    public void testCrudAndSecondaryIndex() {
+        InMemoryOrderRepository repository = new InMemoryOrderRepository();
+        Order order = new Order(null, new Date(), "cust1", Arrays.asList(new OrderItem("prod1", 2)));
+
+        order.setStatus(Order.STATUS_PENDING);
+        Order saved = repository.save(order);
+        assertNotNull(saved.getId());
+        assertEquals(1, repository.countByStatus(Order.STATUS_PENDING));
+
+        // Returned entities are detached copies, like documents read from Mongo
+        Order found = repository.findById(saved.getId()).orElseThrow();
+        found.setStatus(Order.STATUS_SUCCESS);
+        assertEquals(1, repository.countByStatus(Order.STATUS_PENDING));
+
+        repository.save(found);
+        assertEquals(0, repository.countByStatus(Order.STATUS_PENDING));
+        assertEquals(1, repository.findByStatus(Order.STATUS_SUCCESS).size());
+
+        repository.deleteById(saved.getId());
+        assertFalse(repository.existsById(saved.getId()));
+        assertTrue(repository.findByStatus(Order.STATUS_SUCCESS).isEmpty());
+    }
+
+    @Test
+    public void testUniqueIndexAndInsert() {
+        InMemoryOrderRepository repository = new InMemoryOrderRepository();
+        Order first = new Order(null, new Date(), "cust1", null);
+        first.setIdempotencyKey("key1");
+        repository.insert(first);
+
+        Order second = new Order(null, new Date(), "cust2", null);
+        second.setIdempotencyKey("key1");
+        assertThrows(DuplicateKeyException.class, () -> repository.save(second));
+        assertThrows(DuplicateKeyException.class, () -> repository.insert(first));
+        assertEquals(first.getId(), repository.findByIdempotencyKey("key1").orElseThrow().getId());
+    }
+
+    @Test
+    public void testUserRoundTrip() {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        repository.save(new User("Ann", "ann@example.com", "hash", "USER"));
+
+        User found = repository.findByEmail("ann@example.com").orElseThrow();
+        assertNotNull(found.getId());
+        assertEquals("Ann", found.getName());
+        assertEquals("hash", found.getPassword());
+        assertEquals("USER", found.getRole());
+        assertEquals("ROLE_USER", found.getAuthorities().iterator().next().getAuthority());
+        assertTrue(repository.existsByEmail("ann@example.com"));
+    }
+
+    @Test
+    public void testTenantIsolation() {
+        InMemoryOrderRepository orders = new InMemoryOrderRepository();
+        InMemoryUserRepository users = new InMemoryUserRepository();
+        TenantContext.run("store-a", () -> {
+            Order order = new Order("ord1", new Date(), "cust1", null);
+            order.setStatus(Order.STATUS_PENDING);
+            order.setIdempotencyKey("key1");
+            orders.save(order);
+            users.save(new User("Ann", "ann@example.com", "hash", "USER"));
+        });
+        TenantContext.run("store-b", () -> {
+            assertFalse(orders.existsById("ord1"));
+            assertEquals(0, orders.countByStatus(Order.STATUS_PENDING));
+            assertTrue(orders.findByIdempotencyKey("key1").isEmpty());
+
+            // Same id and unique key in another tenant are separate documents
+            Order order = new Order("ord1", new Date(), "cust2", null);
+            order.setIdempotencyKey("key1");
+            orders.insert(order);
+            orders.deleteById("ord1");
+
+            // Accounts are shared by all stores
+            assertTrue(users.existsByEmail("ann@example.com"));
+        });
+        TenantContext.run("store-a", () -> {
+            assertEquals("cust1", orders.findById("ord1").orElseThrow().getCustomerId());
+            assertEquals(1, orders.countByStatus(Order.STATUS_PENDING));
+            assertEquals(1, orders.count());
+        });
+        assertEquals(0, orders.count());
+    }
+
+    @Test
+    public void testSnapshotRoundTrip(@TempDir Path dir) throws Exception {
+        InMemoryOrderItemsRepository repository = new InMemoryOrderItemsRepository();
+        repository.save(new OrderItem("ord1", "prod1", 1, 10.0));
+        repository.save(new OrderItem("ord1", "prod2", 3, 5.0));
+        repository.save(new OrderItem("ord2", "prod1", 1, 10.0));
+        Path file = dir.resolve("items.json");
+        repository.writeSnapshot(file);
+
+        InMemoryOrderItemsRepository restored = new InMemoryOrderItemsRepository();
+        restored.loadSnapshot(file);
+        assertEquals(3, restored.count());
+        assertEquals(2, restored.findByOrderId("ord1").size());
+
+        restored.deleteByOrderId("ord1");
+        assertEquals(1, restored.count());
+    }
+
+    @Test
+    public void testQueryByExample() {
+        InMemorySupplierRepository repository = new InMemorySupplierRepository();
+        repository.save(new Supplier("s1", "Acme Tools", "sales@acme.example", "1 Main St", null, null));
+        repository.save(new Supplier("s2", "Acme Foods", "info@acme.example", "2 Main St", null, null));
+        repository.save(new Supplier("s3", "Globex", "sales@globex.example", null, null, null));
+
+        Supplier byEmail = new Supplier();
+        byEmail.setEmail("sales@acme.example");
+        assertEquals("s1", repository.findOne(Example.of(byEmail)).orElseThrow().getId());
+
+        Supplier probe = new Supplier();
+        probe.setName("acme");
+        ExampleMatcher startsWith = ExampleMatcher.matching()
+            .withStringMatcher(ExampleMatcher.StringMatcher.STARTING).withIgnoreCase();
+        assertEquals(List.of("s2", "s1"), repository.findAll(Example.of(probe, startsWith), Sort.by("name")).stream()
+            .map(Supplier::getId).toList());
+        assertEquals(2, repository.count(Example.of(probe, startsWith)));
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> repository.findOne(Example.of(probe, startsWith)));
+        assertFalse(repository.exists(Example.of(probe)));
+
+        Supplier any = new Supplier();
+        any.setName("Globex");
+        any.setAddress("1 Main St");
+        assertEquals(2, repository.count(Example.of(any, ExampleMatcher.matchingAny())));
+
+        Supplier noAddress = new Supplier();
+        ExampleMatcher nullAddress = ExampleMatcher.matching().withIncludeNullValues()
+            .withIgnorePaths("id", "name", "email", "phone", "website");
+        assertEquals(List.of("s3"), repository.findAll(Example.of(noAddress, nullAddress)).stream()
+            .map(Supplier::getId).toList());
+
+        assertEquals(List.of("Acme Foods"), repository.findBy(Example.of(probe, startsWith),
+            query -> query.sortBy(Sort.by("name")).limit(1).stream().map(Supplier::getName).toList()));
+        Page<Supplier> page = repository.findBy(Example.of(probe, startsWith), query -> query.page(PageRequest.of(0, 1)));
+        assertEquals(2, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+    }
+}
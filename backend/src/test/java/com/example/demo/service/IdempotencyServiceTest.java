@@ -0,0 +1,53 @@
+package com.example.demo.service;
+
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.memory.InMemoryIdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyServiceTest {
+
+    @Test
+    public void testInProgressKeyIsHeldDuringLease() {
+        IdempotencyService service = new IdempotencyService(new InMemoryIdempotencyRecordRepository(), 100, 60);
+        String key = IdempotencyService.scopedKey("k1", "user:ann@example.com");
+
+        assertTrue(service.reserve(new IdempotencyRecord(key, "fp")).isEmpty());
+        IdempotencyRecord holder = service.reserve(new IdempotencyRecord(key, "fp")).orElseThrow();
+        assertFalse(holder.isCompleted());
+    }
+
+    @Test
+    public void testAbandonedReservationIsTakenOver() throws Exception {
+        InMemoryIdempotencyRecordRepository repository = new InMemoryIdempotencyRecordRepository();
+        IdempotencyService service = new IdempotencyService(repository, 100, 0);
+        String key = IdempotencyService.scopedKey("k1", "user:ann@example.com");
+
+        IdempotencyRecord crashed = new IdempotencyRecord(key, "fp");
+        assertTrue(service.reserve(crashed).isEmpty());
+        Thread.sleep(5);
+        IdempotencyRecord retry = new IdempotencyRecord(key, "fp");
+        assertTrue(service.reserve(retry).isEmpty());
+
+        // The original request finishing late must not overwrite or drop the new reservation
+        assertFalse(service.complete(crashed, 201, "application/json", new byte[] {1}));
+        service.release(crashed);
+        assertEquals(retry.getReservedAt(), repository.findById(key).orElseThrow().getReservedAt());
+
+        assertTrue(service.complete(retry, 201, "application/json", new byte[] {2}));
+        assertArrayEquals(new byte[] {2}, service.findCompleted(key).orElseThrow().getResponseBody());
+    }
+
+    @Test
+    public void testKeysAreScopedToCaller() {
+        IdempotencyService service = new IdempotencyService(new InMemoryIdempotencyRecordRepository(), 100, 60);
+        IdempotencyRecord first = new IdempotencyRecord(IdempotencyService.scopedKey("k1", "user:ann@example.com"), "fp");
+        assertTrue(service.reserve(first).isEmpty());
+        assertTrue(service.complete(first, 403, "application/json", new byte[0]));
+
+        String otherCaller = IdempotencyService.scopedKey("k1", "user:bob@example.com");
+        assertTrue(service.findCompleted(otherCaller).isEmpty());
+        assertTrue(service.reserve(new IdempotencyRecord(otherCaller, "fp")).isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantRegistry;
+import com.example.demo.model.Inventory;
+import com.example.demo.model.InventoryAdjustment;
+import com.example.demo.model.StockMovement;
+import com.example.demo.repository.memory.InMemoryInventoryRepository;
+import com.example.demo.repository.memory.InMemoryStockLedgerCheckpointRepository;
+import com.example.demo.repository.memory.InMemoryStockLedgerRepository;
+import com.example.demo.repository.memory.InMemoryStockSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryAdjustmentBufferTest {
+
+    @Test
+    public void testReplayedBatchIsRecordedOnce(@TempDir Path dir) throws Exception {
+        InMemoryInventoryRepository inventoryRepository = new InMemoryInventoryRepository();
+        StockLedgerService ledger = new StockLedgerService(new InMemoryStockLedgerRepository(),
+            new InMemoryStockSnapshotRepository(), new InMemoryStockLedgerCheckpointRepository(),
+            new TenantRegistry(List.of()), 0, 10);
+        inventoryRepository.save(new Inventory("prod1", 10, null));
+
+        // Crash after the batch reached inventory and the ledger, before its checkpoint
+        inventoryRepository.applyAdjustments(Map.of("prod1", 5), "batch-a");
+        StockMovement recorded = new StockMovement("prod1", 5, StockMovement.REASON_ADJUSTMENT, "system");
+        recorded.setReference("adjustment-batch-batch-a");
+        ledger.record(List.of(recorded));
+        Path journal = dir.resolve("adjustments.journal");
+        Files.writeString(journal, "A 1 prod1 5 default system\nF 1 batch-a\n");
+
+        InventoryAdjustmentBuffer buffer = new InventoryAdjustmentBuffer(inventoryRepository, ledger,
+            journal.toString(), false, 60_000, 1 << 20);
+        buffer.start();
+        buffer.flush();
+        buffer.stop();
+
+        assertEquals(15, inventoryRepository.findById("prod1").orElseThrow().getQuantity());
+        assertEquals(1, ledger.getMovements("prod1", null, null).size());
+        assertTrue(Files.readString(journal).endsWith("C 1\n"));
+    }
+
+    @Test
+    public void testStartedFlushThatNeverReachedTheDatabaseIsAppliedOnce(@TempDir Path dir) throws Exception {
+        InMemoryInventoryRepository inventoryRepository = new InMemoryInventoryRepository();
+        StockLedgerService ledger = new StockLedgerService(new InMemoryStockLedgerRepository(),
+            new InMemoryStockSnapshotRepository(), new InMemoryStockLedgerCheckpointRepository(),
+            new TenantRegistry(List.of()), 0, 10);
+        inventoryRepository.save(new Inventory("prod1", 10, null));
+        Path journal = dir.resolve("adjustments.journal");
+        Files.writeString(journal, "A 1 prod1 5 default system\nA 2 prod1 -3 default system\nF 2 batch-a\nA 3 prod1 1 default system\n");
+
+        InventoryAdjustmentBuffer buffer = new InventoryAdjustmentBuffer(inventoryRepository, ledger,
+            journal.toString(), false, 60_000, 1 << 20);
+        buffer.start();
+        assertEquals(3, buffer.pendingDelta("prod1"));
+        buffer.flush();
+        buffer.flush();
+        buffer.stop();
+
+        assertEquals(13, inventoryRepository.findById("prod1").orElseThrow().getQuantity());
+        assertEquals(0, buffer.pendingDelta("prod1"));
+        assertEquals(3, ledger.getBalance("prod1").get("quantity"));
+    }
+
+    @Test
+    public void testAdjustmentsAfterLostJournalAreApplied(@TempDir Path dir) throws Exception {
+        InMemoryInventoryRepository inventoryRepository = new InMemoryInventoryRepository();
+        StockLedgerService ledger = new StockLedgerService(new InMemoryStockLedgerRepository(),
+            new InMemoryStockSnapshotRepository(), new InMemoryStockLedgerCheckpointRepository(),
+            new TenantRegistry(List.of()), 0, 10);
+        inventoryRepository.save(new Inventory("prod1", 145, null));
+        // Batches applied by an earlier instance whose journal is gone
+        for (int i = 0; i < 5; i++) {
+            inventoryRepository.applyAdjustments(Map.of("prod1", 0), "old-batch-" + i);
+        }
+
+        InventoryAdjustmentBuffer buffer = new InventoryAdjustmentBuffer(inventoryRepository, ledger,
+            dir.resolve("adjustments.journal").toString(), false, 60_000, 1 << 20);
+        buffer.start();
+        buffer.adjust(List.of(new InventoryAdjustment("prod1", -7)));
+        buffer.flush();
+        buffer.stop();
+
+        assertEquals(138, inventoryRepository.findById("prod1").orElseThrow().getQuantity());
+        assertEquals(-7, ledger.getMovements("prod1", null, null).get(0).getDelta());
+    }
+
+    @Test
+    public void testMovementsKeepTheUserWhoAdjusted(@TempDir Path dir) throws Exception {
+        InMemoryInventoryRepository inventoryRepository = new InMemoryInventoryRepository();
+        StockLedgerService ledger = new StockLedgerService(new InMemoryStockLedgerRepository(),
+            new InMemoryStockSnapshotRepository(), new InMemoryStockLedgerCheckpointRepository(),
+            new TenantRegistry(List.of()), 0, 10);
+        inventoryRepository.save(new Inventory("prod1", 10, null));
+        Path journal = dir.resolve("adjustments.journal");
+
+        InventoryAdjustmentBuffer buffer = new InventoryAdjustmentBuffer(inventoryRepository, ledger,
+            journal.toString(), false, 60_000, 1 << 20);
+        buffer.start();
+        try {
+            adjustAs("alice@example.com", buffer, 4);
+            adjustAs("bob@example.com", buffer, -1);
+            adjustAs("alice@example.com", buffer, 2);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertTrue(Files.readString(journal).contains("A 2 prod1 -1 default bob@example.com\n"));
+        // Flushed on another thread, outside of any request
+        Executors.newSingleThreadExecutor().submit(buffer::flush).get();
+        buffer.stop();
+
+        assertEquals(15, inventoryRepository.findById("prod1").orElseThrow().getQuantity());
+        Map<String, Integer> byActor = ledger.getMovements("prod1", null, null).stream()
+            .collect(Collectors.toMap(StockMovement::getActor, StockMovement::getDelta));
+        assertEquals(Map.of("alice@example.com", 6, "bob@example.com", -1), byActor);
+    }
+
+    private static void adjustAs(String user, InventoryAdjustmentBuffer buffer, int delta) {
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+        buffer.adjust(List.of(new InventoryAdjustment("prod1", delta)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryAdjustmentJournalTest {
+
+    @Test
+    public void testRecoversStartedButUnfinishedFlush(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("adjustments.journal");
+        try (InventoryAdjustmentJournal journal = new InventoryAdjustmentJournal(file, false)) {
+            assertEquals(0, journal.open().lastSeq);
+            journal.appendAdjustment(1, TenantContext.DEFAULT_TENANT, "prod1", 5, "system");
+            journal.appendAdjustment(2, "store-a", "prod1", -2, "alice@example.com");
+            journal.appendFlushStarted(2, "batch-a");
+            journal.appendAdjustment(3, TenantContext.DEFAULT_TENANT, "prod2", 1, "system");
+        }
+        // A crash mid-write leaves a torn last record
+        Files.writeString(file, "A 4 pro", StandardOpenOption.APPEND);
+
+        try (InventoryAdjustmentJournal journal = new InventoryAdjustmentJournal(file, false)) {
+            InventoryAdjustmentJournal.Recovery recovery = journal.open();
+            assertEquals(2, recovery.startedFlushSeq);
+            assertEquals("batch-a", recovery.startedFlushId);
+            assertEquals(3, recovery.lastSeq);
+            assertEquals(List.of(
+                new InventoryAdjustmentJournal.Entry(1, TenantContext.DEFAULT_TENANT, "prod1", 5, "system"),
+                new InventoryAdjustmentJournal.Entry(2, "store-a", "prod1", -2, "alice@example.com"),
+                new InventoryAdjustmentJournal.Entry(3, TenantContext.DEFAULT_TENANT, "prod2", 1, "system")),
+                recovery.unflushed);
+            journal.appendCheckpoint(2);
+        }
+        assertTrue(Files.readString(file).endsWith("A 3 prod2 1 default system\nC 2\n"));
+
+        try (InventoryAdjustmentJournal journal = new InventoryAdjustmentJournal(file, false)) {
+            InventoryAdjustmentJournal.Recovery recovery = journal.open();
+            assertEquals(0, recovery.startedFlushSeq);
+            assertEquals(List.of(new InventoryAdjustmentJournal.Entry(3, TenantContext.DEFAULT_TENANT, "prod2", 1, "system")),
+                recovery.unflushed);
+        }
+    }
+
+    @Test
+    public void testCompactKeepsCheckpointAndPending(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("adjustments.journal");
+        InventoryAdjustmentJournal.Entry pending = new InventoryAdjustmentJournal.Entry(8, "store-a", "prod1", 4, "system");
+        try (InventoryAdjustmentJournal journal = new InventoryAdjustmentJournal(file, false)) {
+            journal.open();
+            for (int seq = 1; seq <= 7; seq++) {
+                journal.appendAdjustment(seq, TenantContext.DEFAULT_TENANT, "prod1", 1, "system");
+            }
+            journal.appendFlushStarted(7, "batch-b");
+            journal.appendCheckpoint(7);
+            journal.compact(7, List.of(pending));
+            journal.appendAdjustment(9, TenantContext.DEFAULT_TENANT, "prod2", 2, "system");
+        }
+        assertEquals("C 7\nA 8 prod1 4 store-a system\nA 9 prod2 2 default system\n", Files.readString(file));
+
+        try (InventoryAdjustmentJournal journal = new InventoryAdjustmentJournal(file, false)) {
+            InventoryAdjustmentJournal.Recovery recovery = journal.open();
+            assertEquals(9, recovery.lastSeq);
+            assertEquals(0, recovery.startedFlushSeq);
+            assertEquals(2, recovery.unflushed.size());
+            assertEquals(pending, recovery.unflushed.get(0));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.config.TenantContext;
+import com.example.demo.config.TenantRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantBackgroundJobTest {
+
+    @Test
+    public void testRunsArePerTenant() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        TenantBackgroundJob<String> job = new TenantBackgroundJob<>("Test run",
+            new TenantRegistry(List.of("store-a", "store-b")), status -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                status.put("tenant", TenantContext.current());
+                finished.countDown();
+                return TenantContext.current();
+            });
+        job.start(0);
+        try {
+            try (TenantContext.Scope ignored = TenantContext.enter("store-a")) {
+                assertTrue(job.trigger());
+                assertFalse(job.trigger());
+                assertThrows(IllegalStateException.class, job::run);
+                assertEquals(true, job.getLastRun().get("running"));
+            }
+            try (TenantContext.Scope ignored = TenantContext.enter("store-b")) {
+                assertTrue(job.trigger());
+            }
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+            try (TenantContext.Scope ignored = TenantContext.enter("store-b")) {
+                // The finally block may still be running after the task returned
+                while (Boolean.TRUE.equals(job.getLastRun().get("running"))) {
+                    Thread.sleep(10);
+                }
+                assertEquals("store-b", job.getLastRun().get("tenant"));
+                assertEquals("store-b", job.run());
+            }
+        } finally {
+            job.stop();
+        }
+    }
+}
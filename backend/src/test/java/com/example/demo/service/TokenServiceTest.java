@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.config.JwtUtils;
+import com.example.demo.config.TokenRevocationList;
+import com.example.demo.model.User;
+import com.example.demo.repository.memory.InMemoryRefreshTokenRepository;
+import com.example.demo.repository.memory.InMemoryRevokedTokenRepository;
+import com.example.demo.repository.memory.InMemoryUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenServiceTest {
+
+    private static final String SECRET =
+        "VGhpcyBpcyBhIHNlY3JldCBrZXkgZm9yIEpXVCB0b2tlbiBnZW5lcmF0aW9uLiBJdCBzaG91bGQgYmUgYSBsb25nIHJhbmRvbSBzdHJpbmc=";
+
+    private TokenService tokenService;
+    private InMemoryUserRepository userRepository;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+        userRepository = new InMemoryUserRepository();
+        user = userRepository.save(new User("Ann", "ann@example.com", "hash", "USER"));
+        TokenRevocationList revocationList = new TokenRevocationList(new InMemoryRevokedTokenRepository(), 0, 16, 0.01);
+        tokenService = new TokenService(jwtUtils, userRepository, new InMemoryRefreshTokenRepository(),
+            revocationList, 60_000);
+    }
+
+    @Test
+    public void testRefreshRotatesToken() {
+        TokenService.TokenPair first = tokenService.issue(user);
+        TokenService.TokenPair second = tokenService.refresh(first.refreshToken());
+        assertNotEquals(first.refreshToken(), second.refreshToken());
+        assertNotNull(second.accessToken());
+
+        TokenService.TokenPair third = tokenService.refresh(second.refreshToken());
+        assertNotEquals(second.refreshToken(), third.refreshToken());
+        assertThrows(IllegalArgumentException.class, () -> tokenService.refresh("unknown"));
+    }
+
+    @Test
+    public void testReuseRevokesFamily() {
+        TokenService.TokenPair first = tokenService.issue(user);
+        TokenService.TokenPair other = tokenService.issue(user);
+        TokenService.TokenPair second = tokenService.refresh(first.refreshToken());
+
+        // The replaced token presented again: the whole family, including its newest token, is revoked
+        assertThrows(IllegalArgumentException.class, () -> tokenService.refresh(first.refreshToken()));
+        assertThrows(IllegalArgumentException.class, () -> tokenService.refresh(second.refreshToken()));
+
+        // Other sessions of the same user are not affected
+        assertNotNull(tokenService.refresh(other.refreshToken()).refreshToken());
+    }
+
+    @Test
+    public void testChangeRoleEndsSessions() {
+        TokenService.TokenPair session = tokenService.issue(user);
+
+        assertTrue(tokenService.changeRole("ann@example.com", "STAFF"));
+        assertEquals("STAFF", userRepository.findByEmail("ann@example.com").orElseThrow().getRole());
+        // The old session carries the old role; it has to log in again
+        assertThrows(IllegalArgumentException.class, () -> tokenService.refresh(session.refreshToken()));
+
+        assertThrows(IllegalArgumentException.class, () -> tokenService.changeRole("ann@example.com", "OWNER"));
+        assertFalse(tokenService.changeRole("nobody@example.com", "STAFF"));
+    }
+}
@@ -1,5 +1,56 @@
 const API_BASE_URL = import.meta.env.DEV ? '/api' : 'http://localhost:8080/api';
 
+const TOKEN_KEY = 'token';
+const REFRESH_TOKEN_KEY = 'refreshToken';
+
+const storeTokens = (data: { token: string; refreshToken: string }) => {
+  localStorage.setItem(TOKEN_KEY, data.token);
+  localStorage.setItem(REFRESH_TOKEN_KEY, data.refreshToken);
+};
+
+const clearTokens = () => {
+  localStorage.removeItem(TOKEN_KEY);
+  localStorage.removeItem(REFRESH_TOKEN_KEY);
+};
+
+const withToken = (init: RequestInit = {}): RequestInit => {
+  const token = localStorage.getItem(TOKEN_KEY);
+  const headers = new Headers(init.headers);
+  if (token) {
+    headers.set('Authorization', `Bearer ${token}`);
+  }
+  return { ...init, headers };
+};
+
+// Access tokens are short-lived: on a 401 the refresh token is exchanged once and the request retried
+const refreshTokens = async () => {
+  const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+  if (!refreshToken) {
+    return false;
+  }
+  const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json'
+    },
+    body: JSON.stringify({ refreshToken })
+  });
+  if (!response.ok) {
+    clearTokens();
+    return false;
+  }
+  storeTokens(await response.json());
+  return true;
+};
+
+const authFetch = async (url: string, init: RequestInit = {}) => {
+  const response = await fetch(url, withToken(init));
+  if (response.status === 401 && await refreshTokens()) {
+    return fetch(url, withToken(init));
+  }
+  return response;
+};
+
 // Authentication services
 export const signup = async (userData: { email: string; password: string; name: string }) => {
   try {
@@ -52,7 +103,9 @@ export const login = async (email: string, password: string) => {
       throw new Error('Login failed');
     }
 
-    return await response.json();
+    const data = await response.json();
+    storeTokens(data);
+    return data;
   } catch (error) {
     console.error('Login error:', error);
     throw error;
@@ -61,10 +114,15 @@ export const login = async (email: string, password: string) => {
 
 export const logout = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/auth/logout`, {
+    const response = await fetch(`${API_BASE_URL}/auth/logout`, withToken({
       method: 'POST',
-      credentials: 'include'
-    });
+      headers: {
+        'Content-Type': 'application/json'
+      },
+      credentials: 'include',
+      body: JSON.stringify({ refreshToken: localStorage.getItem(REFRESH_TOKEN_KEY) })
+    }));
+    clearTokens();
 
     if (!response.ok) {
       throw new Error('Logout failed');
@@ -77,7 +135,7 @@ export const logout = async () => {
 
 export const checkAuthStatus = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/auth/status`, {
+    const response = await authFetch(`${API_BASE_URL}/auth/status`, {
       credentials: 'include'
     });
 
@@ -94,7 +152,7 @@ export const checkAuthStatus = async () => {
 
 export const fetchInventory = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/inventory`);
+    const response = await authFetch(`${API_BASE_URL}/inventory`);
     if (!response.ok) {
       throw new Error('Failed to fetch inventory');
     }
@@ -107,7 +165,7 @@ export const fetchInventory = async () => {
 
 export const updateInventoryItem = async (productId: string, quantity: number, location: string) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/inventory/${productId}`, {
+    const response = await authFetch(`${API_BASE_URL}/inventory/${productId}`, {
       method: 'PUT',
       headers: {
         'Content-Type': 'application/json',
@@ -126,7 +184,7 @@ export const updateInventoryItem = async (productId: string, quantity: number, l
 
 export const fetchProducts = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/products`);
+    const response = await authFetch(`${API_BASE_URL}/products`);
     if (!response.ok) {
       throw new Error('Failed to fetch products');
     }
@@ -156,7 +214,7 @@ export const updateProduct = async (
       formData.append('image', image);
     }
 
-    const response = await fetch(`${API_BASE_URL}/products/${productId}`, {
+    const response = await authFetch(`${API_BASE_URL}/products/${productId}`, {
       method: 'PUT',
       body: formData,
     });
@@ -190,7 +248,7 @@ export const createProduct = async (
       formData.append('image', image);
     }
 
-    const response = await fetch(`${API_BASE_URL}/products`, {
+    const response = await authFetch(`${API_BASE_URL}/products`, {
       method: 'POST',
       body: formData,
     });
@@ -208,7 +266,7 @@ export const createProduct = async (
 
 export const deleteProduct = async (productId: string) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/products/${productId}`, {
+    const response = await authFetch(`${API_BASE_URL}/products/${productId}`, {
       method: 'DELETE',
     });
     if (!response.ok) {
@@ -222,7 +280,7 @@ export const deleteProduct = async (productId: string) => {
 
 export const fetchSuppliers = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/suppliers`);
+    const response = await authFetch(`${API_BASE_URL}/suppliers`);
     if (!response.ok) {
       throw new Error('Failed to fetch suppliers');
     }
@@ -241,7 +299,7 @@ export const updateSupplier = async (supplierId: string, supplier: {
   website: string 
 }) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/suppliers/${supplierId}`, {
+    const response = await authFetch(`${API_BASE_URL}/suppliers/${supplierId}`, {
       method: 'PUT',
       headers: {
         'Content-Type': 'application/json',
@@ -266,7 +324,7 @@ export const createSupplier = async (supplier: {
   website: string 
 }) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/suppliers`, {
+    const response = await authFetch(`${API_BASE_URL}/suppliers`, {
       method: 'POST',
       headers: {
         'Content-Type': 'application/json',
@@ -285,7 +343,7 @@ export const createSupplier = async (supplier: {
 
 export const deleteSupplier = async (supplierId: string) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/suppliers/${supplierId}`, {
+    const response = await authFetch(`${API_BASE_URL}/suppliers/${supplierId}`, {
       method: 'DELETE',
     });
     if (!response.ok) {
@@ -299,7 +357,7 @@ export const deleteSupplier = async (supplierId: string) => {
 
 export const fetchOrders = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/orders`);
+    const response = await authFetch(`${API_BASE_URL}/orders`);
     if (!response.ok) {
       throw new Error('Failed to fetch orders');
     }
@@ -317,7 +375,7 @@ export const updateOrder = async (orderId: string, order: {
   shippingAddress?: string
 }) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/orders/${orderId}`, {
+    const response = await authFetch(`${API_BASE_URL}/orders/${orderId}`, {
       method: 'PUT',
       headers: {
         'Content-Type': 'application/json',
@@ -347,7 +405,7 @@ export const createOrder = async (order: {
   }>
 }) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/orders`, {
+    const response = await authFetch(`${API_BASE_URL}/orders`, {
       method: 'POST',
       headers: {
         'Content-Type': 'application/json',
@@ -366,7 +424,7 @@ export const createOrder = async (order: {
 
 export const deleteOrder = async (orderId: string) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/orders/${orderId}`, {
+    const response = await authFetch(`${API_BASE_URL}/orders/${orderId}`, {
       method: 'DELETE',
     });
     if (!response.ok) {